@@ -0,0 +1,163 @@
+package bauernhof.benchmark;
+
+import bauernhof.gameboard.GameBoard;
+import bauernhof.gameboard.IntArray;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import bauernhof.player.AlphaBetaAIPlayer;
+import bauernhof.player.GreedyAIPlayer;
+import bauernhof.player.IllegalMoveException;
+import bauernhof.player.UninitializedPlayerException;
+import bauernhof.player.VirtualClock;
+import bauernhof.preset.ImmutableList;
+import bauernhof.preset.card.Card;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of the time the AI players need to choose a move.
+ * The players read the board of the game, which is brought into positions of the opening, the middle and the end of a
+ * game by random moves; After measuring, the moves are taken back again.
+ * The search of the {@link AlphaBetaAIPlayer} is measured for several time budgets with an empty transposition table
+ * for every move, reporting the latency of a move, the searched positions per second and the reached depth.
+ * Run with {@code ant benchmark -Dbenchmark.class=bauernhof.benchmark.AIPlayerBenchmark}.
+ */
+public class AIPlayerBenchmark {
+
+    /**
+     * Number of players of the benchmarked games
+     */
+    private static final int NUM_PLAYERS = 3;
+    /**
+     * Number of random moves before the measured positions
+     */
+    private static final int[] DEPTHS = {0, 12, 24};
+    /**
+     * Time budgets (in milliseconds) of the search per move
+     */
+    private static final long[] BUDGETS = {10, 100};
+    /**
+     * Seed for the deal and the random moves, so every run measures the same positions
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args paths of the configuration files
+     * @throws Exception if a configuration cannot be read
+     */
+    public static void main(String[] args) throws Exception {
+        String[] configFiles = args.length > 0 ? args : new String[]{"bauernhof.xml", "fr.xml"};
+        BenchmarkRunner runner = new BenchmarkRunner(5, 10);
+        runner.printHeader();
+        for (String configFile : configFiles) {
+            GameConfiguration config = new GameConfigurationParser().parse(new File(configFile));
+            List<Card> cards = new ArrayList<>(config.getCards());
+            cards.sort(Comparator.comparing(Card::getName));
+            Collections.shuffle(cards, new Random(SEED));
+            GameBoard board = new GameBoard(NUM_PLAYERS, new ArrayList<>(cards.subList(NUM_PLAYERS * config.getNumCardsPerPlayerHand(), cards.size())), config);
+            List<GreedyAIPlayer> greedyPlayers = new ArrayList<>();
+            List<List<AlphaBetaAIPlayer>> searchPlayers = new ArrayList<>();
+            for (int b = 0; b < BUDGETS.length; b++) {
+                searchPlayers.add(new ArrayList<>());
+            }
+            for (int i = 0; i < NUM_PLAYERS; i++) {
+                GreedyAIPlayer player = new GreedyAIPlayer("Greedy " + (i + 1), 0);
+                player.shareBoard(board);
+                player.init(config, new ImmutableList<>(cards), NUM_PLAYERS, i + 1);
+                for (int b = 0; b < BUDGETS.length; b++) {
+                    AlphaBetaAIPlayer searchPlayer = new AlphaBetaAIPlayer("Search " + (i + 1), 0, BUDGETS[b], new VirtualClock());
+                    searchPlayer.shareBoard(board);
+                    searchPlayer.init(config, new ImmutableList<>(cards), NUM_PLAYERS, i + 1);
+                    searchPlayers.get(b).add(searchPlayer);
+                }
+                int handSize = config.getNumCardsPerPlayerHand();
+                board.setPlayerCards(i + 1, new ArrayList<>(cards.subList(i * handSize, (i + 1) * handSize)));
+                greedyPlayers.add(player);
+            }
+
+            Random random = new Random(SEED);
+            IntArray moves = new IntArray();
+            for (int depth : DEPTHS) {
+                int[] tokens = new int[depth];
+                int made = 0;
+                while (made < depth && board.getDiscardPile().getSize() < config.getNumDepositionAreaSlots() - 1) {
+                    tokens[made++] = apply(board, moves, random);
+                }
+                GreedyAIPlayer player = greedyPlayers.get(board.calculateCurrentPlayerId() - 1);
+                runner.measure(String.format("%s GreedyAIPlayer after %d moves (%d legal)", configFile, made, board.generateMoves(moves)),
+                        10_000, i -> choose(player));
+                for (int b = 0; b < BUDGETS.length; b++) {
+                    AlphaBetaAIPlayer searchPlayer = searchPlayers.get(b).get(board.calculateCurrentPlayerId() - 1);
+                    //Nodes, nanoseconds, depths and number of all searches
+                    long[] totals = new long[4];
+                    runner.measure(String.format("%s AlphaBetaAIPlayer %d ms after %d moves", configFile, BUDGETS[b], made),
+                            1, i -> search(searchPlayer, totals));
+                    System.out.printf("  %.0f nodes per second, %.1f plies deep%n",
+                            totals[0] * 1e9 / totals[1], totals[2] / (double) totals[3]);
+                }
+                while (made > 0) {
+                    board.undo(tokens[--made]);
+                }
+            }
+        }
+        runner.printChecksum();
+    }
+
+    /**
+     * Helper method letting a player choose a move
+     *
+     * @param player the player, which is initialized
+     * @return a number depending on the move
+     */
+    private static long choose(GreedyAIPlayer player) {
+        try {
+            return player.chooseMove().getDeposited().getName().hashCode();
+        } catch (UninitializedPlayerException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Helper method letting a player search a move with an empty transposition table
+     *
+     * @param player the player, which is initialized
+     * @param totals the sums of the searched nodes, the search time, the reached depth and the number of searches
+     * @return a number depending on the move
+     */
+    private static long search(AlphaBetaAIPlayer player, long[] totals) {
+        player.clearTable();
+        try {
+            long result = player.chooseMove().getDeposited().getName().hashCode();
+            totals[0] += player.getNodes();
+            totals[1] += player.getSearchNanos();
+            totals[2] += player.getCompletedDepth();
+            totals[3]++;
+            return result;
+        } catch (UninitializedPlayerException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Helper method making a random legal move
+     *
+     * @param board  the board
+     * @param moves  buffer for the legal moves
+     * @param random the random numbers
+     * @return the undo token
+     */
+    private static int apply(GameBoard board, IntArray moves, Random random) {
+        try {
+            return board.apply(moves.get(random.nextInt(board.generateMoves(moves))));
+        } catch (IllegalMoveException e) {
+            throw new IllegalStateException("Generated move is illegal", e);
+        }
+    }
+}
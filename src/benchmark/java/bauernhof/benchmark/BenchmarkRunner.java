@@ -0,0 +1,109 @@
+package bauernhof.benchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * A small measurement loop for the benchmarks.
+ * Every operation is first run for a number of warmup iterations so the JIT can compile it, then the measured iterations
+ * report the average time per operation and the bytes allocated per operation by the current thread
+ * (read from {@link com.sun.management.ThreadMXBean}, the same numbers a GC allocation profiler shows).
+ */
+final class BenchmarkRunner {
+
+    /**
+     * A single benchmarked operation
+     */
+    interface Operation {
+        /**
+         * Runs the operation once
+         *
+         * @param index the number of the call, e.g. to pick an input
+         * @return any result; It is summed up so the JIT cannot remove the work
+         */
+        long run(int index);
+    }
+
+    /**
+     * Access to the allocation counter of the current thread
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Number of iterations before measuring
+     */
+    private final int warmupIterations;
+    /**
+     * Number of measured iterations
+     */
+    private final int iterations;
+    /**
+     * Sum of all results, printed at the end so no operation is optimised away
+     */
+    private long sink;
+
+    /**
+     * Constructor for a runner
+     *
+     * @param warmupIterations number of iterations before measuring
+     * @param iterations       number of measured iterations
+     */
+    BenchmarkRunner(int warmupIterations, int iterations) {
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Prints the header of the result table
+     */
+    void printHeader() {
+        System.out.printf("%-60s %14s %14s%n", "Benchmark", "ns/op", "B/op");
+    }
+
+    /**
+     * Measures an operation and prints one line of the result table
+     *
+     * @param name             the name of the benchmark
+     * @param opsPerIteration  the number of calls per iteration
+     * @param operation        the operation
+     * @return the average time per operation in nanoseconds
+     */
+    double measure(String name, int opsPerIteration, Operation operation) {
+        for (int i = 0; i < this.warmupIterations; i++) {
+            this.runIteration(opsPerIteration, operation);
+        }
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < this.iterations; i++) {
+            this.runIteration(opsPerIteration, operation);
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+        double ops = (double) opsPerIteration * this.iterations;
+        double nanosPerOp = nanos / ops;
+        System.out.printf("%-60s %14.1f %14.1f%n", name, nanosPerOp, bytes / ops);
+        return nanosPerOp;
+    }
+
+    /**
+     * Prints the sum of all results
+     */
+    void printChecksum() {
+        System.out.println("(checksum " + this.sink + ")");
+    }
+
+    /**
+     * Runs one iteration of an operation
+     *
+     * @param opsPerIteration the number of calls
+     * @param operation       the operation
+     */
+    private void runIteration(int opsPerIteration, Operation operation) {
+        long sum = 0;
+        for (int i = 0; i < opsPerIteration; i++) {
+            sum += operation.run(i);
+        }
+        this.sink += sum;
+    }
+}
@@ -0,0 +1,170 @@
+package bauernhof.benchmark;
+
+import bauernhof.gameboard.GameBoard;
+import bauernhof.gameboard.IntArray;
+import bauernhof.gameboard.PackedMove;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import bauernhof.player.IllegalMoveException;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark of random playouts as run by a searching AI.
+ * A playout makes random legal moves until the game ends and takes them all back again.
+ * The packed moves of {@link GameBoard#generateMoves(IntArray)} are compared to sampling {@link Move} objects;
+ * Both pick moves with the same probabilities, so the playouts have the same length on average.
+ * Run with {@code ant benchmark -Dbenchmark.class=bauernhof.benchmark.PlayoutBenchmark}.
+ */
+public class PlayoutBenchmark {
+
+    /**
+     * Number of players of the benchmarked games
+     */
+    private static final int NUM_PLAYERS = 3;
+    /**
+     * Number of rounds after which a game ends at the latest, as in {@link bauernhof.main.Main}
+     */
+    private static final int MAX_ROUNDS = 30;
+    /**
+     * Seed for the deal and the random moves, so every run measures the same games
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args paths of the configuration files
+     * @throws Exception if a configuration cannot be read
+     */
+    public static void main(String[] args) throws Exception {
+        String[] configFiles = args.length > 0 ? args : new String[]{"bauernhof.xml", "fr.xml"};
+        BenchmarkRunner runner = new BenchmarkRunner(5, 10);
+        runner.printHeader();
+        for (String configFile : configFiles) {
+            GameConfiguration config = new GameConfigurationParser().parse(new File(configFile));
+            List<Card> cards = new ArrayList<>(config.getCards());
+            Collections.shuffle(cards, new Random(SEED));
+            GameBoard board = deal(config, cards);
+            int slots = config.getNumDepositionAreaSlots();
+            int perTaken = config.getNumCardsPerPlayerHand() + 1;
+            IntArray moves = new IntArray();
+            int[] tokens = new int[MAX_ROUNDS * NUM_PLAYERS];
+            SplittableRandom random = new SplittableRandom(SEED);
+
+            runner.measure(configFile + " GameBoard.generateMoves", 100_000, i -> board.generateMoves(moves));
+            double packed = runner.measure(configFile + " playout with packed moves", 10_000, i -> {
+                int depth = 0;
+                while (depth < tokens.length && board.getDiscardPile().getSize() < slots && board.getDrawPile().getSize() > 0) {
+                    //Same choice as randomMove: The moves are grouped by the taken card, the top card of the draw pile first
+                    int takenOptions = board.generateMoves(moves) / perTaken;
+                    int taken = takenOptions > 1 && random.nextBoolean() ? 1 + random.nextInt(takenOptions - 1) : 0;
+                    tokens[depth++] = apply(board, moves.get(taken * perTaken + random.nextInt(perTaken)));
+                }
+                long score = board.getPlayerScore(1);
+                for (int d = depth - 1; d >= 0; d--) {
+                    board.undo(tokens[d]);
+                }
+                return score + depth;
+            });
+            double sampled = runner.measure(configFile + " playout with Move objects", 10_000, i -> {
+                int depth = 0;
+                while (depth < tokens.length && board.getDiscardPile().getSize() < slots && board.getDrawPile().getSize() > 0) {
+                    tokens[depth++] = apply(board, randomMove(board, random));
+                }
+                long score = board.getPlayerScore(1);
+                for (int d = depth - 1; d >= 0; d--) {
+                    board.undo(tokens[d]);
+                }
+                return score + depth;
+            });
+            long movesMade = 0;
+            for (int i = 0; i < 10_000; i++) {
+                int depth = 0;
+                while (depth < tokens.length && board.getDiscardPile().getSize() < slots && board.getDrawPile().getSize() > 0) {
+                    tokens[depth++] = apply(board, randomMove(board, random));
+                }
+                movesMade += depth;
+                while (depth > 0) {
+                    board.undo(tokens[--depth]);
+                }
+            }
+            double movesPerPlayout = movesMade / 10_000.0;
+            System.out.printf("%s: %d legal moves at the start, %.1f moves per playout, %.0f / %.0f moves per second (packed / Move objects), "
+                            + "%d score calculations skipped%n",
+                    configFile, board.generateMoves(moves), movesPerPlayout, 1e9 * movesPerPlayout / packed, 1e9 * movesPerPlayout / sampled,
+                    board.getSkippedScoreComputations());
+        }
+        runner.printChecksum();
+    }
+
+    /**
+     * Deals the cards like {@link bauernhof.main.Main} does
+     *
+     * @param config the configuration
+     * @param cards  the shuffled cards
+     * @return the board before the first move
+     */
+    private static GameBoard deal(GameConfiguration config, List<Card> cards) {
+        int handSize = config.getNumCardsPerPlayerHand();
+        GameBoard board = new GameBoard(NUM_PLAYERS, new ArrayList<>(cards.subList(NUM_PLAYERS * handSize, cards.size())), config);
+        for (int i = 0; i < NUM_PLAYERS; i++) {
+            board.setPlayerCards(i + 1, new ArrayList<>(cards.subList(i * handSize, (i + 1) * handSize)));
+        }
+        board.updateAllPlayerScores();
+        return board;
+    }
+
+    /**
+     * Picks a random legal move by sampling the piles like {@link bauernhof.player.RandomAIPlayer} does
+     *
+     * @param board  the board
+     * @param random the random numbers
+     * @return the move
+     */
+    private static Move randomMove(GameBoard board, SplittableRandom random) {
+        int discardSize = board.getDiscardPile().getSize();
+        Card taken = discardSize > 0 && random.nextBoolean()
+                ? board.getDiscardPile().lookAt(random.nextInt(discardSize)) : board.getDrawPile().lookAt(0);
+        List<Card> hand = board.getPlayerPile(board.calculateCurrentPlayerId()).getList();
+        int index = random.nextInt(hand.size() + 1);
+        return new Move(taken, index == hand.size() ? taken : hand.get(index));
+    }
+
+    /**
+     * Helper method applying a packed move that is known to be legal
+     *
+     * @param board the board
+     * @param move  the packed move
+     * @return the undo token
+     */
+    private static int apply(GameBoard board, int move) {
+        try {
+            return board.apply(move);
+        } catch (IllegalMoveException e) {
+            throw new IllegalStateException("Generated move " + PackedMove.getTaken(move) + "/" + PackedMove.getDeposited(move) + " is illegal", e);
+        }
+    }
+
+    /**
+     * Helper method applying a move that is known to be legal
+     *
+     * @param board the board
+     * @param move  the move
+     * @return the undo token
+     */
+    private static int apply(GameBoard board, Move move) {
+        try {
+            return board.apply(move);
+        } catch (IllegalMoveException e) {
+            throw new IllegalStateException("Sampled move " + move + " is illegal", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package bauernhof.benchmark;
+
+import bauernhof.gameboard.HandScoreCache;
+import bauernhof.gameboard.ScoreTable;
+import bauernhof.gameboard.ScoringEngine;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import bauernhof.preset.card.Card;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of the {@link ScoreTable}.
+ * For every configuration and hand size the table is built, its size and build time are printed,
+ * and looking up random hands is compared to scoring them with the {@link ScoringEngine}.
+ * Pair tables only answer some hands; The share of answered hands is printed as well.
+ * Run with {@code ant benchmark -Dbenchmark.class=bauernhof.benchmark.ScoreTableBenchmark}.
+ */
+public class ScoreTableBenchmark {
+
+    /**
+     * The largest number of hands stored in a full table
+     */
+    private static final long LIMIT = 5_000_000;
+    /**
+     * Number of different random hands per hand size
+     */
+    private static final int NUM_HANDS = 1024;
+    /**
+     * Seed for the random hands, so every run measures the same hands
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args paths of the configuration files
+     * @throws Exception if a configuration cannot be read
+     */
+    public static void main(String[] args) throws Exception {
+        String[] configFiles = args.length > 0 ? args : new String[]{"bauernhof.xml", "fr.xml"};
+        BenchmarkRunner runner = new BenchmarkRunner(5, 10);
+        for (String configFile : configFiles) {
+            GameConfiguration config = new GameConfigurationParser().parse(new File(configFile));
+            ScoringEngine engine = new ScoringEngine(config.getCards());
+            List<Card> cards = new ArrayList<>(config.getCards());
+            cards.sort(Comparator.comparing(Card::getName));
+            Random random = new Random(SEED);
+            for (int handSize = 2; handSize <= 9; handSize++) {
+                ScoreTable table = ScoreTable.build(engine, handSize, LIMIT);
+                int words = engine.getNumWords();
+                long[] packed = new long[NUM_HANDS * words];
+                int answered = 0;
+                for (int i = 0; i < NUM_HANDS; i++) {
+                    Collections.shuffle(cards, random);
+                    engine.fillHand(cards.subList(0, handSize), packed, i * words);
+                    answered += table.lookup(packed, i * words) != HandScoreCache.MISSING ? 1 : 0;
+                }
+                System.out.printf("%s H=%d: %s table, %d entries, %d KiB, built in %d ms, answers %d/%d hands%n",
+                        configFile, handSize, table.isFull() ? "full" : "pair", table.getNumEntries(), table.getSizeInBytes() / 1024,
+                        table.getBuildMillis(), answered, NUM_HANDS);
+                runner.printHeader();
+                long[] scratch = engine.newHand();
+                runner.measure(configFile + " H=" + handSize + " ScoreTable.lookup", NUM_HANDS,
+                        i -> table.lookup(packed, i * words));
+                runner.measure(configFile + " H=" + handSize + " ScoringEngine.score", NUM_HANDS,
+                        i -> engine.score(packed, i * words, scratch, 0));
+            }
+        }
+        runner.printChecksum();
+    }
+}
@@ -0,0 +1,188 @@
+package bauernhof.benchmark;
+
+import bauernhof.gameboard.BatchScorer;
+import bauernhof.gameboard.HandState;
+import bauernhof.gameboard.PointsCalculator;
+import bauernhof.gameboard.ScoringEngine;
+import bauernhof.gameboard.SwapEvaluator;
+import bauernhof.gameconfig.EffectIndex;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import bauernhof.preset.card.Card;
+import bauernhof.preset.card.Effect;
+import bauernhof.preset.card.EffectType;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Benchmark of the different ways to score a hand.
+ * For every configuration and every allowed hand size (2-9) a fixed set of random hands is scored by
+ * the list based {@link PointsCalculator}, the {@link ScoringEngine} (with and without the shared cache),
+ * {@link HandState} and {@link BatchScorer}.
+ * All outcomes of a turn (H + 1) are scored once by {@link SwapEvaluator} and once hand by hand with the engine. A second set uses the hand with the most blocking effects involved.
+ * Run with {@code ant benchmark}; Configuration files can be given as arguments (default: bauernhof.xml and fr.xml).
+ */
+public class ScoringBenchmark {
+
+    /**
+     * Number of different random hands per hand size
+     */
+    private static final int NUM_HANDS = 1024;
+    /**
+     * Seed for the random hands, so every run measures the same hands
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args paths of the configuration files
+     * @throws Exception if a configuration cannot be read
+     */
+    public static void main(String[] args) throws Exception {
+        String[] configFiles = args.length > 0 ? args : new String[]{"bauernhof.xml", "fr.xml"};
+        BenchmarkRunner runner = new BenchmarkRunner(5, 10);
+        runner.printHeader();
+        for (String configFile : configFiles) {
+            GameConfiguration config = new GameConfigurationParser().parse(new File(configFile));
+            ScoringEngine engine = ScoringEngine.forConfiguration(config);
+            List<Card> cards = new ArrayList<>(config.getCards());
+            cards.sort(Comparator.comparing(Card::getName));
+            Random random = new Random(SEED);
+            for (int handSize = 2; handSize <= 9; handSize++) {
+                List<List<Card>> hands = new ArrayList<>();
+                for (int i = 0; i < NUM_HANDS; i++) {
+                    Collections.shuffle(cards, random);
+                    hands.add(new ArrayList<>(cards.subList(0, handSize)));
+                }
+                measureHands(runner, configFile + " H=" + handSize, engine, hands, cards);
+            }
+            for (int handSize = 2; handSize <= 9; handSize++) {
+                List<List<Card>> hands = Collections.singletonList(blockingHand(config, handSize));
+                measureHands(runner, configFile + " H=" + handSize + " blocking", engine, hands, cards);
+            }
+        }
+        runner.printChecksum();
+    }
+
+    /**
+     * Measures all scoring paths for a set of hands
+     *
+     * @param runner the benchmark runner
+     * @param label  the label of the hands
+     * @param engine the compiled rules of the configuration
+     * @param hands  the hands to be scored
+     * @param cards  all cards of the configuration, used to pick cards for swaps
+     */
+    private static void measureHands(BenchmarkRunner runner, String label, ScoringEngine engine, List<List<Card>> hands, List<Card> cards) {
+        int words = engine.getNumWords();
+        int count = hands.size();
+        long[] packed = new long[count * words];
+        HandState[] states = new HandState[count];
+        int[] swapOut = new int[count];
+        int[] swapIn = new int[count];
+        for (int i = 0; i < count; i++) {
+            engine.fillHand(hands.get(i), packed, i * words);
+            states[i] = new HandState(engine, hands.get(i));
+            swapOut[i] = engine.getId(hands.get(i).get(0));
+            for (Card card : cards) {
+                if (!hands.get(i).contains(card)) {
+                    swapIn[i] = engine.getId(card);
+                    break;
+                }
+            }
+        }
+        PointsCalculator listCalculator = new PointsCalculator();
+        PointsCalculator engineCalculator = new PointsCalculator(engine);
+        long[] scratch = engine.newHand();
+        int ops = Math.max(count, 1024);
+        runner.measure(label + " PointsCalculator (lists)", ops,
+                i -> listCalculator.calculatePoints(hands.get(i % count)));
+        runner.measure(label + " PointsCalculator (engine, cached)", ops,
+                i -> engineCalculator.calculatePoints(hands.get(i % count)));
+        runner.measure(label + " ScoringEngine.score (bitset)", ops,
+                i -> engine.score(packed, (i % count) * words, scratch, 0));
+        runner.measure(label + " HandState.scoreAfterSwap", ops,
+                i -> states[i % count].scoreAfterSwap(swapOut[i % count], swapIn[i % count]));
+        SwapEvaluator swapEvaluator = new SwapEvaluator(engine);
+        int handSize = hands.get(0).size();
+        int[][] handIds = new int[count][handSize];
+        for (int i = 0; i < count; i++) {
+            for (int k = 0; k < handSize; k++) {
+                handIds[i][k] = engine.getId(hands.get(i).get(k));
+            }
+        }
+        int[] outcomes = new int[handSize + 1];
+        long[] swapped = engine.newHand();
+        runner.measure(label + " SwapEvaluator.scoreSwaps (H+1 outcomes)", ops, i -> {
+            int hand = i % count;
+            swapEvaluator.scoreSwaps(handIds[hand], handSize, swapIn[hand], outcomes);
+            return outcomes[0];
+        });
+        runner.measure(label + " ScoringEngine.score x (H+1 outcomes)", ops, i -> {
+            int hand = i % count;
+            long sum = 0;
+            for (int out = 0; out <= handSize; out++) {
+                System.arraycopy(packed, hand * words, swapped, 0, words);
+                int in = swapIn[hand];
+                swapped[in >>> 6] |= 1L << in;
+                int removed = out < handSize ? handIds[hand][out] : in;
+                swapped[removed >>> 6] &= ~(1L << removed);
+                sum += engine.score(swapped, 0, scratch, 0);
+            }
+            return sum;
+        });
+        BatchScorer batchScorer = new BatchScorer(engine);
+        int[] scores = new int[count];
+        runner.measure(label + " BatchScorer (" + count + " hands per op)", Math.max(1, ops / count), i -> {
+            batchScorer.score(packed, scores);
+            return scores[i % count];
+        });
+    }
+
+    /**
+     * Builds the hand with the most blocking involved: cards owning blocking effects and cards selected by them come first
+     *
+     * @param config   the configuration
+     * @param handSize the size of the hand
+     * @return the hand
+     */
+    private static List<Card> blockingHand(GameConfiguration config, int handSize) {
+        EffectIndex effectIndex = config.getEffectIndex();
+        Map<Card, Integer> weights = new HashMap<>();
+        for (Card card : config.getCards()) {
+            int weight = 0;
+            for (Effect effect : card.getEffects()) {
+                if (isBlocking(effect.getType())) {
+                    weight += 2;
+                }
+            }
+            for (EffectIndex.Dependency dependency : effectIndex.getEffectsSelecting(card)) {
+                if (isBlocking(dependency.getEffect().getType())) {
+                    weight++;
+                }
+            }
+            weights.put(card, weight);
+        }
+        List<Card> cards = new ArrayList<>(config.getCards());
+        cards.sort(Comparator.comparing((Card card) -> -weights.get(card)).thenComparing(Card::getName));
+        return new ArrayList<>(cards.subList(0, handSize));
+    }
+
+    /**
+     * Checks if an effect type blocks cards
+     *
+     * @param type the effect type
+     * @return true for the blocking types
+     */
+    private static boolean isBlocking(EffectType type) {
+        return type == EffectType.BLOCKS_EVERY || type == EffectType.BLOCKED_IF_WITH || type == EffectType.BLOCKED_IF_WITHOUT;
+    }
+}
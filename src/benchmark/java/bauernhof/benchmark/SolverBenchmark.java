@@ -0,0 +1,144 @@
+package bauernhof.benchmark;
+
+import bauernhof.card.FarmCard;
+import bauernhof.card.FarmEffect;
+import bauernhof.gameboard.HandSolver;
+import bauernhof.gameboard.ScoringEngine;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import bauernhof.preset.Either;
+import bauernhof.preset.card.Card;
+import bauernhof.preset.card.CardColor;
+import bauernhof.preset.card.Effect;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmark of the {@link HandSolver}.
+ * For every configuration the best hand of all cards is searched for the hand sizes 2-9, and the best hand of
+ * random pools of the size seen during a game (hand, discard pile and top of the draw pile).
+ * Larger card sets are built by copying the cards of a configuration; Card selectors refer to the card of the same copy.
+ * Run with {@code ant benchmark -Dbenchmark.class=bauernhof.benchmark.SolverBenchmark}.
+ */
+public class SolverBenchmark {
+
+    /**
+     * Time limit of a single search in milliseconds
+     */
+    private static final long TIME_LIMIT = 10000;
+    /**
+     * Number of random pools per hand size
+     */
+    private static final int NUM_POOLS = 20;
+    /**
+     * Seed for the random pools, so every run measures the same pools
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Runs the benchmark
+     *
+     * @param args paths of the configuration files
+     * @throws Exception if a configuration cannot be read
+     */
+    public static void main(String[] args) throws Exception {
+        String[] configFiles = args.length > 0 ? args : new String[]{"bauernhof.xml", "fr.xml"};
+        System.out.printf("%-52s %6s %6s %8s %12s %10s%n", "search", "score", "bound", "optimal", "nodes", "ms");
+        for (String configFile : configFiles) {
+            GameConfiguration config = new GameConfigurationParser().parse(new File(configFile));
+            run(configFile, new ArrayList<>(config.getCards()));
+        }
+        GameConfiguration config = new GameConfigurationParser().parse(new File(configFiles[0]));
+        run(configFiles[0] + " x160", copyCards(new ArrayList<>(config.getCards()), 160));
+    }
+
+    /**
+     * Runs all searches for one set of cards
+     *
+     * @param label the name of the card set
+     * @param cards the cards
+     */
+    private static void run(String label, List<Card> cards) {
+        cards.sort(Comparator.comparing(Card::getName));
+        HandSolver solver = new HandSolver(new ScoringEngine(cards));
+        Random random = new Random(SEED);
+        for (int handSize = 2; handSize <= 9; handSize++) {
+            print(label + " " + cards.size() + " cards H=" + handSize, solver, cards, handSize);
+        }
+        for (int handSize = 2; handSize <= 9; handSize++) {
+            int poolSize = Math.min(cards.size(), 3 * handSize);
+            long start = System.nanoTime();
+            long nodes = 0;
+            int optimal = 0;
+            for (int i = 0; i < NUM_POOLS; i++) {
+                Collections.shuffle(cards, random);
+                HandSolver.Solution solution = solver.solve(cards.subList(0, poolSize), handSize, TIME_LIMIT);
+                nodes += solution.getNodes();
+                optimal += solution.isOptimal() ? 1 : 0;
+            }
+            System.out.printf("%-52s %6s %6s %8s %12d %10.3f%n", label + " pool of " + poolSize + " H=" + handSize + " (avg)",
+                    "-", "-", optimal + "/" + NUM_POOLS, nodes / NUM_POOLS, (System.nanoTime() - start) / 1e6 / NUM_POOLS);
+        }
+    }
+
+    /**
+     * Runs a single search and prints the result
+     *
+     * @param label    the label of the search
+     * @param solver   the solver
+     * @param pool     the cards of the pool
+     * @param handSize the size of the hand
+     */
+    private static void print(String label, HandSolver solver, List<Card> pool, int handSize) {
+        long start = System.nanoTime();
+        HandSolver.Solution solution = solver.solve(pool, handSize, TIME_LIMIT);
+        System.out.printf("%-52s %6d %6d %8b %12d %10.1f%n", label, solution.getScore(), solution.getUpperBound(),
+                solution.isOptimal(), solution.getNodes(), (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Builds a larger card set by copying the cards of a configuration
+     *
+     * @param cards    the cards of the configuration
+     * @param numCards the number of cards of the new set
+     * @return the copied cards
+     */
+    private static List<Card> copyCards(List<Card> cards, int numCards) {
+        cards.sort(Comparator.comparing(Card::getName));
+        List<Card> copies = new ArrayList<>();
+        List<Map<Card, FarmCard>> copyMaps = new ArrayList<>();
+        for (int copy = 0; copies.size() < numCards; copy++) {
+            Map<Card, FarmCard> copyMap = new HashMap<>();
+            for (int i = 0; i < cards.size() && copies.size() < numCards; i++) {
+                Card card = cards.get(i);
+                FarmCard farmCard = new FarmCard(card.getName() + " #" + copy, card.getColor(), card.getBaseValue(), card.getImage());
+                copyMap.put(card, farmCard);
+                copies.add(farmCard);
+            }
+            copyMaps.add(copyMap);
+        }
+        for (Map<Card, FarmCard> copyMap : copyMaps) {
+            for (Map.Entry<Card, FarmCard> entry : copyMap.entrySet()) {
+                for (Effect effect : entry.getKey().getEffects()) {
+                    FarmEffect farmEffect = new FarmEffect(effect.getType(), effect.getEffectValue());
+                    for (Either<Card, CardColor> selector : effect.getSelector()) {
+                        if (selector.isRight()) {
+                            farmEffect.addSelection(selector.getRight());
+                        } else if (copyMap.containsKey(selector.getLeft())) {
+                            farmEffect.addSelection(copyMap.get(selector.getLeft()));
+                        }
+                    }
+                    entry.getValue().addEffect(farmEffect);
+                }
+            }
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,197 @@
+package bauernhof.benchmark;
+
+import bauernhof.gameboard.GameBoard;
+import bauernhof.gameboard.GameState;
+import bauernhof.gameboard.Zobrist;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Collision check of the {@link Zobrist} hashes of game positions.
+ * Random games are played out on a {@link GameBoard} with {@link GameBoard#apply(Move)} and taken back with
+ * {@link GameBoard#undo(int)}. Every position reached is identified by a second, independent 64 bit hash over the
+ * card locations; Two positions with the same Zobrist hash but a different second hash are a collision.
+ * The incremental hash is compared to the hash calculated from scratch and to the hash of the {@link GameState}.
+ * Run with {@code ant benchmark -Dbenchmark.class=bauernhof.benchmark.ZobristBenchmark -Dbenchmark.args="playouts"}.
+ */
+public class ZobristBenchmark {
+
+    /**
+     * Number of playouts per configuration if no number is given
+     */
+    private static final int DEFAULT_PLAYOUTS = 1_000_000;
+    /**
+     * Number of playouts from the same deal
+     */
+    private static final int PLAYOUTS_PER_DEAL = 100;
+    /**
+     * Every that many moves the hash is compared to the hash calculated from scratch
+     */
+    private static final int CHECK_INTERVAL = 64;
+    /**
+     * Number of slots of the table of seen positions; Positions are only added while it is at most half full
+     */
+    private static final int TABLE_SIZE = 1 << 23;
+    /**
+     * Seed for the random games, so every run plays the same games
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Runs the check
+     *
+     * @param args the number of playouts per configuration followed by the paths of the configuration files
+     * @throws Exception if a configuration cannot be read or a hash is wrong
+     */
+    public static void main(String[] args) throws Exception {
+        int playouts = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLAYOUTS;
+        String[] configFiles = args.length > 1 ? java.util.Arrays.copyOfRange(args, 1, args.length) : new String[]{"bauernhof.xml", "fr.xml"};
+        for (String configFile : configFiles) {
+            run(configFile, new GameConfigurationParser().parse(new File(configFile)), playouts);
+        }
+    }
+
+    /**
+     * Plays the random games of one configuration and prints the result
+     *
+     * @param label    the name of the configuration
+     * @param config   the configuration
+     * @param playouts the number of playouts
+     * @throws Exception if a hash is wrong
+     */
+    private static void run(String label, GameConfiguration config, int playouts) throws Exception {
+        long[] hashes = new long[TABLE_SIZE];
+        long[] identities = new long[TABLE_SIZE];
+        boolean[] used = new boolean[TABLE_SIZE];
+        int stored = 0;
+        long positions = 0;
+        long lookups = 0;
+        long collisions = 0;
+        long checks = 0;
+        Random random = new Random(SEED);
+        List<Card> cards = new ArrayList<>(config.getCards());
+        int handSize = config.getNumCardsPerPlayerHand();
+        long start = System.nanoTime();
+        int[] tokens = new int[4 * 30 + 1];
+        for (int playout = 0; playout < playouts; ) {
+            int numPlayers = 2 + random.nextInt(3);
+            Collections.shuffle(cards, random);
+            GameBoard board = deal(config, cards, numPlayers, handSize);
+            long rootHash = board.getHash();
+            for (int p = 0; p < PLAYOUTS_PER_DEAL && playout < playouts; p++, playout++) {
+                int depth = 0;
+                while (depth < 30 * numPlayers && board.getDiscardPile().getSize() < config.getNumDepositionAreaSlots()
+                        && board.getDrawPile().getSize() > 0) {
+                    tokens[depth++] = board.apply(randomMove(board, random));
+                    long hash = board.getHash();
+                    long identity = identity(board, cards);
+                    positions++;
+                    if (positions % CHECK_INTERVAL == 0) {
+                        if (hash != fullHash(board, cards) || hash != GameState.of(board).getHash()) {
+                            throw new IllegalStateException("Incremental hash differs from the full hash in " + label);
+                        }
+                        checks++;
+                    }
+                    //Open addressing on the Zobrist hash: The same hash with another identity is a collision
+                    int slot = (int) (hash >>> 41);
+                    while (used[slot] && hashes[slot] != hash) {
+                        slot = (slot + 1) & (TABLE_SIZE - 1);
+                    }
+                    lookups++;
+                    if (used[slot]) {
+                        collisions += identities[slot] != identity ? 1 : 0;
+                    } else if (stored < TABLE_SIZE / 2) {
+                        used[slot] = true;
+                        hashes[slot] = hash;
+                        identities[slot] = identity;
+                        stored++;
+                    }
+                }
+                while (depth > 0) {
+                    board.undo(tokens[--depth]);
+                }
+                if (board.getHash() != rootHash) {
+                    throw new IllegalStateException("Undo did not restore the hash in " + label);
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %d playouts, %d positions, %d distinct positions stored, %d lookups, %d collisions (expected %.2e), "
+                        + "%d full hash checks, %.1f s%n",
+                label, playouts, positions, stored, lookups, collisions, (double) stored * lookups / Math.pow(2, 64), checks, seconds);
+    }
+
+    /**
+     * Deals the cards like {@link bauernhof.main.Main} does
+     *
+     * @param config     the configuration
+     * @param cards      the shuffled cards
+     * @param numPlayers the number of players
+     * @param handSize   the number of cards per hand
+     * @return the board before the first move
+     */
+    private static GameBoard deal(GameConfiguration config, List<Card> cards, int numPlayers, int handSize) {
+        List<Card> drawPile = new ArrayList<>(cards.subList(numPlayers * handSize, cards.size()));
+        GameBoard board = new GameBoard(numPlayers, drawPile, config);
+        for (int i = 0; i < numPlayers; i++) {
+            board.setPlayerCards(i + 1, new ArrayList<>(cards.subList(i * handSize, (i + 1) * handSize)));
+        }
+        board.updateAllPlayerScores();
+        return board;
+    }
+
+    /**
+     * Picks a random legal move of the current player
+     *
+     * @param board  the board
+     * @param random the random numbers
+     * @return the move
+     */
+    private static Move randomMove(GameBoard board, Random random) {
+        int discardSize = board.getDiscardPile().getSize();
+        Card taken = discardSize > 0 && random.nextBoolean()
+                ? board.getDiscardPile().lookAt(random.nextInt(discardSize)) : board.getDrawPile().lookAt(0);
+        List<Card> hand = board.getPlayerPile(board.calculateCurrentPlayerId()).getList();
+        Card deposited = random.nextInt(hand.size() + 1) == hand.size() ? taken : hand.get(random.nextInt(hand.size()));
+        return new Move(taken, deposited);
+    }
+
+    /**
+     * Calculates the Zobrist hash of the board from scratch
+     *
+     * @param board the board
+     * @param cards all cards of the configuration
+     * @return the hash
+     */
+    private static long fullHash(GameBoard board, List<Card> cards) {
+        long hash = Zobrist.playerKey(board.calculateCurrentPlayerId());
+        for (Card card : cards) {
+            hash ^= Zobrist.cardKey(board.getScoringEngine().getId(card), board.getCardLocation(card));
+        }
+        return hash;
+    }
+
+    /**
+     * Calculates a second hash of the position independent of the Zobrist keys, used to tell positions apart
+     *
+     * @param board the board
+     * @param cards all cards of the configuration
+     * @return the hash
+     */
+    private static long identity(GameBoard board, List<Card> cards) {
+        long hash = board.calculateCurrentPlayerId();
+        for (Card card : cards) {
+            long h = (board.getScoringEngine().getId(card) * 31L + board.getCardLocation(card) + 3) * 0xD6E8FEB86659FD93L;
+            hash += (h ^ (h >>> 32)) * 0x9E3779B97F4A7C15L;
+        }
+        return hash;
+    }
+}
@@ -12,8 +12,9 @@ import java.util.Set;
  * @author cora
  *  * Die Klasse FarmCard repräsentiert eine Karte des Spiels Grow Mans Sky.
  *  * Sie implementiert das Card-Interface und enthält Attribute und Methoden,
- *  * um den Namen, die Farbe, den Basiswert, das Bild, den Blockierungsstatus und
- *  * die Effekte der Karte zu verwalten.
+ *  * um den Namen, die Farbe, den Basiswert, das Bild und die Effekte der Karte zu verwalten.
+ *  * Die Karte selbst speichert keinen Spielzustand, da dieselben Instanzen von allen Spielbrettern geteilt werden;
+ *  * die Punkte einer Hand berechnet {@link bauernhof.gameboard.ScoringEngine}.
  */
 public class FarmCard implements Card {
 
@@ -23,8 +24,6 @@ public class FarmCard implements Card {
 
     private String image;
 
-    private boolean blocked;
-
     private Set<Effect> effects;
 
     /**
@@ -96,36 +95,4 @@ public class FarmCard implements Card {
     public void addEffect(FarmEffect effect) {
         effects.add(effect);
     }
-
-    public int calculatePoints(Set<FarmCard> set, Set<FarmCard> all) {
-        int sum = 0;
-        for (Effect e : effects) {
-            FarmEffect fe = (FarmEffect) e;
-
-            //Bei fe.calculatePoints werden die Punkte durch den Effekt der Karte ausgerechnet
-            int points = fe.calculatePoints(this, set, all);
-            sum+=points;
-        }
-        //Zum (gegebenenfalls) Effekt-Wert kommt noch der Basis-Wert
-        sum+=getBaseValue();
-        if (isBlocked()) {
-            return 0;
-        }
-        return sum;
-    }
-
-    public boolean isBlocked() {
-        return blocked;
-    }
-
-    public void setBlocked(boolean blocked) {
-        this.blocked = blocked;
-    }
-
-    public void evaluateBlockingStatus(Set<FarmCard> set, Set<FarmCard> allSet) {
-        for (Effect e : effects) {
-            FarmEffect fe = (FarmEffect) e;
-            fe.calculatePoints(this, set, allSet); //Karten werden geblockt, punkte werden zwar gezählt, aber nicht gespeichert
-        }
-    }
 }
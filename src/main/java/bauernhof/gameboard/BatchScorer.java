@@ -0,0 +1,176 @@
+package bauernhof.gameboard;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores many hands at once, e.g. for Monte Carlo analysis of a configuration.
+ * The hands are packed one after another into a single {@code long[]}, each taking {@link ScoringEngine#getNumWords()} words,
+ * and the scores are written into an {@code int[]} at the index of the hand.
+ * The hands are processed in chunks small enough to stay in the first level cache together with the compiled rules;
+ * The chunks can optionally be spread over a {@link ForkJoinPool}.
+ * The results are the same as the ones of {@link PointsCalculator#calculatePoints(java.util.List)}.
+ */
+public class BatchScorer {
+    /**
+     * The number of bytes of hand data processed per chunk
+     */
+    private static final int CHUNK_BYTES = 16 * 1024;
+
+    /**
+     * The compiled scoring rules
+     */
+    private final ScoringEngine engine;
+    /**
+     * The number of hands per chunk
+     */
+    private final int chunkSize;
+
+    /**
+     * Constructor for a batch scorer
+     *
+     * @param engine the {@link ScoringEngine} of the configuration
+     */
+    public BatchScorer(ScoringEngine engine) {
+        this(engine, Math.max(1, CHUNK_BYTES / (Long.BYTES * engine.getNumWords())));
+    }
+
+    /**
+     * Constructor for a batch scorer with a given chunk size, e.g. to test the splitting of the chunks
+     *
+     * @param engine    the {@link ScoringEngine} of the configuration
+     * @param chunkSize the number of hands per chunk (at least 1)
+     */
+    BatchScorer(ScoringEngine engine, int chunkSize) {
+        this.engine = engine;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Gets the number of hands scored together in one chunk
+     *
+     * @return the chunk size in hands
+     */
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    /**
+     * Scores all packed hands on the calling thread
+     *
+     * @param hands  the packed hand bitsets
+     * @param scores the array the scores are written to (at least one entry per hand)
+     * @throws IllegalArgumentException if the arrays do not fit together
+     */
+    public void score(long[] hands, int[] scores) {
+        int count = this.countHands(hands, scores);
+        long[] scratch = this.engine.newHand();
+        for (int start = 0; start < count; start += this.chunkSize) {
+            this.scoreChunk(hands, scores, start, Math.min(count, start + this.chunkSize), scratch);
+        }
+    }
+
+    /**
+     * Scores all packed hands with the chunks spread over a pool of threads
+     *
+     * @param hands  the packed hand bitsets
+     * @param scores the array the scores are written to (at least one entry per hand)
+     * @param pool   the pool executing the chunks
+     * @throws IllegalArgumentException if the arrays do not fit together
+     */
+    public void score(long[] hands, int[] scores, ForkJoinPool pool) {
+        int count = this.countHands(hands, scores);
+        pool.invoke(new ChunkTask(hands, scores, 0, count));
+    }
+
+    /**
+     * Scores the hands of a range; Does not allocate anything
+     *
+     * @param hands   the packed hand bitsets
+     * @param scores  the array the scores are written to
+     * @param start   index of the first hand
+     * @param end     index after the last hand
+     * @param scratch scratch space of one hand
+     */
+    private void scoreChunk(long[] hands, int[] scores, int start, int end, long[] scratch) {
+        int words = this.engine.getNumWords();
+        for (int hand = start; hand < end; hand++) {
+            scores[hand] = this.engine.score(hands, hand * words, scratch, 0);
+        }
+    }
+
+    /**
+     * Checks that the arrays fit together and gets the number of hands
+     *
+     * @param hands  the packed hand bitsets
+     * @param scores the array the scores are written to
+     * @return the number of hands
+     * @throws IllegalArgumentException if the arrays do not fit together
+     */
+    private int countHands(long[] hands, int[] scores) {
+        int words = this.engine.getNumWords();
+        if (hands.length % words != 0) {
+            throw new IllegalArgumentException("Length of the hand array is not a multiple of " + words);
+        }
+        int count = hands.length / words;
+        if (scores.length < count) {
+            throw new IllegalArgumentException("Score array is too short for " + count + " hands");
+        }
+        return count;
+    }
+
+    /**
+     * A range of hands which is split in halves until it is a single chunk
+     */
+    private final class ChunkTask extends RecursiveAction {
+        /**
+         * Version of the serialized form, which is never used but required by {@link java.io.Serializable}
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The packed hand bitsets
+         */
+        private final long[] hands;
+        /**
+         * The array the scores are written to
+         */
+        private final int[] scores;
+        /**
+         * Index of the first hand
+         */
+        private final int start;
+        /**
+         * Index after the last hand
+         */
+        private final int end;
+
+        /**
+         * Constructor for a range of hands
+         *
+         * @param hands  the packed hand bitsets
+         * @param scores the array the scores are written to
+         * @param start  index of the first hand
+         * @param end    index after the last hand
+         */
+        private ChunkTask(long[] hands, int[] scores, int start, int end) {
+            this.hands = hands;
+            this.scores = scores;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= chunkSize) {
+                scoreChunk(this.hands, this.scores, this.start, this.end, engine.newHand());
+                return;
+            }
+            int middle = this.start + ((this.end - this.start) / (2 * chunkSize)) * chunkSize;   //Split at a chunk border
+            if (middle == this.start) {
+                middle += chunkSize;
+            }
+            invokeAll(new ChunkTask(this.hands, this.scores, this.start, middle),
+                    new ChunkTask(this.hands, this.scores, middle, this.end));
+        }
+    }
+}
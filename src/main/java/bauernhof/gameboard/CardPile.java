@@ -99,6 +99,16 @@ public class CardPile {
         this.list.add(card);
     }
 
+    /**
+     * Adds a card to the pile at a specific index, moving the following cards back
+     *
+     * @param index the index the card should have in the pile
+     * @param card  the card to be added to the pile
+     */
+    public void addCard(int index, Card card) {
+        this.list.add(index, card);
+    }
+
     /**
      * Shuffles all the cards in the pile using the {@link Collections} shuffle algorithm
      */
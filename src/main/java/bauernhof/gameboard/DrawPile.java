@@ -2,18 +2,70 @@ package bauernhof.gameboard;
 
 import bauernhof.preset.card.Card;
 
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * The draw pile with limited functionality concerning adding cards and drawing cards from a specific index
  * Implements {@link CardPile}
+ * The cards are stored in an array with a cursor on the top card, so drawing the top card does not shift the pile.
+ * {@link #getList()} returns a read-only view on the remaining cards which always shows the current pile.
  *
  * @author Maxim Strzebkowski
  */
 public class DrawPile extends CardPile {
 
+    /**
+     * The remaining cards of the pile
+     */
+    private final Cards cards;
+
+    /**
+     * Constructor initializing the draw pile
+     *
+     * @param pile the initial cards of the pile, the first card being the top card; The list is copied
+     */
     public DrawPile(List<Card> pile) {
-        super(pile);
+        this(new Cards(pile));
+    }
+
+    /**
+     * Constructor initializing the card pile with the view on the remaining cards
+     *
+     * @param cards the remaining cards
+     */
+    private DrawPile(Cards cards) {
+        super(cards);
+        this.cards = cards;
+    }
+
+    /**
+     * Removes the top card from the pile in constant time and returns it
+     *
+     * @return top {@link Card} of the pile or null if the pile is empty
+     */
+    @Override
+    public Card drawCard() {
+        return this.cards.draw();
+    }
+
+    /**
+     * Puts the last drawn card back on top of the pile; Only used to undo a move on the {@link GameBoard}
+     *
+     * @param card the card drawn last
+     */
+    void undoDraw(Card card) {
+        this.cards.undoDraw(card);
+    }
+
+    /**
+     * Shuffles the remaining cards of the pile using the {@link Collections} shuffle algorithm
+     */
+    @Override
+    public void shuffle() {
+        this.cards.shuffle();
     }
 
     /**
@@ -38,6 +90,18 @@ public class DrawPile extends CardPile {
         throw new UnsupportedOperationException("Cannot add Card to DrawPile");
     }
 
+    /**
+     * Adding cards to the draw pile is <b>not possible</b>.
+     *
+     * @param index the index the card should have had
+     * @param card  the card that should have been added
+     * @throws UnsupportedOperationException
+     */
+    @Override
+    public void addCard(int index, Card card) {
+        throw new UnsupportedOperationException("Cannot add Card to DrawPile");
+    }
+
     /**
      * Getting the index of a card in the draw pile is <b>not possible</b>
      *
@@ -61,4 +125,70 @@ public class DrawPile extends CardPile {
     public boolean drawCard(Card cardToRemove) {
         throw new UnsupportedOperationException("Cannot draw a specific card of the pile");
     }
+
+    /**
+     * The read-only list of the remaining cards, backed by an array and the index of the top card
+     */
+    private static final class Cards extends AbstractList<Card> {
+        /**
+         * All cards the pile started with
+         */
+        private final Card[] array;
+        /**
+         * The index of the current top card in the array
+         */
+        private int head;
+
+        /**
+         * Constructor copying the initial cards
+         *
+         * @param pile the initial cards, the first card being the top card
+         */
+        private Cards(List<Card> pile) {
+            this.array = pile.toArray(new Card[0]);
+        }
+
+        @Override
+        public Card get(int index) {
+            if (index < 0 || index >= this.size()) {
+                throw new IndexOutOfBoundsException("Invalid index");
+            }
+            return this.array[this.head + index];
+        }
+
+        @Override
+        public int size() {
+            return this.array.length - this.head;
+        }
+
+        /**
+         * Removes the top card by moving the cursor
+         *
+         * @return the top card or null if there are no cards left
+         */
+        private Card draw() {
+            if (this.head == this.array.length) {
+                return null;
+            }
+            Card card = this.array[this.head];
+            this.array[this.head++] = null;  //The drawn card is no longer referenced by the pile
+            return card;
+        }
+
+        /**
+         * Moves the cursor back to the last drawn card
+         *
+         * @param card the card drawn last
+         */
+        private void undoDraw(Card card) {
+            this.array[--this.head] = card;
+        }
+
+        /**
+         * Shuffles the remaining cards
+         */
+        private void shuffle() {
+            Collections.shuffle(Arrays.asList(this.array).subList(this.head, this.array.length));
+        }
+    }
 }
@@ -1,13 +1,13 @@
 package bauernhof.gameboard;
 
 import bauernhof.player.IllegalMoveException;
+import bauernhof.preset.GameConfiguration;
 import bauernhof.preset.Move;
 import bauernhof.preset.card.Card;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  * A class representing the game board including the draw and discard pile and relevant logic
@@ -16,10 +16,31 @@ import java.util.Map;
  */
 public class GameBoard {
     /**
-     * That static turn counter for the game
+     * Location of a card that is on the draw pile
+     */
+    public static final int DRAW_PILE = -1;
+    /**
+     * Location of a card that is on the discard pile
+     */
+    public static final int DISCARD_PILE = -2;
+    /**
+     * Location of a card that is not on the board (yet); Cards on a player hand are located at the player id
+     */
+    public static final int NOWHERE = 0;
+    /**
+     * Number of ints recorded in the undo log per applied move: taken card id, deposited card id, source of the taken card,
+     * former hand index of the deposited card, former score and the two halves of the former rolling hash of the moves
+     */
+    private static final int UNDO_STRIDE = 7;
+    /**
+     * Marks a player score whose hand changed since the score was last calculated
+     */
+    private static final int DIRTY_SCORE = HandScoreCache.MISSING;
+    /**
+     * The turn counter of the game on this board, starting with 1 for the first turn of player 1
      * (used to identify the current player)
      */
-    private static int turnCount = 0;
+    private int turnCount = 1;
     /**
      * The draw pile (Nachziehstapel)
      */
@@ -33,17 +54,51 @@ public class GameBoard {
      */
     private final int numOfPlayers;
     /**
-     * A map storing the player cards corresponding to their id
+     * The player cards indexed by the player id - 1
+     */
+    private final CardPile[] playerCards;
+    /**
+     * The player scores indexed by the player id - 1; A score is only calculated when it is read after the hand changed,
+     * until then it is {@link #DIRTY_SCORE}
+     */
+    private final int[] playerScores;
+    /**
+     * The number of score calculations saved because a hand changed again (or a move was undone) before its score was read
+     */
+    private long skippedScoreComputations = 0;
+    /**
+     * The incrementally scored hands indexed by the player id - 1
+     */
+    private final HandState[] playerHands;
+    /**
+     * The configuration of the game
+     */
+    private final GameConfiguration config;
+    /**
+     * The compiled scoring rules of the configuration
+     */
+    private final ScoringEngine scoringEngine;
+    /**
+     * The location of every card indexed by its id in the {@link ScoringEngine}:
+     * {@link #DRAW_PILE}, {@link #DISCARD_PILE}, {@link #NOWHERE} or the id of the player holding it
+     */
+    private final int[] cardLocations;
+    /**
+     * The XOR of the {@link Zobrist} keys of all cards at their location, updated with every card that moves
+     */
+    private long locationHash = 0;
+    /**
+     * The rolling hash of all moves made on the board, see {@link Zobrist#foldMove(long, int, int)}
      */
-    private final Map<Integer, CardPile> playerCards;
+    private long moveHash = 0;
     /**
-     * A map storing the player scores corresponding to their id
+     * The undo log of the moves made by {@link #apply(Move)} that were not undone yet
      */
-    private final Map<Integer, Integer> playerScores;
+    private int[] undoLog = new int[UNDO_STRIDE * 16];
     /**
-     * A calculator for calculating points of different card lists
+     * The number of moves in the undo log
      */
-    private final PointsCalculator pointsCalculator = new PointsCalculator();
+    private int undoSize = 0;
 
     /**
      * Constructor for the GameBoard where
@@ -54,34 +109,60 @@ public class GameBoard {
      *
      * @param numberOfPlayers the number of players in the game
      * @param drawPile        the initial draw pile cards in form of a list
+     * @param config          the game configuration whose compiled scoring rules are used for the points
      */
-    public GameBoard(int numberOfPlayers, List<Card> drawPile) {
+    public GameBoard(int numberOfPlayers, List<Card> drawPile, GameConfiguration config) {
         this.drawPile = new DrawPile(drawPile);
+        this.config = config;
+        this.scoringEngine = ScoringEngine.forConfiguration(config);
         this.discardPile = new CardPile(new ArrayList<>());
+        this.cardLocations = new int[this.scoringEngine.getNumCards()];
+        for (Card card : drawPile) {
+            this.setCardLocation(card, DRAW_PILE);
+        }
 
         this.numOfPlayers = numberOfPlayers;
-        this.playerCards = new HashMap<>();
-        this.playerScores = new HashMap<>();
-        for (int i = 1; i <= numberOfPlayers; i++) {
-            this.playerCards.put(i, new CardPile(new ArrayList<>()));
-            this.playerScores.put(i, 0);
+        this.playerCards = new CardPile[numberOfPlayers];
+        this.playerScores = new int[numberOfPlayers];
+        this.playerHands = new HandState[numberOfPlayers];
+        for (int i = 0; i < numberOfPlayers; i++) {
+            this.playerCards[i] = new CardPile(new ArrayList<>());
+            this.playerHands[i] = new HandState(this.scoringEngine);
+        }
+    }
+
+    /**
+     * Constructor for a GameBoard showing an immutable {@link GameState}; The cards of each hand are ordered by their id
+     *
+     * @param state the state of the game
+     */
+    public GameBoard(GameState state) {
+        this(state.getNumOfPlayers(), new ArrayList<>(state.getDrawPile()), state.getConfiguration());
+        for (int i = 1; i <= this.numOfPlayers; i++) {
+            this.setPlayerCards(i, state.getPlayerCards(i));
+        }
+        for (Card card : state.getDiscardPile()) {
+            this.discardPile.addCard(card);
+            this.setCardLocation(card, DISCARD_PILE);
         }
+        state.getPlayerScores(this.playerScores);   //The scores are taken over as they are, just like the turn
+        this.turnCount = state.getTurnCount();
     }
 
     /**
-     * Gets the current turn count
+     * Gets the current turn count of the game on this board
      *
      * @return the turn count
      */
-    public static int getTurnCount() {
-        return turnCount;
+    public int getTurnCount() {
+        return this.turnCount;
     }
 
     /**
-     * Increase the turn count by 1
+     * Increase the turn count by 1; Called by {@link #makeMove(Move)} once the move of the current player is made
      */
-    public static void increaseTurnCount(){
-        turnCount++;
+    private void increaseTurnCount(){
+        this.turnCount++;
     }
 
     /**
@@ -90,7 +171,7 @@ public class GameBoard {
      * @return the calculated id
      */
     public int calculateCurrentPlayerId() {
-        int modValue = turnCount % this.numOfPlayers;
+        int modValue = this.turnCount % this.numOfPlayers;
         return modValue == 0 ? numOfPlayers : modValue;    //player id is mod of turn count except for number 4 where mod = 0 but needs to equal 4
     }
 
@@ -101,46 +182,244 @@ public class GameBoard {
      * @throws IllegalMoveException
      */
     public void verifyMove(Move move) throws IllegalMoveException {
-        CardPile currentPlayerPile = playerCards.get(this.calculateCurrentPlayerId());
-        if(!this.drawPile.isCardInPile(move.getTaken()) && !this.discardPile.isCardInPile(move.getTaken())){    //Check if the taken card was part of the discard or the draw pile
-            throw new IllegalMoveException("The taken card was not in the discard or the draw pile");
-        }
-        if (!currentPlayerPile.isCardInPile(move.getDeposited()) && !move.getTaken().equals(move.getDeposited())) { //Check if deposited card exists in the player hand IF the taken card is not immediately deposited
-            throw new IllegalMoveException("The player did not have the card on their hand when they discarded it");
-        }
-        if (this.drawPile.isCardInPile(move.getTaken()) && !move.getTaken().equals(this.drawPile.lookAt(0))) {  //Check if the card was the first card in the draw pile (if taken from the draw pile)
-            throw new IllegalMoveException("The card taken from the draw pile was not the first card in the draw pile");
-        }
         if(move.getTaken() == null) {   //Checks if no card was drawn
             throw new IllegalMoveException("No card was taken from any pile: every move a card has to be drawn");
         }
         if(move.getDeposited() == null){    //Checks if no card was deposited
             throw new IllegalMoveException("No card was deposited: every move a card has to be deposited");
         }
+        this.verifyMove(this.scoringEngine.getId(move.getTaken()), this.scoringEngine.getId(move.getDeposited()));
+    }
+
+    /**
+     * Verifies a move given by the card ids; If move was illegal then the {@link IllegalMoveException} is thrown
+     *
+     * @param takenId     the id of the taken card; Ids outside of the configuration (e.g. -1) are never on a pile
+     * @param depositedId the id of the deposited card; Ids outside of the configuration (e.g. -1) are never on a pile
+     * @throws IllegalMoveException
+     */
+    private void verifyMove(int takenId, int depositedId) throws IllegalMoveException {
+        int takenLocation = takenId < 0 || takenId >= this.cardLocations.length ? NOWHERE : this.cardLocations[takenId];
+        if (takenLocation != DRAW_PILE && takenLocation != DISCARD_PILE) {    //Check if the taken card was part of the discard or the draw pile
+            throw new IllegalMoveException("The taken card was not in the discard or the draw pile");
+        }
+        int depositedLocation = depositedId < 0 || depositedId >= this.cardLocations.length ? NOWHERE : this.cardLocations[depositedId];
+        if (depositedLocation != this.calculateCurrentPlayerId() && takenId != depositedId) { //Check if deposited card exists in the player hand IF the taken card is not immediately deposited
+            throw new IllegalMoveException("The player did not have the card on their hand when they discarded it");
+        }
+        if (takenLocation == DRAW_PILE && !this.scoringEngine.getCard(takenId).equals(this.drawPile.lookAt(0))) {  //Check if the card was the first card in the draw pile (if taken from the draw pile)
+            throw new IllegalMoveException("The card taken from the draw pile was not the first card in the draw pile");
+        }
     }
 
     /**
-     * Takes the move and adjusts all piles accordingly
+     * Takes the move and adjusts all piles accordingly; Afterwards it is the turn of the next player
      *
      * @param move         the move to be made on the board
      * @throws IllegalMoveException when an illegal move was made
+     * @throws IllegalStateException if moves made by {@link #apply(Move)} were not undone yet
      */
     public void makeMove(Move move) throws IllegalMoveException {
+        this.requireEmptyUndoLog();
+        this.verifyMove(move);  //Checks if illegal move was made
+        this.executeMove(this.scoringEngine.getId(move.getTaken()), this.scoringEngine.getId(move.getDeposited()), -1);
+    }
+
+    /**
+     * Takes the move given as packed card ids (see {@link PackedMove}) and adjusts all piles accordingly
+     *
+     * @param move the packed move to be made on the board
+     * @throws IllegalMoveException when an illegal move was made
+     * @throws IllegalStateException if moves made by {@link #apply(Move)} were not undone yet
+     */
+    public void makeMove(int move) throws IllegalMoveException {
+        this.requireEmptyUndoLog();
+        int takenId = PackedMove.getTaken(move);
+        int depositedId = PackedMove.getDeposited(move);
+        this.verifyMove(takenId, depositedId);  //Checks if illegal move was made
+        this.executeMove(takenId, depositedId, -1);
+    }
+
+    /**
+     * Helper method ensuring that no applied move is waiting to be undone, as {@link #undo(int)} would take back the
+     * move made for good instead of the applied one
+     *
+     * @throws IllegalStateException if moves made by {@link #apply(Move)} were not undone yet
+     */
+    private void requireEmptyUndoLog() {
+        if (this.undoSize != 0) {
+            throw new IllegalStateException("A move can only be made for good after all " + this.undoSize + " applied moves are undone");
+        }
+    }
+
+    /**
+     * Makes the move like {@link #makeMove(Move)} and records how to take it back, e.g. for searching moves;
+     * Does not allocate once the undo log is large enough for the deepest search
+     *
+     * @param move the move to be made on the board
+     * @return the token to be handed to {@link #undo(int)}
+     * @throws IllegalMoveException when an illegal move was made
+     */
+    public int apply(Move move) throws IllegalMoveException {
         this.verifyMove(move);  //Checks if illegal move was made
+        return this.applyVerified(this.scoringEngine.getId(move.getTaken()), this.scoringEngine.getId(move.getDeposited()));
+    }
+
+    /**
+     * Makes the move given as packed card ids (see {@link PackedMove}) and records how to take it back
+     *
+     * @param move the packed move to be made on the board
+     * @return the token to be handed to {@link #undo(int)}
+     * @throws IllegalMoveException when an illegal move was made
+     */
+    public int apply(int move) throws IllegalMoveException {
+        int takenId = PackedMove.getTaken(move);
+        int depositedId = PackedMove.getDeposited(move);
+        this.verifyMove(takenId, depositedId);  //Checks if illegal move was made
+        return this.applyVerified(takenId, depositedId);
+    }
+
+    /**
+     * Helper method making a verified move and recording it in the undo log
+     *
+     * @param takenId     the id of the card taken from the draw or the discard pile
+     * @param depositedId the id of the card put onto the discard pile
+     * @return the token to be handed to {@link #undo(int)}
+     */
+    private int applyVerified(int takenId, int depositedId) {
+        int token = this.undoSize;
+        if ((token + 1) * UNDO_STRIDE > this.undoLog.length) {
+            this.undoLog = Arrays.copyOf(this.undoLog, this.undoLog.length * 2);
+        }
+        this.undoSize++;
+        this.executeMove(takenId, depositedId, token * UNDO_STRIDE);
+        return token;
+    }
+
+    /**
+     * Writes all legal moves of the current player as packed card ids (see {@link PackedMove}) into a buffer:
+     * For the top card of the draw pile and every card of the discard pile, every card of the hand (ordered by id) and the
+     * taken card itself can be deposited; Does not allocate once the buffer is large enough
+     *
+     * @param moves the buffer, which is cleared first
+     * @return the number of legal moves
+     */
+    public int generateMoves(IntArray moves) {
+        moves.clear();
+        long[] hand = this.playerHands[this.calculateCurrentPlayerId() - 1].getBits();
+        if (this.drawPile.getSize() > 0) {
+            this.generateMoves(this.scoringEngine.getId(this.drawPile.lookAt(0)), hand, moves);
+        }
+        for (int i = 0; i < this.discardPile.getSize(); i++) {
+            this.generateMoves(this.scoringEngine.getId(this.discardPile.lookAt(i)), hand, moves);
+        }
+        return moves.size();
+    }
+
+    /**
+     * Helper method writing all legal moves taking a specific card into the buffer
+     *
+     * @param takenId the id of the card to be taken
+     * @param hand    the bitset of the hand of the current player
+     * @param moves   the buffer
+     */
+    private void generateMoves(int takenId, long[] hand, IntArray moves) {
+        for (int word = 0; word < hand.length; word++) {
+            for (long bits = hand[word]; bits != 0; bits &= bits - 1) {
+                moves.add(PackedMove.of(takenId, (word << 6) + Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        moves.add(PackedMove.of(takenId, takenId));
+    }
+
+    /**
+     * Takes back the last move made by {@link #apply(Move)}; Piles, hands, scores and the turn are restored exactly
+     *
+     * @param token the token returned by {@link #apply(Move)} for the last applied move
+     * @throws IllegalStateException if the token does not belong to the last applied move
+     */
+    public void undo(int token) {
+        if (token != this.undoSize - 1) {
+            throw new IllegalStateException("Only the last applied move can be undone, expected token " + (this.undoSize - 1) + " but got " + token);
+        }
+        this.undoSize--;
+        int offset = token * UNDO_STRIDE;
+        int takenId = this.undoLog[offset];
+        int depositedId = this.undoLog[offset + 1];
+        int source = this.undoLog[offset + 2];
+        int handIndex = this.undoLog[offset + 3];
+        Card taken = this.scoringEngine.getCard(takenId);
+        Card deposited = this.scoringEngine.getCard(depositedId);
+
+        this.turnCount--;
         int currentPlayerId = this.calculateCurrentPlayerId();
-        CardPile currentPlayerPile = this.getPlayerPile(currentPlayerId);   //Gets the current player pile
-        if (this.drawPile.isCardInPile(move.getTaken())) {    //If card was drawn from drawPile
+        this.discardPile.drawCard(this.discardPile.getSize() - 1);  //The deposited card is on top of the discard pile
+        if (handIndex >= 0) {
+            CardPile currentPlayerPile = this.playerCards[currentPlayerId - 1];
+            currentPlayerPile.drawCard(currentPlayerPile.getSize() - 1);   //The taken card was added last
+            currentPlayerPile.addCard(handIndex, deposited);
+            this.playerHands[currentPlayerId - 1].removeCard(takenId);
+            this.playerHands[currentPlayerId - 1].addCard(depositedId);
+            this.setCardLocation(depositedId, currentPlayerId);
+        }
+        if (source == DRAW_PILE) {
+            this.drawPile.undoDraw(taken);
+            this.setCardLocation(takenId, DRAW_PILE);
+        } else {
+            this.discardPile.addCard(source, taken);
+            this.setCardLocation(takenId, DISCARD_PILE);
+        }
+        if (this.playerScores[currentPlayerId - 1] == DIRTY_SCORE) {   //The score of the undone move was never needed
+            this.skippedScoreComputations++;
+        }
+        this.playerScores[currentPlayerId - 1] = this.undoLog[offset + 4];
+        this.moveHash = ((long) this.undoLog[offset + 5] << 32) | (this.undoLog[offset + 6] & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Helper method adjusting all piles for a verified move
+     *
+     * @param takenId     the id of the card taken from the draw or the discard pile
+     * @param depositedId the id of the card put onto the discard pile
+     * @param logOffset   the offset in the undo log where the move is recorded or -1 if it is not recorded
+     */
+    private void executeMove(int takenId, int depositedId, int logOffset) {
+        int currentPlayerId = this.calculateCurrentPlayerId();
+        CardPile currentPlayerPile = this.playerCards[currentPlayerId - 1];   //Gets the current player pile
+        HandState currentPlayerHand = this.playerHands[currentPlayerId - 1];
+        Card taken = this.scoringEngine.getCard(takenId);
+        Card deposited = this.scoringEngine.getCard(depositedId);
+        int source = DRAW_PILE;
+        if (this.cardLocations[takenId] == DRAW_PILE) {    //If card was drawn from drawPile
             this.drawPile.drawCard();
-        } else if (this.discardPile.isCardInPile(move.getTaken())) {   //if card was drawn from discardPile
-            this.discardPile.drawCard(move.getTaken());
+        } else {   //if card was drawn from discardPile
+            source = this.discardPile.getIndex(taken);
+            this.discardPile.drawCard(source);
         }
-        if(!move.getTaken().equals(move.getDeposited())){
-            currentPlayerPile.drawCard(move.getDeposited());
-            currentPlayerPile.addCard(move.getTaken());     //Add the taken card to the player hand
+        int handIndex = -1;
+        if(takenId != depositedId){
+            handIndex = currentPlayerPile.getIndex(deposited);
+            currentPlayerPile.drawCard(handIndex);
+            currentPlayerPile.addCard(taken);     //Add the taken card to the player hand
+            currentPlayerHand.removeCard(depositedId);  //Only the effects selecting the two cards are updated
+            currentPlayerHand.addCard(takenId);
+            this.setCardLocation(takenId, currentPlayerId);
         }
-        this.discardPile.addCard(move.getDeposited());  //Add the deposited card to the discard pile
+        this.discardPile.addCard(deposited);  //Add the deposited card to the discard pile
+        this.setCardLocation(depositedId, DISCARD_PILE);
 
-        this.playerScores.put(currentPlayerId, this.pointsCalculator.calculatePoints(currentPlayerPile));
+        if (logOffset >= 0) {
+            this.undoLog[logOffset] = takenId;
+            this.undoLog[logOffset + 1] = depositedId;
+            this.undoLog[logOffset + 2] = source;   //DRAW_PILE or the index in the discard pile
+            this.undoLog[logOffset + 3] = handIndex;
+            this.undoLog[logOffset + 4] = this.playerScores[currentPlayerId - 1];  //Possibly still dirty
+            this.undoLog[logOffset + 5] = (int) (this.moveHash >>> 32);
+            this.undoLog[logOffset + 6] = (int) this.moveHash;
+        }
+        this.moveHash = Zobrist.foldMove(this.moveHash, this.turnCount, PackedMove.of(takenId, depositedId));
+        this.invalidateScore(currentPlayerId - 1);
+        this.increaseTurnCount();
     }
 
     /**
@@ -149,26 +428,77 @@ public class GameBoard {
      * @return a list of player scores (IMPORTANT: the score positions are the playerIds - 1)
      */
     public List<Integer> getPlayerScoresAsList() {
-        return new ArrayList<>(this.playerScores.values());
+        List<Integer> scores = new ArrayList<>(this.numOfPlayers);
+        for (int i = 1; i <= this.numOfPlayers; i++) {
+            scores.add(this.getPlayerScore(i));
+        }
+        return scores;
+    }
+
+    /**
+     * Copies the player scores into a given array without allocating
+     *
+     * @param scores the array to be filled; Needs a length of at least the number of players
+     * @return the given array (IMPORTANT: the score positions are the playerIds - 1)
+     */
+    public int[] getPlayerScores(int[] scores) {
+        for (int i = 0; i < this.numOfPlayers; i++) {
+            scores[i] = this.getPlayerScore(i + 1);
+        }
+        return scores;
     }
 
     /**
-     * Get the player score via the player id
+     * Get the player score via the player id; The score is calculated here if the hand changed since it was last read
      *
      * @param playerId the player id
      * @return the player score as int
      */
-    public int getPlayerScore(Integer playerId) {
-        return this.playerScores.get(playerId);
+    public int getPlayerScore(int playerId) {
+        int score = this.playerScores[playerId - 1];
+        if (score == DIRTY_SCORE) {
+            score = this.playerHands[playerId - 1].getScore();
+            this.playerScores[playerId - 1] = score;
+        }
+        return score;
     }
 
     /**
-     * Update all player scores with the respective player cards
+     * Get the number of score calculations that were saved so far, because a hand changed again or a move was undone
+     * before anybody read the score
+     *
+     * @return the number of skipped score calculations
      */
-    public void updateAllPlayerScores(){
-        for (Integer playerId : this.playerScores.keySet()) {
-            this.playerScores.put(playerId, this.pointsCalculator.calculatePoints(this.playerCards.get(playerId)));
+    public long getSkippedScoreComputations() {
+        return this.skippedScoreComputations;
+    }
+
+    /**
+     * Helper method marking the score of a player as dirty after the hand changed
+     *
+     * @param playerIndex the player id - 1
+     */
+    private void invalidateScore(int playerIndex) {
+        if (this.playerScores[playerIndex] == DIRTY_SCORE) {   //The score of the last change was never read
+            this.skippedScoreComputations++;
         }
+        this.playerScores[playerIndex] = DIRTY_SCORE;
+    }
+
+    /**
+     * Get the number of players playing the game
+     *
+     * @return the number of players
+     */
+    public int getNumOfPlayers() {
+        return this.numOfPlayers;
+    }
+
+    /**
+     * Update all player scores with the respective player cards; The scores are calculated when they are read next
+     */
+    public void updateAllPlayerScores(){
+        Arrays.fill(this.playerScores, DIRTY_SCORE);
     }
 
     /**
@@ -177,8 +507,8 @@ public class GameBoard {
      * @param playerId the player id
      * @return the {@link CardPile} of the player
      */
-    public CardPile getPlayerPile(Integer playerId) {
-        return playerCards.get(playerId);
+    public CardPile getPlayerPile(int playerId) {
+        return this.playerCards[playerId - 1];
     }
 
     /**
@@ -189,7 +519,101 @@ public class GameBoard {
      * @param playerId the player id
      * @param playerCards the initial hand of the player corresponding to the player id
      */
-    public void setPlayerCards(Integer playerId, List<Card> playerCards) { this.playerCards.put(playerId, new CardPile(playerCards)); }
+    public void setPlayerCards(int playerId, List<Card> playerCards) {
+        for (Card card : this.playerCards[playerId - 1].getList()) {   //Cards of a previously set hand are no longer on the board
+            this.setCardLocation(card, NOWHERE);
+        }
+        for (Card card : playerCards) {
+            this.setCardLocation(card, playerId);
+        }
+        this.playerCards[playerId - 1] = new CardPile(playerCards);
+        this.playerHands[playerId - 1] = new HandState(this.scoringEngine, playerCards);
+        this.playerScores[playerId - 1] = DIRTY_SCORE;
+    }
+
+    /**
+     * Get the location of a card in constant time
+     *
+     * @param card the card
+     * @return {@link #DRAW_PILE}, {@link #DISCARD_PILE}, the id of the player holding the card or {@link #NOWHERE}
+     * if the card is not on the board or not part of the configuration
+     */
+    public int getCardLocation(Card card) {
+        int id = this.scoringEngine.getId(card);
+        return id < 0 ? NOWHERE : this.cardLocations[id];
+    }
+
+    /**
+     * Helper method to set the location of a card; Cards not part of the configuration are ignored
+     *
+     * @param card     the card
+     * @param location the new location of the card
+     */
+    private void setCardLocation(Card card, int location) {
+        int id = this.scoringEngine.getId(card);
+        if (id >= 0) {
+            this.setCardLocation(id, location);
+        }
+    }
+
+    /**
+     * Helper method to set the location of a card and update the hash of the position
+     *
+     * @param id       the id of the card
+     * @param location the new location of the card
+     */
+    private void setCardLocation(int id, int location) {
+        this.locationHash ^= Zobrist.cardKey(id, this.cardLocations[id]) ^ Zobrist.cardKey(id, location);
+        this.cardLocations[id] = location;
+    }
+
+    /**
+     * Get the Zobrist hash of the position, covering the location of every card and the player to move;
+     * Boards and {@link GameState}s of the same position have the same hash
+     *
+     * @return the 64 bit hash
+     */
+    public long getHash() {
+        return this.locationHash ^ Zobrist.playerKey(this.calculateCurrentPlayerId());
+    }
+
+    /**
+     * Get the incrementally scored hand of a player, e.g. to ask for the score after a swap
+     *
+     * @param playerId the player id
+     * @return the {@link HandState} of the player
+     */
+    public HandState getPlayerHand(int playerId) {
+        return this.playerHands[playerId - 1];
+    }
+
+    /**
+     * Get the rolling hash of all moves made on the board in their order; Boards that made the same moves have the same hash,
+     * so comparing it verifies a whole game in constant time. A board created from a {@link GameState} starts with 0
+     *
+     * @return the 64 bit hash of the moves
+     */
+    public long getMoveHash() {
+        return this.moveHash;
+    }
+
+    /**
+     * Get the configuration of the game
+     *
+     * @return the game configuration
+     */
+    public GameConfiguration getConfiguration() {
+        return this.config;
+    }
+
+    /**
+     * Get the compiled scoring rules used by the board
+     *
+     * @return the {@link ScoringEngine} of the configuration
+     */
+    public ScoringEngine getScoringEngine() {
+        return this.scoringEngine;
+    }
 
 
     /**
@@ -0,0 +1,179 @@
+package bauernhof.gameboard;
+
+import bauernhof.preset.card.Card;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A read-only view on a {@link GameBoard}.
+ * Players in the same process as the authoritative board of a game read it through a view instead of keeping a
+ * replicated board of their own; Only the owner of the board can make moves on it.
+ */
+public final class GameBoardView {
+    /**
+     * The viewed board
+     */
+    private final GameBoard board;
+    /**
+     * The read-only draw pile, which always shows the current cards of the board
+     */
+    private final List<Card> drawPile;
+    /**
+     * The read-only discard pile, which always shows the current cards of the board
+     */
+    private final List<Card> discardPile;
+
+    /**
+     * Constructor for a view on a board
+     *
+     * @param board the viewed board
+     */
+    public GameBoardView(GameBoard board) {
+        this.board = board;
+        this.drawPile = Collections.unmodifiableList(board.getDrawPile().getList());
+        this.discardPile = Collections.unmodifiableList(board.getDiscardPile().getList());
+    }
+
+    /**
+     * Get the draw pile
+     *
+     * @return the read-only cards of the draw pile, the first card being the top card
+     */
+    public List<Card> getDrawPile() {
+        return this.drawPile;
+    }
+
+    /**
+     * Get the discard pile
+     *
+     * @return the read-only cards of the discard pile
+     */
+    public List<Card> getDiscardPile() {
+        return this.discardPile;
+    }
+
+    /**
+     * Get the cards of a player via the player id
+     *
+     * @param playerId the player id
+     * @return the read-only cards of the player
+     */
+    public List<Card> getPlayerPile(int playerId) {
+        return Collections.unmodifiableList(this.board.getPlayerPile(playerId).getList());
+    }
+
+    /**
+     * Get the player score via the player id
+     *
+     * @param playerId the player id
+     * @return the player score
+     */
+    public int getPlayerScore(int playerId) {
+        return this.board.getPlayerScore(playerId);
+    }
+
+    /**
+     * gets the player scores as a list
+     *
+     * @return a list of player scores (IMPORTANT: the score positions are the playerIds - 1)
+     */
+    public List<Integer> getPlayerScoresAsList() {
+        return this.board.getPlayerScoresAsList();
+    }
+
+    /**
+     * Copies the player scores into a given array without allocating
+     *
+     * @param scores the array to be filled; Needs a length of at least the number of players
+     * @return the given array (IMPORTANT: the score positions are the playerIds - 1)
+     */
+    public int[] getPlayerScores(int[] scores) {
+        return this.board.getPlayerScores(scores);
+    }
+
+    /**
+     * Get the number of players playing the game
+     *
+     * @return the number of players
+     */
+    public int getNumOfPlayers() {
+        return this.board.getNumOfPlayers();
+    }
+
+    /**
+     * Gets the current turn count of the game on the board
+     *
+     * @return the turn count
+     */
+    public int getTurnCount() {
+        return this.board.getTurnCount();
+    }
+
+    /**
+     * Calculate the current player id using the turn count
+     *
+     * @return the calculated id
+     */
+    public int calculateCurrentPlayerId() {
+        return this.board.calculateCurrentPlayerId();
+    }
+
+    /**
+     * Get the location of a card in constant time
+     *
+     * @param card the card
+     * @return {@link GameBoard#DRAW_PILE}, {@link GameBoard#DISCARD_PILE}, the id of the player holding the card or
+     * {@link GameBoard#NOWHERE}
+     */
+    public int getCardLocation(Card card) {
+        return this.board.getCardLocation(card);
+    }
+
+    /**
+     * Writes all legal moves of the current player as packed card ids into a buffer
+     *
+     * @param moves the buffer, which is cleared first
+     * @return the number of legal moves
+     * @see GameBoard#generateMoves(IntArray)
+     */
+    public int generateMoves(IntArray moves) {
+        return this.board.generateMoves(moves);
+    }
+
+    /**
+     * Get the Zobrist hash of the position on the board
+     *
+     * @return the 64 bit hash
+     */
+    public long getHash() {
+        return this.board.getHash();
+    }
+
+    /**
+     * Get the rolling hash of all moves made on the board
+     *
+     * @return the 64 bit hash of the moves
+     */
+    public long getMoveHash() {
+        return this.board.getMoveHash();
+    }
+
+    /**
+     * Takes an immutable snapshot of the board, e.g. to search moves on a copy
+     *
+     * @return the state of the game on the board
+     */
+    public GameState toGameState() {
+        return GameState.of(this.board);
+    }
+
+    /**
+     * Get the compiled scoring rules used by the board
+     *
+     * @return the {@link ScoringEngine} of the configuration
+     */
+    public ScoringEngine getScoringEngine() {
+        return this.board.getScoringEngine();
+    }
+}
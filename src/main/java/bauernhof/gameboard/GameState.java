@@ -0,0 +1,363 @@
+package bauernhof.gameboard;
+
+import bauernhof.player.IllegalMoveException;
+import bauernhof.preset.GameConfiguration;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of a game, e.g. for searching moves or trying out what-if scenarios.
+ * Making a move returns a new state sharing everything that did not change with the old one:
+ * The draw pile is one array shared by all states of a game together with the index of the top card,
+ * the hands are bitsets over the card ids of which only the hand of the moving player is replaced.
+ * Unlike on the {@link GameBoard} the order of the cards in a hand is not kept; Converting back lists them by their id.
+ * Like the board every state carries the {@link Zobrist} hash of its position.
+ */
+public final class GameState {
+    /**
+     * The configuration of the game
+     */
+    private final GameConfiguration config;
+    /**
+     * The compiled scoring rules of the configuration
+     */
+    private final ScoringEngine engine;
+    /**
+     * The draw pile the game started with; Shared by all states of the game and never changed
+     */
+    private final Card[] drawCards;
+    /**
+     * The index of the current top card in {@link #drawCards}
+     */
+    private final int drawOffset;
+    /**
+     * The ids of the cards on the discard pile, the last one being on top
+     */
+    private final int[] discardIds;
+    /**
+     * The bitsets of the player hands indexed by the player id - 1; The bitsets are shared and never changed
+     */
+    private final long[][] hands;
+    /**
+     * The player scores indexed by the player id - 1
+     */
+    private final int[] scores;
+    /**
+     * The turn counter of the game, starting with 1 for the first turn of player 1
+     */
+    private final int turnCount;
+    /**
+     * The XOR of the {@link Zobrist} keys of all cards at their location
+     */
+    private final long locationHash;
+
+    /**
+     * Constructor setting all the fields; The arrays are taken over without copying
+     *
+     * @param config     the configuration of the game
+     * @param engine     the compiled scoring rules of the configuration
+     * @param drawCards  the draw pile the game started with
+     * @param drawOffset the index of the top card of the draw pile
+     * @param discardIds the ids of the cards on the discard pile
+     * @param hands      the bitsets of the player hands
+     * @param scores     the player scores
+     * @param turnCount  the turn counter
+     * @param locationHash the XOR of the keys of all cards at their location
+     */
+    private GameState(GameConfiguration config, ScoringEngine engine, Card[] drawCards, int drawOffset, int[] discardIds,
+                      long[][] hands, int[] scores, int turnCount, long locationHash) {
+        this.config = config;
+        this.engine = engine;
+        this.drawCards = drawCards;
+        this.drawOffset = drawOffset;
+        this.discardIds = discardIds;
+        this.hands = hands;
+        this.scores = scores;
+        this.turnCount = turnCount;
+        this.locationHash = locationHash;
+    }
+
+    /**
+     * Takes a snapshot of a game board; The piles of the board are copied once
+     *
+     * @param board the game board
+     * @return the state of the game on the board
+     */
+    public static GameState of(GameBoard board) {
+        ScoringEngine engine = board.getScoringEngine();
+        List<Card> discardPile = board.getDiscardPile().getList();
+        int[] discardIds = new int[discardPile.size()];
+        for (int i = 0; i < discardIds.length; i++) {
+            discardIds[i] = engine.getId(discardPile.get(i));
+        }
+        long[][] hands = new long[board.getNumOfPlayers()][];
+        for (int i = 0; i < hands.length; i++) {
+            hands[i] = board.getPlayerHand(i + 1).getBits().clone();
+        }
+        return new GameState(board.getConfiguration(), engine, board.getDrawPile().getList().toArray(new Card[0]), 0,
+                discardIds, hands, board.getPlayerScores(new int[hands.length]), board.getTurnCount(),
+                board.getHash() ^ Zobrist.playerKey(board.calculateCurrentPlayerId()));
+    }
+
+    /**
+     * Creates a game board showing this state
+     *
+     * @return a new {@link GameBoard}
+     */
+    public GameBoard toGameBoard() {
+        return new GameBoard(this);
+    }
+
+    /**
+     * Makes a move of the current player
+     *
+     * @param move the move to be made
+     * @return the state after the move
+     * @throws IllegalMoveException when an illegal move was made
+     */
+    public GameState play(Move move) throws IllegalMoveException {
+        if(move.getTaken() == null) {   //Checks if no card was drawn
+            throw new IllegalMoveException("No card was taken from any pile: every move a card has to be drawn");
+        }
+        if(move.getDeposited() == null){    //Checks if no card was deposited
+            throw new IllegalMoveException("No card was deposited: every move a card has to be deposited");
+        }
+        return this.play(this.engine.getId(move.getTaken()), this.engine.getId(move.getDeposited()));
+    }
+
+    /**
+     * Makes a move of the current player given by the card ids of the {@link ScoringEngine};
+     * Only the hand of the current player, the discard pile and the scores are copied
+     *
+     * @param takenId     the id of the card taken from the draw or the discard pile
+     * @param depositedId the id of the card put onto the discard pile
+     * @return the state after the move
+     * @throws IllegalMoveException when an illegal move was made
+     */
+    public GameState play(int takenId, int depositedId) throws IllegalMoveException {
+        if (takenId < 0 || depositedId < 0) {
+            throw new IllegalMoveException("The cards of the move are not part of the configuration");
+        }
+        int playerIndex = this.calculateCurrentPlayerId() - 1;
+        long[] hand = this.hands[playerIndex];
+        boolean fromDrawPile = this.drawOffset < this.drawCards.length && this.engine.getId(this.drawCards[this.drawOffset]) == takenId;
+        int discardIndex = fromDrawPile ? -1 : this.getDiscardIndex(takenId);
+        if (!fromDrawPile && discardIndex < 0) {   //Check if the taken card was the top card of the draw pile or part of the discard pile
+            throw new IllegalMoveException("The taken card was not in the discard pile or the first card of the draw pile");
+        }
+        if (takenId != depositedId && (hand[depositedId >>> 6] & (1L << depositedId)) == 0) {   //Check if deposited card exists in the player hand IF the taken card is not immediately deposited
+            throw new IllegalMoveException("The player did not have the card on their hand when they discarded it");
+        }
+
+        int[] discardIds;
+        if (fromDrawPile) {
+            discardIds = Arrays.copyOf(this.discardIds, this.discardIds.length + 1);
+        } else {    //The taken card is removed, the following cards move up
+            discardIds = new int[this.discardIds.length];
+            System.arraycopy(this.discardIds, 0, discardIds, 0, discardIndex);
+            System.arraycopy(this.discardIds, discardIndex + 1, discardIds, discardIndex, this.discardIds.length - discardIndex - 1);
+        }
+        discardIds[discardIds.length - 1] = depositedId;
+
+        int source = fromDrawPile ? GameBoard.DRAW_PILE : GameBoard.DISCARD_PILE;
+        long locationHash = this.locationHash ^ Zobrist.cardKey(takenId, source) ^ Zobrist.cardKey(takenId, playerIndex + 1)
+                ^ Zobrist.cardKey(depositedId, playerIndex + 1) ^ Zobrist.cardKey(depositedId, GameBoard.DISCARD_PILE);
+        long[][] hands = this.hands.clone();
+        int[] scores = this.scores.clone();
+        if (takenId != depositedId) {
+            long[] newHand = hand.clone();
+            newHand[depositedId >>> 6] &= ~(1L << depositedId);
+            newHand[takenId >>> 6] |= 1L << takenId;
+            hands[playerIndex] = newHand;
+            scores[playerIndex] = this.engine.cachedScore(newHand, 0);
+        } else {
+            scores[playerIndex] = this.engine.cachedScore(hand, 0);
+        }
+        return new GameState(this.config, this.engine, this.drawCards, fromDrawPile ? this.drawOffset + 1 : this.drawOffset,
+                discardIds, hands, scores, this.turnCount + 1, locationHash);
+    }
+
+    /**
+     * Helper method to find a card on the discard pile
+     *
+     * @param id the id of the card
+     * @return the index of the card on the discard pile or -1 if it is not there
+     */
+    private int getDiscardIndex(int id) {
+        for (int i = 0; i < this.discardIds.length; i++) {
+            if (this.discardIds[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Calculate the current player id using the turn count
+     *
+     * @return the calculated id
+     */
+    public int calculateCurrentPlayerId() {
+        int modValue = this.turnCount % this.hands.length;
+        return modValue == 0 ? this.hands.length : modValue;
+    }
+
+    /**
+     * Get the Zobrist hash of the position, covering the location of every card and the player to move
+     *
+     * @return the 64 bit hash, the same as {@link GameBoard#getHash()} of a board in the same position
+     */
+    public long getHash() {
+        return this.locationHash ^ Zobrist.playerKey(this.calculateCurrentPlayerId());
+    }
+
+    /**
+     * Gets the turn counter
+     *
+     * @return the turn count
+     */
+    public int getTurnCount() {
+        return this.turnCount;
+    }
+
+    /**
+     * Gets the number of players
+     *
+     * @return the number of players
+     */
+    public int getNumOfPlayers() {
+        return this.hands.length;
+    }
+
+    /**
+     * Get the player score via the player id
+     *
+     * @param playerId the player id
+     * @return the player score
+     */
+    public int getPlayerScore(int playerId) {
+        return this.scores[playerId - 1];
+    }
+
+    /**
+     * Copies the player scores into a given array
+     *
+     * @param scores the array to be filled; Needs a length of at least the number of players
+     * @return the given array (IMPORTANT: the score positions are the playerIds - 1)
+     */
+    public int[] getPlayerScores(int[] scores) {
+        System.arraycopy(this.scores, 0, scores, 0, this.scores.length);
+        return scores;
+    }
+
+    /**
+     * Checks if a card is on the hand of a player
+     *
+     * @param playerId the player id
+     * @param id       the id of the card
+     * @return true / false if the card is on the hand or not
+     */
+    public boolean isInHand(int playerId, int id) {
+        return (this.hands[playerId - 1][id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Copies the bitset of a player hand, e.g. to score it with the {@link ScoringEngine}
+     *
+     * @param playerId the player id
+     * @return a copy of the bitset of the hand
+     */
+    public long[] getHandBits(int playerId) {
+        return this.hands[playerId - 1].clone();
+    }
+
+    /**
+     * Gets the cards on the hand of a player
+     *
+     * @param playerId the player id
+     * @return a new list of the cards ordered by their id
+     */
+    public List<Card> getPlayerCards(int playerId) {
+        long[] hand = this.hands[playerId - 1];
+        List<Card> cards = new ArrayList<>();
+        for (int word = 0; word < hand.length; word++) {
+            for (long bits = hand[word]; bits != 0; bits &= bits - 1) {
+                cards.add(this.engine.getCard((word << 6) + Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        return cards;
+    }
+
+    /**
+     * Gets the number of cards on the draw pile
+     *
+     * @return the size of the draw pile
+     */
+    public int getDrawPileSize() {
+        return this.drawCards.length - this.drawOffset;
+    }
+
+    /**
+     * Gets the cards on the draw pile
+     *
+     * @return a read-only view on the draw pile, the first card being the top card
+     */
+    public List<Card> getDrawPile() {
+        return Collections.unmodifiableList(Arrays.asList(this.drawCards).subList(this.drawOffset, this.drawCards.length));
+    }
+
+    /**
+     * Gets the number of cards on the discard pile
+     *
+     * @return the size of the discard pile
+     */
+    public int getDiscardPileSize() {
+        return this.discardIds.length;
+    }
+
+    /**
+     * Gets the id of a card on the discard pile
+     *
+     * @param index the index of the card on the discard pile
+     * @return the id of the card
+     */
+    public int getDiscardId(int index) {
+        return this.discardIds[index];
+    }
+
+    /**
+     * Gets the cards on the discard pile
+     *
+     * @return a new list of the cards on the discard pile
+     */
+    public List<Card> getDiscardPile() {
+        List<Card> cards = new ArrayList<>(this.discardIds.length);
+        for (int id : this.discardIds) {
+            cards.add(this.engine.getCard(id));
+        }
+        return cards;
+    }
+
+    /**
+     * Get the configuration of the game
+     *
+     * @return the game configuration
+     */
+    public GameConfiguration getConfiguration() {
+        return this.config;
+    }
+
+    /**
+     * Get the compiled scoring rules used by the state
+     *
+     * @return the {@link ScoringEngine} of the configuration
+     */
+    public ScoringEngine getScoringEngine() {
+        return this.engine;
+    }
+}
@@ -0,0 +1,185 @@
+package bauernhof.gameboard;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A memo of already calculated hand scores which is shared by all boards of a configuration.
+ * A hand is identified by its bitset over the card ids, which is the same no matter in which order the cards were added.
+ * The cache has a fixed number of slots organised in buckets of two; When a bucket is full one of its entries is replaced,
+ * so the memory used never grows beyond the capacity.
+ * Entries are immutable and stored in an {@link AtomicReferenceArray}, so any number of threads can read and write without locks.
+ */
+public final class HandScoreCache {
+    /**
+     * Returned by {@link #get(long[], int)} if the hand is not in the cache
+     */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    /**
+     * A hand together with its score
+     */
+    private static final class Entry {
+        /**
+         * The bitset of the hand
+         */
+        private final long[] hand;
+        /**
+         * The score of the hand
+         */
+        private final int score;
+
+        /**
+         * Constructor for an entry
+         *
+         * @param hand  the bitset of the hand
+         * @param score the score of the hand
+         */
+        private Entry(long[] hand, int score) {
+            this.hand = hand;
+            this.score = score;
+        }
+    }
+
+    /**
+     * The slots of the cache
+     */
+    private final AtomicReferenceArray<Entry> slots;
+    /**
+     * The number of long words of a hand bitset
+     */
+    private final int words;
+    /**
+     * The number of lookups that found the hand
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * The number of lookups that did not find the hand
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor for an empty cache
+     *
+     * @param capacity the maximum number of hands (rounded up to a power of two, at least 2)
+     * @param words    the number of long words of a hand bitset
+     */
+    public HandScoreCache(int capacity, int words) {
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.words = words;
+    }
+
+    /**
+     * Looks up the score of a hand
+     *
+     * @param hand   the array containing the hand bitset
+     * @param offset index of the first word of the hand
+     * @return the score or {@link #MISSING} if the hand is not in the cache
+     */
+    public int get(long[] hand, int offset) {
+        long hash = this.hash(hand, offset);
+        int bucket = (int) hash & (this.slots.length() - 2);
+        for (int i = bucket; i < bucket + 2; i++) {
+            Entry entry = this.slots.get(i);
+            if (entry != null && this.matches(entry, hand, offset)) {
+                this.hits.increment();
+                return entry.score;
+            }
+        }
+        this.misses.increment();
+        return MISSING;
+    }
+
+    /**
+     * Stores the score of a hand; Replaces another hand if the bucket is full
+     *
+     * @param hand   the array containing the hand bitset
+     * @param offset index of the first word of the hand
+     * @param score  the score of the hand
+     */
+    public void put(long[] hand, int offset, int score) {
+        long hash = this.hash(hand, offset);
+        int bucket = (int) hash & (this.slots.length() - 2);
+        int slot = bucket;
+        if (this.slots.get(bucket) != null) {
+            slot = this.slots.get(bucket + 1) == null ? bucket + 1 : bucket + (int) ((hash >>> 32) & 1);  //Evict one of the two
+        }
+        this.slots.set(slot, new Entry(Arrays.copyOfRange(hand, offset, offset + this.words), score));
+    }
+
+    /**
+     * Gets the number of lookups that found the hand
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that did not find the hand
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the maximum number of hands in the cache
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return this.slots.length();
+    }
+
+    /**
+     * Removes all hands and resets the counters
+     */
+    public void clear() {
+        for (int i = 0; i < this.slots.length(); i++) {
+            this.slots.set(i, null);
+        }
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    /**
+     * Checks if an entry belongs to a hand
+     *
+     * @param entry  the entry
+     * @param hand   the array containing the hand bitset
+     * @param offset index of the first word of the hand
+     * @return true if the entry is for the same hand
+     */
+    private boolean matches(Entry entry, long[] hand, int offset) {
+        for (int w = 0; w < this.words; w++) {
+            if (entry.hand[w] != hand[offset + w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mixes the words of a hand bitset into a hash
+     *
+     * @param hand   the array containing the hand bitset
+     * @param offset index of the first word of the hand
+     * @return the hash of the hand
+     */
+    private long hash(long[] hand, int offset) {
+        long hash = 0;
+        for (int w = 0; w < this.words; w++) {
+            hash = (hash ^ hand[offset + w]) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        return hash;
+    }
+}
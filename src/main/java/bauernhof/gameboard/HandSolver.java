@@ -0,0 +1,637 @@
+package bauernhof.gameboard;
+
+import bauernhof.preset.card.Card;
+import bauernhof.preset.card.EffectType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds the hand with the most points that can be built from a pool of cards, e.g. the discard pile, the own hand and
+ * the top of the draw pile, or all cards of a configuration for balance analysis.
+ * The search is a branch and bound over the cards of the pool: Every card gets an upper bound of the points it can ever
+ * add to a hand of the pool (its base value plus the largest possible bonus of each of its effects, never less than 0
+ * because it could be blocked), and cards blocked by the already chosen ones count as 0.
+ * A branch is dropped as soon as the chosen cards together with the best remaining ones cannot beat the best hand found.
+ * The search starts with a greedy hand improved by single swaps, so a good hand is known from the beginning.
+ * With a time limit the solver works anytime: It returns the best hand found so far together with the bound proven so far.
+ * The solver keeps no state between calls and can be used by several threads at once.
+ */
+public class HandSolver {
+    /**
+     * Number of visited nodes between two looks at the clock
+     */
+    private static final int CLOCK_INTERVAL = 1 << 12;
+
+    /**
+     * The compiled scoring rules
+     */
+    private final ScoringEngine engine;
+
+    /**
+     * Constructor for a solver
+     *
+     * @param engine the {@link ScoringEngine} of the configuration
+     */
+    public HandSolver(ScoringEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Finds the best hand of a pool; Runs until the hand is proven to be optimal
+     *
+     * @param pool     the cards the hand can be built from
+     * @param handSize the number of cards of the hand
+     * @return the optimal hand
+     * @throws IllegalArgumentException if the pool is smaller than the hand or contains unknown cards
+     */
+    public Solution solve(Collection<Card> pool, int handSize) {
+        return this.solve(pool, handSize, 0);
+    }
+
+    /**
+     * Finds the best hand of a pool within a time limit
+     *
+     * @param pool            the cards the hand can be built from
+     * @param handSize        the number of cards of the hand
+     * @param timeLimitMillis the time after which the search stops in milliseconds; 0 or less for no limit
+     * @return the best hand found and the bound proven until the search stopped
+     * @throws IllegalArgumentException if the pool is smaller than the hand or contains unknown cards
+     */
+    public Solution solve(Collection<Card> pool, int handSize, long timeLimitMillis) {
+        if (handSize < 0 || handSize > pool.size()) {
+            throw new IllegalArgumentException("Cannot build a hand of " + handSize + " cards from " + pool.size() + " cards");
+        }
+        int[] ids = new int[pool.size()];
+        int index = 0;
+        for (Card card : pool) {
+            ids[index] = this.engine.getId(card);
+            if (ids[index] < 0) {
+                throw new IllegalArgumentException("Card is not part of the configuration: " + card.getName());
+            }
+            index++;
+        }
+        long deadline = timeLimitMillis > 0 ? System.nanoTime() + timeLimitMillis * 1_000_000L : Long.MAX_VALUE;
+        Search search = new Search(ids, handSize, deadline);
+        search.run();
+
+        List<Card> hand = new ArrayList<>(handSize);
+        for (int w = 0; w < this.engine.getNumWords(); w++) {
+            for (long bits = search.bestHand[w]; bits != 0; bits &= bits - 1) {
+                hand.add(this.engine.getCard((w << 6) + Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        int upperBound = search.timedOut ? Math.max(search.best, search.openBound) : search.best;
+        return new Solution(hand, search.best, upperBound, search.nodes);
+    }
+
+    /**
+     * The result of a search
+     */
+    public static final class Solution {
+        /**
+         * The best hand found
+         */
+        private final List<Card> hand;
+        /**
+         * The points of the best hand
+         */
+        private final int score;
+        /**
+         * No hand of the pool has more points than this
+         */
+        private final int upperBound;
+        /**
+         * The number of visited search nodes
+         */
+        private final long nodes;
+
+        /**
+         * Constructor for a result
+         *
+         * @param hand       the best hand found
+         * @param score      the points of the hand
+         * @param upperBound the proven upper bound
+         * @param nodes      the number of visited search nodes
+         */
+        private Solution(List<Card> hand, int score, int upperBound, long nodes) {
+            this.hand = Collections.unmodifiableList(hand);
+            this.score = score;
+            this.upperBound = upperBound;
+            this.nodes = nodes;
+        }
+
+        /**
+         * Gets the best hand found
+         *
+         * @return unmodifiable list of the cards ordered by their id
+         */
+        public List<Card> getHand() {
+            return this.hand;
+        }
+
+        /**
+         * Gets the points of the best hand found
+         *
+         * @return the score of the hand
+         */
+        public int getScore() {
+            return this.score;
+        }
+
+        /**
+         * Gets the proven upper bound; No hand of the pool has more points
+         *
+         * @return the upper bound, equal to the score if the hand is optimal
+         */
+        public int getUpperBound() {
+            return this.upperBound;
+        }
+
+        /**
+         * Checks if the hand is proven to be the best one
+         *
+         * @return true if no hand of the pool has more points
+         */
+        public boolean isOptimal() {
+            return this.score >= this.upperBound;
+        }
+
+        /**
+         * Gets the number of visited search nodes
+         *
+         * @return the number of nodes
+         */
+        public long getNodes() {
+            return this.nodes;
+        }
+    }
+
+    /**
+     * The state of a single search
+     */
+    private final class Search {
+        /**
+         * The number of long words of a hand bitset
+         */
+        private final int words;
+        /**
+         * The number of cards of the hand
+         */
+        private final int handSize;
+        /**
+         * The card ids of the pool sorted by their upper bound, highest first
+         */
+        private final int[] order;
+        /**
+         * The upper bound of each card in {@link #order}
+         */
+        private final int[] bounds;
+        /**
+         * Sums of the first bounds ({@code prefix[i]} is the sum of the first {@code i} bounds)
+         */
+        private final int[] prefix;
+        /**
+         * The cards from each position in {@link #order} on ({@link #words} longs per position, one more position than cards)
+         */
+        private final long[] suffixes;
+        /**
+         * The cards blocked by each card in {@link #order} ({@link #words} longs per card)
+         */
+        private final long[] blockMasks;
+        /**
+         * The cards blocked by the chosen cards at every depth ({@link #words} longs per depth)
+         */
+        private final long[] blocked;
+        /**
+         * The positions in {@link #order} of the chosen cards
+         */
+        private final int[] chosen;
+        /**
+         * The bitset of the chosen cards
+         */
+        private final long[] hand;
+        /**
+         * Scratch space for scoring
+         */
+        private final long[] scratch;
+        /**
+         * Scratch space for the bounds: The chosen cards which are not blocked
+         */
+        private final long[] active;
+        /**
+         * Scratch space for the bounds: The cards which may still be chosen and are not blocked
+         */
+        private final long[] open;
+        /**
+         * Scratch space for the bounds: The chosen cards and all cards which may still be chosen
+         */
+        private final long[] all;
+        /**
+         * Scratch space for the bounds: The highest bounds of the open cards, highest first
+         */
+        private final int[] top;
+        /**
+         * Scratch space for the bounds: The highest base values selected by an effect, highest first
+         */
+        private final int[] values;
+        /**
+         * The bitset of the best hand found
+         */
+        private final long[] bestHand;
+        /**
+         * The time at which the search stops as in {@link System#nanoTime()}
+         */
+        private final long deadline;
+        /**
+         * The points of the best hand found
+         */
+        private int best = Integer.MIN_VALUE;
+        /**
+         * The largest bound of the branches left out because of the time limit
+         */
+        private int openBound = Integer.MIN_VALUE;
+        /**
+         * The number of visited nodes
+         */
+        private long nodes;
+        /**
+         * True once the time limit is reached
+         */
+        private boolean timedOut;
+
+        /**
+         * Constructor for a search; Calculates the bounds and blocking masks of the pool
+         *
+         * @param ids      the card ids of the pool
+         * @param handSize the number of cards of the hand
+         * @param deadline the time at which the search stops
+         */
+        private Search(int[] ids, int handSize, long deadline) {
+            this.words = engine.getNumWords();
+            this.handSize = handSize;
+            this.deadline = deadline;
+            this.values = new int[handSize];
+            long[] poolBits = new long[this.words];
+            for (int id : ids) {
+                poolBits[id >>> 6] |= 1L << id;
+            }
+            int[] cardBounds = new int[engine.getNumCards()];
+            Integer[] sorted = new Integer[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                cardBounds[ids[i]] = this.cardBound(ids[i], new long[this.words], poolBits, poolBits, handSize);
+                sorted[i] = ids[i];
+            }
+            Arrays.sort(sorted, (a, b) -> cardBounds[a] != cardBounds[b] ? cardBounds[b] - cardBounds[a] : a - b);
+            this.order = new int[ids.length];
+            this.bounds = new int[ids.length];
+            this.prefix = new int[ids.length + 1];
+            for (int i = 0; i < ids.length; i++) {
+                this.order[i] = sorted[i];
+                this.bounds[i] = cardBounds[sorted[i]];
+                this.prefix[i + 1] = this.prefix[i] + this.bounds[i];
+            }
+
+            //Every card blocks the cards of its BLOCKS_EVERY selectors and the owners of BLOCKED_IF_WITH effects selecting it
+            long[] cardBlocks = new long[engine.getNumCards() * this.words];
+            for (int owner = 0; owner < engine.getNumCards(); owner++) {
+                for (int i = engine.blockingStarts[owner]; i < engine.blockingStarts[owner + 1]; i++) {
+                    int effect = engine.blockingEffects[i];
+                    switch (engine.effectTypes[effect]) {
+                        case BLOCKS_EVERY:
+                            for (int w = 0; w < this.words; w++) {
+                                cardBlocks[owner * this.words + w] |= engine.effectMasks[effect * this.words + w];
+                            }
+                            break;
+                        case BLOCKED_IF_WITH:
+                            for (int id = 0; id < engine.getNumCards(); id++) {
+                                if (engine.selects(effect, id)) {
+                                    cardBlocks[id * this.words + (owner >>> 6)] |= 1L << owner;
+                                }
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+            this.blockMasks = new long[ids.length * this.words];
+            for (int i = 0; i < ids.length; i++) {
+                System.arraycopy(cardBlocks, this.order[i] * this.words, this.blockMasks, i * this.words, this.words);
+            }
+            this.blocked = new long[(handSize + 1) * this.words];
+            this.chosen = new int[handSize];
+            this.hand = new long[this.words];
+            this.scratch = new long[this.words];
+            this.bestHand = new long[this.words];
+            this.suffixes = new long[(ids.length + 1) * this.words];
+            for (int i = ids.length - 1; i >= 0; i--) {
+                System.arraycopy(this.suffixes, (i + 1) * this.words, this.suffixes, i * this.words, this.words);
+                this.suffixes[i * this.words + (this.order[i] >>> 6)] |= 1L << this.order[i];
+            }
+            this.active = new long[this.words];
+            this.open = new long[this.words];
+            this.all = new long[this.words];
+            this.top = new int[handSize];
+        }
+
+        /**
+         * Runs the search: First a greedy hand improved by swaps, then the branch and bound
+         */
+        private void run() {
+            this.greedy();
+            this.search(0, 0);
+        }
+
+        /**
+         * Builds a hand by adding the card giving the most points one after another, then swaps single cards
+         * as long as the hand gets better
+         */
+        private void greedy() {
+            long[] current = new long[this.words];
+            for (int size = 0; size < this.handSize; size++) {
+                int bestCard = -1;
+                int bestScore = Integer.MIN_VALUE;
+                for (int id : this.order) {
+                    if (!this.isSet(current, 0, id)) {
+                        this.flip(current, id);
+                        int points = engine.score(current, 0, this.scratch, 0);
+                        this.flip(current, id);
+                        if (points > bestScore) {
+                            bestScore = points;
+                            bestCard = id;
+                        }
+                    }
+                }
+                this.flip(current, bestCard);
+            }
+            int currentScore = engine.score(current, 0, this.scratch, 0);
+            boolean improved = this.handSize > 0;
+            while (improved) {
+                improved = false;
+                for (int out : this.order) {
+                    if (!this.isSet(current, 0, out)) {
+                        continue;
+                    }
+                    for (int in : this.order) {
+                        if (this.isSet(current, 0, in)) {
+                            continue;
+                        }
+                        this.flip(current, out);
+                        this.flip(current, in);
+                        int points = engine.score(current, 0, this.scratch, 0);
+                        if (points > currentScore) {
+                            currentScore = points;
+                            improved = true;
+                            break;
+                        }
+                        this.flip(current, in);
+                        this.flip(current, out);
+                    }
+                    if (improved) {
+                        break;
+                    }
+                }
+            }
+            this.best = currentScore;
+            System.arraycopy(current, 0, this.bestHand, 0, this.words);
+        }
+
+        /**
+         * Visits a node of the search tree: The first {@code depth} cards are chosen, the next one is taken from position {@code start} on
+         *
+         * @param depth the number of chosen cards
+         * @param start the first position in {@link #order} which may be chosen next
+         */
+        private void search(int depth, int start) {
+            this.nodes++;
+            if ((this.nodes & (CLOCK_INTERVAL - 1)) == 0 && System.nanoTime() > this.deadline) {
+                this.timedOut = true;
+            }
+            if (depth == this.handSize) {
+                int points = engine.score(this.hand, 0, this.scratch, 0);
+                if (points > this.best) {
+                    this.best = points;
+                    System.arraycopy(this.hand, 0, this.bestHand, 0, this.words);
+                }
+                return;
+            }
+            if (this.timedOut) {
+                this.openBound = Math.max(this.openBound, this.bound(depth, start));
+                return;
+            }
+            if (this.bound(depth, start) <= this.best) {
+                return;
+            }
+            int staticChosen = 0;
+            for (int k = 0; k < depth; k++) {
+                staticChosen += this.bounds[this.chosen[k]];
+            }
+            int needed = this.handSize - depth;
+            for (int position = start; position <= this.order.length - needed; position++) {
+                //The bounds are sorted, so no later position can do better either
+                if (staticChosen + this.prefix[position + needed] - this.prefix[position] <= this.best) {
+                    break;
+                }
+                int id = this.order[position];
+                this.chosen[depth] = position;
+                this.flip(this.hand, id);
+                for (int w = 0; w < this.words; w++) {
+                    this.blocked[(depth + 1) * this.words + w] =
+                            this.blocked[depth * this.words + w] | this.blockMasks[position * this.words + w];
+                }
+                this.search(depth + 1, position + 1);
+                this.flip(this.hand, id);
+                if (this.timedOut) {
+                    //The remaining siblings are left out, remember what they could still reach
+                    this.openBound = Math.max(this.openBound, this.bound(depth, position + 1));
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Calculates an upper bound for all hands below a node.
+         * The chosen cards and the cards which may still be chosen are bounded again knowing which cards are left;
+         * Blocked cards count as 0 and are not counted by the effects of other cards
+         *
+         * @param depth the number of chosen cards
+         * @param start the first position which may be chosen next
+         * @return the highest score any hand below the node can have
+         */
+        private int bound(int depth, int start) {
+            int slots = this.handSize - depth;
+            if (this.order.length - start < slots) {
+                return Integer.MIN_VALUE;
+            }
+            for (int w = 0; w < this.words; w++) {
+                long blockedWord = this.blocked[depth * this.words + w];
+                this.active[w] = this.hand[w] & ~blockedWord;
+                this.open[w] = this.suffixes[start * this.words + w] & ~blockedWord;
+                this.all[w] = this.hand[w] | this.suffixes[start * this.words + w];
+            }
+            int total = 0;
+            for (int w = 0; w < this.words; w++) {
+                for (long bits = this.active[w]; bits != 0; bits &= bits - 1) {
+                    total += this.cardBound((w << 6) + Long.numberOfTrailingZeros(bits), this.active, this.open, this.all, slots);
+                }
+            }
+            //Only the best of the open cards can be added
+            Arrays.fill(this.top, 0, slots, 0);
+            for (int w = 0; w < this.words; w++) {
+                for (long bits = this.open[w]; bits != 0; bits &= bits - 1) {
+                    this.insertTop(this.cardBound((w << 6) + Long.numberOfTrailingZeros(bits), this.active, this.open, this.all, slots), slots);
+                }
+            }
+            for (int k = 0; k < slots; k++) {
+                total += this.top[k];
+            }
+            return total;
+        }
+
+        /**
+         * Calculates the most points a card can add to a hand
+         *
+         * @param id     the card id
+         * @param active the chosen cards which are not blocked
+         * @param open   the cards which may still be chosen and are not blocked
+         * @param all    the chosen cards and all cards which may still be chosen
+         * @param slots  the number of cards still to be chosen
+         * @return the upper bound of the card, at least 0
+         */
+        private int cardBound(int id, long[] active, long[] open, long[] all, int slots) {
+            for (int i = engine.blockingStarts[id]; i < engine.blockingStarts[id + 1]; i++) {
+                int effect = engine.blockingEffects[i];
+                if (engine.effectTypes[effect] == EffectType.BLOCKED_IF_WITHOUT
+                        && this.count(all, engine.effectMasks, effect * this.words) == 0) {
+                    return 0;   //Always blocked
+                }
+            }
+            int bound = engine.baseValues[id];
+            for (int i = engine.pointStarts[id]; i < engine.pointStarts[id + 1]; i++) {
+                int effect = engine.pointEffects[i];
+                int value = engine.effectValues[effect];
+                int maskOffset = effect * this.words;
+                switch (engine.effectTypes[effect]) {
+                    case POINTS_FOREACH:
+                        if (value > 0) {
+                            bound += value * (this.count(active, engine.effectMasks, maskOffset)
+                                    + Math.min(slots, this.count(open, engine.effectMasks, maskOffset)));
+                        }
+                        break;
+                    case POINTS_FLAT_DISJUNCTION:
+                        if (value > 0 && this.count(active, engine.effectMasks, maskOffset) + this.count(open, engine.effectMasks, maskOffset) > 0) {
+                            bound += value;
+                        }
+                        break;
+                    case POINTS_FLAT_CONJUNCTION:
+                        boolean possible = value > 0;
+                        for (int s = engine.selectorStarts[effect]; s < engine.selectorStarts[effect + 1] && possible; s++) {
+                            possible = this.count(active, engine.selectorMasks, s * this.words) + this.count(open, engine.selectorMasks, s * this.words) > 0;
+                        }
+                        bound += possible ? value : 0;
+                        break;
+                    case POINTS_SUM_BASEVALUES:
+                        //The positive base values of the chosen cards and the highest ones of the open cards
+                        for (int w = 0; w < this.words; w++) {
+                            for (long bits = active[w] & engine.effectMasks[maskOffset + w]; bits != 0; bits &= bits - 1) {
+                                bound += Math.max(0, engine.baseValues[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+                            }
+                        }
+                        bound += this.topBaseValues(open, maskOffset, slots);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return Math.max(0, bound);
+        }
+
+        /**
+         * Sums up the highest positive base values of the cards of a bitset selected by an effect
+         *
+         * @param bits       the bitset of the cards
+         * @param maskOffset index of the first word of the effect mask
+         * @param slots      the number of values to be summed up at most
+         * @return the sum of the values
+         */
+        private int topBaseValues(long[] bits, int maskOffset, int slots) {
+            int[] values = this.values;
+            Arrays.fill(values, 0, slots, 0);
+            for (int w = 0; w < this.words; w++) {
+                for (long selected = bits[w] & engine.effectMasks[maskOffset + w]; selected != 0; selected &= selected - 1) {
+                    int value = engine.baseValues[(w << 6) + Long.numberOfTrailingZeros(selected)];
+                    for (int k = 0; k < slots && value > 0; k++) {
+                        if (value > values[k]) {
+                            int replaced = values[k];
+                            values[k] = value;
+                            value = replaced;
+                        }
+                    }
+                }
+            }
+            int sum = 0;
+            for (int k = 0; k < slots; k++) {
+                sum += values[k];
+            }
+            return sum;
+        }
+
+        /**
+         * Puts a value into the list of the highest card bounds if it is large enough
+         *
+         * @param value the bound of a card
+         * @param slots the length of the list
+         */
+        private void insertTop(int value, int slots) {
+            for (int k = 0; k < slots && value > 0; k++) {
+                if (value > this.top[k]) {
+                    int replaced = this.top[k];
+                    this.top[k] = value;
+                    value = replaced;
+                }
+            }
+        }
+
+        /**
+         * Counts the cards two bitsets have in common
+         *
+         * @param bits       the first bitset
+         * @param mask       the array containing the second bitset
+         * @param maskOffset index of the first word of the second bitset
+         * @return the number of common cards
+         */
+        private int count(long[] bits, long[] mask, int maskOffset) {
+            int count = 0;
+            for (int w = 0; w < this.words; w++) {
+                count += Long.bitCount(bits[w] & mask[maskOffset + w]);
+            }
+            return count;
+        }
+
+        /**
+         * Checks if a card is in a bitset
+         *
+         * @param bits   the array containing the bitset
+         * @param offset index of the first word of the bitset
+         * @param id     the card id
+         * @return true if the bit of the card is set
+         */
+        private boolean isSet(long[] bits, int offset, int id) {
+            return (bits[offset + (id >>> 6)] & (1L << id)) != 0;
+        }
+
+        /**
+         * Adds a card to or removes it from a bitset
+         *
+         * @param bits the bitset
+         * @param id   the card id
+         */
+        private void flip(long[] bits, int id) {
+            bits[id >>> 6] ^= 1L << id;
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package bauernhof.gameboard;
+
+import bauernhof.preset.card.Card;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The scoring state of a single hand which is updated incrementally when cards enter or leave the hand.
+ * Besides the cards it keeps a color histogram and for every effect the number and base values of the selected cards,
+ * so adding or removing a card only touches the effects selecting that card.
+ * The score is evaluated from this state without looking at the selector masks again,
+ * which also allows asking for the score after a swap without changing the hand.
+ * Blocked cards are tracked as a bitmask over the slots of the hand, so a hand can hold up to 63 cards.
+ */
+public class HandState {
+    /**
+     * The compiled scoring rules
+     */
+    private final ScoringEngine engine;
+    /**
+     * The hand as bitset over the card ids
+     */
+    private final long[] bits;
+    /**
+     * Scratch space for the hand after a swap
+     */
+    private final long[] swapped;
+    /**
+     * The card ids of the hand in the order they were added
+     */
+    private int[] cardIds;
+    /**
+     * The number of cards in the hand
+     */
+    private int size;
+    /**
+     * For every effect the number of cards in the hand matching its selector
+     */
+    private final int[] matchCounts;
+    /**
+     * For every effect the base values of the cards in the hand matching its selector
+     */
+    private final int[] baseSums;
+    /**
+     * For every color the number of cards in the hand
+     */
+    private final int[] colorCounts;
+
+    /**
+     * Constructor for an empty hand
+     *
+     * @param engine the {@link ScoringEngine} of the configuration
+     */
+    public HandState(ScoringEngine engine) {
+        this.engine = engine;
+        this.bits = engine.newHand();
+        this.swapped = engine.newHand();
+        this.cardIds = new int[16];
+        this.matchCounts = new int[engine.getNumEffects()];
+        this.baseSums = new int[engine.getNumEffects()];
+        this.colorCounts = new int[engine.getNumColors()];
+    }
+
+    /**
+     * Constructor for a hand with initial cards
+     *
+     * @param engine the {@link ScoringEngine} of the configuration
+     * @param cards  the initial cards of the hand
+     */
+    public HandState(ScoringEngine engine, List<Card> cards) {
+        this(engine);
+        cards.forEach(this::addCard);
+    }
+
+    /**
+     * Adds a card to the hand
+     *
+     * @param card the card to be added
+     * @throws IllegalArgumentException if the card is not part of the configuration
+     */
+    public void addCard(Card card) {
+        this.addCard(this.idOf(card));
+    }
+
+    /**
+     * Adds a card to the hand; Only the effects selecting the card are updated
+     *
+     * @param id the id of the card to be added
+     */
+    public void addCard(int id) {
+        if (this.contains(id)) {
+            return;
+        }
+        if (this.size == this.cardIds.length) {
+            this.cardIds = Arrays.copyOf(this.cardIds, this.size * 2);
+        }
+        this.cardIds[this.size++] = id;
+        this.bits[id >>> 6] |= 1L << id;
+        this.colorCounts[this.engine.cardColors[id]]++;
+        int baseValue = this.engine.baseValues[id];
+        for (int i = this.engine.selectingStarts[id]; i < this.engine.selectingStarts[id + 1]; i++) {
+            int effect = this.engine.selectingEffects[i];
+            this.matchCounts[effect]++;
+            this.baseSums[effect] += baseValue;
+        }
+    }
+
+    /**
+     * Removes a card from the hand
+     *
+     * @param card the card to be removed
+     * @throws IllegalArgumentException if the card is not part of the configuration
+     */
+    public void removeCard(Card card) {
+        this.removeCard(this.idOf(card));
+    }
+
+    /**
+     * Removes a card from the hand; Only the effects selecting the card are updated
+     *
+     * @param id the id of the card to be removed
+     */
+    public void removeCard(int id) {
+        if (!this.contains(id)) {
+            return;
+        }
+        for (int p = 0; p < this.size; p++) {
+            if (this.cardIds[p] == id) {
+                this.cardIds[p] = this.cardIds[--this.size];
+                break;
+            }
+        }
+        this.bits[id >>> 6] &= ~(1L << id);
+        this.colorCounts[this.engine.cardColors[id]]--;
+        int baseValue = this.engine.baseValues[id];
+        for (int i = this.engine.selectingStarts[id]; i < this.engine.selectingStarts[id + 1]; i++) {
+            int effect = this.engine.selectingEffects[i];
+            this.matchCounts[effect]--;
+            this.baseSums[effect] -= baseValue;
+        }
+    }
+
+    /**
+     * Checks if a card is in the hand
+     *
+     * @param id the id of the card
+     * @return true / false if the card is in the hand or not
+     */
+    public boolean contains(int id) {
+        return (this.bits[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Gets the number of cards in the hand
+     *
+     * @return the size of the hand
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Gets the hand as bitset over the card ids; The array must not be changed
+     *
+     * @return the bitset of the hand
+     */
+    public long[] getBits() {
+        return this.bits;
+    }
+
+    /**
+     * Calculates the score of the hand; The same hand scored on another board is taken from the shared {@link HandScoreCache}
+     *
+     * @return the total points of the hand
+     */
+    public int getScore() {
+        ScoreTable table = this.engine.getScoreTable();
+        if (table != null) {
+            int points = table.lookup(this.bits, 0);
+            if (points != HandScoreCache.MISSING) {
+                return points;
+            }
+        }
+        HandScoreCache cache = this.engine.getScoreCache();
+        int points = cache.get(this.bits, 0);
+        if (points == HandScoreCache.MISSING) {
+            points = this.evaluate(-1, -1);
+            cache.put(this.bits, 0, points);
+        }
+        return points;
+    }
+
+    /**
+     * Calculates the score the hand would have if one card was exchanged for another; The hand itself is not changed
+     *
+     * @param out the card leaving the hand
+     * @param in  the card entering the hand
+     * @return the total points of the hand after the swap
+     * @throws IllegalArgumentException if a card is not part of the configuration
+     */
+    public int scoreAfterSwap(Card out, Card in) {
+        return this.scoreAfterSwap(this.idOf(out), this.idOf(in));
+    }
+
+    /**
+     * Calculates the score the hand would have if one card was exchanged for another; The hand itself is not changed
+     *
+     * @param out the id of the card leaving the hand (-1 if no card leaves)
+     * @param in  the id of the card entering the hand (-1 if no card enters)
+     * @return the total points of the hand after the swap
+     */
+    public int scoreAfterSwap(int out, int in) {
+        if (out == in || (out >= 0 && !this.contains(out))) {   //Discarding the taken card right away keeps the hand
+            return this.getScore();
+        }
+        if (in >= 0 && this.contains(in)) {
+            in = -1;
+        }
+        ScoreTable table = this.engine.getScoreTable();
+        if (table != null && out >= 0 && in >= 0) {
+            int points;
+            if (table.isFull()) {
+                System.arraycopy(this.bits, 0, this.swapped, 0, this.bits.length);
+                this.swapped[out >>> 6] &= ~(1L << out);
+                this.swapped[in >>> 6] |= 1L << in;
+                points = table.lookup(this.swapped, 0);
+            } else {
+                points = table.scoreAfterSwap(this.bits, 0, this.getScore(), out, in);
+            }
+            if (points != HandScoreCache.MISSING) {
+                return points;
+            }
+        }
+        return this.evaluate(out, in);
+    }
+
+    /**
+     * Evaluates the score of the hand with the card {@code out} replaced by the card {@code in}
+     *
+     * @param out the id of the card leaving the hand (-1 for none)
+     * @param in  the id of the card entering the hand (-1 for none)
+     * @return the total points
+     */
+    private int evaluate(int out, int in) {
+        int slots = (out < 0 && in >= 0) ? this.size + 1 : this.size;
+
+        //Blocked cards as a bitmask over the slots; Conditions are checked against the full hand
+        long blocked = 0L;
+        for (int p = 0; p < slots; p++) {
+            int id = this.cardAt(p, out, in);
+            if (id < 0) {
+                continue;
+            }
+            for (int i = this.engine.blockingStarts[id]; i < this.engine.blockingStarts[id + 1]; i++) {
+                int effect = this.engine.blockingEffects[i];
+                int count = this.matchCount(effect, out, in);
+                switch (this.engine.effectTypes[effect]) {
+                    case BLOCKS_EVERY:
+                        if (count > 0) {
+                            for (int q = 0; q < slots; q++) {
+                                int other = this.cardAt(q, out, in);
+                                if (other >= 0 && this.engine.selects(effect, other)) {
+                                    blocked |= 1L << q;
+                                }
+                            }
+                        }
+                        break;
+                    case BLOCKED_IF_WITH:
+                        if (count > 0) {
+                            blocked |= 1L << p;
+                        }
+                        break;
+                    case BLOCKED_IF_WITHOUT:
+                        if (count == 0) {
+                            blocked |= 1L << p;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        //Base values and effect points of the unblocked cards
+        int points = 0;
+        for (int p = 0; p < slots; p++) {
+            int id = this.cardAt(p, out, in);
+            if (id < 0 || (blocked & (1L << p)) != 0) {
+                continue;
+            }
+            points += this.engine.baseValues[id];
+            for (int i = this.engine.pointStarts[id]; i < this.engine.pointStarts[id + 1]; i++) {
+                points += this.effectPoints(this.engine.pointEffects[i], out, in, blocked);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Calculates the points of a single point effect for the unblocked cards of the (swapped) hand
+     *
+     * @param effect  the effect id
+     * @param out     the id of the card leaving the hand (-1 for none)
+     * @param in      the id of the card entering the hand (-1 for none)
+     * @param blocked the blocked slots
+     * @return the points of the effect
+     */
+    private int effectPoints(int effect, int out, int in, long blocked) {
+        int value = this.engine.effectValues[effect];
+        switch (this.engine.effectTypes[effect]) {
+            case POINTS_FLAT_CONJUNCTION:
+                for (int s = this.engine.selectorStarts[effect]; s < this.engine.selectorStarts[effect + 1]; s++) {
+                    if (!this.isSelectorMet(s, out, in, blocked)) {
+                        return 0;
+                    }
+                }
+                return value;
+            case POINTS_FLAT_DISJUNCTION:
+                return this.activeCount(effect, out, in, blocked) > 0 ? value : 0;
+            case POINTS_FOREACH:
+                return this.activeCount(effect, out, in, blocked) * value;
+            case POINTS_SUM_BASEVALUES:
+                int sum = this.baseSums[effect];
+                if (out >= 0 && this.engine.selects(effect, out)) {
+                    sum -= this.engine.baseValues[out];
+                }
+                if (in >= 0 && this.engine.selects(effect, in)) {
+                    sum += this.engine.baseValues[in];
+                }
+                for (long b = blocked; b != 0; b &= b - 1) {
+                    int id = this.cardAt(Long.numberOfTrailingZeros(b), out, in);
+                    if (this.engine.selects(effect, id)) {
+                        sum -= this.engine.baseValues[id];
+                    }
+                }
+                return sum;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Checks if a single selector of a conjunction is met by an unblocked card of the (swapped) hand
+     *
+     * @param selector the selector id
+     * @param out      the id of the card leaving the hand (-1 for none)
+     * @param in       the id of the card entering the hand (-1 for none)
+     * @param blocked  the blocked slots
+     * @return true if the selector is met
+     */
+    private boolean isSelectorMet(int selector, int out, int in, long blocked) {
+        int card = this.engine.selectorCards[selector];
+        int color = this.engine.selectorColors[selector];
+        if (card >= 0) {
+            if (card != in && (card == out || !this.contains(card))) {
+                return false;
+            }
+            for (long b = blocked; b != 0; b &= b - 1) {
+                if (this.cardAt(Long.numberOfTrailingZeros(b), out, in) == card) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (color < 0) {
+            return false;
+        }
+        int count = this.colorCounts[color];
+        if (out >= 0 && this.engine.cardColors[out] == color) {
+            count--;
+        }
+        if (in >= 0 && this.engine.cardColors[in] == color) {
+            count++;
+        }
+        for (long b = blocked; b != 0 && count > 0; b &= b - 1) {
+            if (this.engine.cardColors[this.cardAt(Long.numberOfTrailingZeros(b), out, in)] == color) {
+                count--;
+            }
+        }
+        return count > 0;
+    }
+
+    /**
+     * Gets the number of unblocked cards of the (swapped) hand matching the selector of an effect
+     *
+     * @param effect  the effect id
+     * @param out     the id of the card leaving the hand (-1 for none)
+     * @param in      the id of the card entering the hand (-1 for none)
+     * @param blocked the blocked slots
+     * @return the number of selected cards
+     */
+    private int activeCount(int effect, int out, int in, long blocked) {
+        int count = this.matchCount(effect, out, in);
+        for (long b = blocked; b != 0 && count > 0; b &= b - 1) {
+            if (this.engine.selects(effect, this.cardAt(Long.numberOfTrailingZeros(b), out, in))) {
+                count--;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of cards of the (swapped) hand matching the selector of an effect
+     *
+     * @param effect the effect id
+     * @param out    the id of the card leaving the hand (-1 for none)
+     * @param in     the id of the card entering the hand (-1 for none)
+     * @return the number of selected cards
+     */
+    private int matchCount(int effect, int out, int in) {
+        int count = this.matchCounts[effect];
+        if (out >= 0 && this.engine.selects(effect, out)) {
+            count--;
+        }
+        if (in >= 0 && this.engine.selects(effect, in)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the card in a slot of the (swapped) hand; The entering card takes the slot of the leaving one
+     * or the slot after the last card if no card leaves
+     *
+     * @param slot the slot
+     * @param out  the id of the card leaving the hand (-1 for none)
+     * @param in   the id of the card entering the hand (-1 for none)
+     * @return the card id or -1 if the slot is empty
+     */
+    private int cardAt(int slot, int out, int in) {
+        if (slot == this.size) {
+            return in;
+        }
+        int id = this.cardIds[slot];
+        return id == out ? in : id;
+    }
+
+    /**
+     * Gets the id of a card
+     *
+     * @param card the card
+     * @return the id of the card
+     * @throws IllegalArgumentException if the card is not part of the configuration
+     */
+    private int idOf(Card card) {
+        int id = this.engine.getId(card);
+        if (id < 0) {
+            throw new IllegalArgumentException("Card is not part of the configuration: " + card.getName());
+        }
+        return id;
+    }
+}
@@ -0,0 +1,96 @@
+package bauernhof.gameboard;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of ints without boxing, meant to be cleared and reused, e.g. as buffer for generated moves.
+ */
+public final class IntArray {
+    /**
+     * The values; Only the first {@link #size} are used
+     */
+    private int[] values;
+    /**
+     * The number of values in the list
+     */
+    private int size;
+
+    /**
+     * Constructor for an empty list with a default capacity
+     */
+    public IntArray() {
+        this(16);
+    }
+
+    /**
+     * Constructor for an empty list
+     *
+     * @param capacity the number of values the list holds before growing
+     */
+    public IntArray(int capacity) {
+        this.values = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Adds a value at the end; The capacity is doubled if needed
+     *
+     * @param value the value to be added
+     */
+    public void add(int value) {
+        if (this.size == this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.size * 2);
+        }
+        this.values[this.size++] = value;
+    }
+
+    /**
+     * Gets a value
+     *
+     * @param index the index of the value
+     * @return the value at the index
+     */
+    public int get(int index) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException("Invalid index");
+        }
+        return this.values[index];
+    }
+
+    /**
+     * Replaces a value
+     *
+     * @param index the index of the value
+     * @param value the new value
+     */
+    public void set(int index, int value) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException("Invalid index");
+        }
+        this.values[index] = value;
+    }
+
+    /**
+     * Gets the number of values
+     *
+     * @return the size of the list
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Removes all values but keeps the capacity
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Copies the values into a new array
+     *
+     * @return the values
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+}
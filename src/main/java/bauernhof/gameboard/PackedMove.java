@@ -0,0 +1,76 @@
+package bauernhof.gameboard;
+
+import bauernhof.preset.Move;
+
+/**
+ * Encoding of a move as a single int holding the ids of both cards in the {@link ScoringEngine}:
+ * The upper 16 bits are the id of the taken card, the lower 16 bits the id of the deposited card.
+ * Used to generate and make moves without creating {@link Move} objects, e.g. during a search.
+ */
+public final class PackedMove {
+
+    /**
+     * Moves are only packed and unpacked by the static methods
+     */
+    private PackedMove() {
+    }
+
+    /**
+     * Packs a move
+     *
+     * @param takenId     the id of the card taken from the draw or the discard pile
+     * @param depositedId the id of the card put onto the discard pile
+     * @return the packed move
+     */
+    public static int of(int takenId, int depositedId) {
+        return (takenId << 16) | depositedId;
+    }
+
+    /**
+     * Packs a {@link Move}
+     *
+     * @param move   the move
+     * @param engine the engine assigning the card ids
+     * @return the packed move
+     * @throws IllegalArgumentException if a card of the move is not part of the configuration
+     */
+    public static int of(Move move, ScoringEngine engine) {
+        int takenId = engine.getId(move.getTaken());
+        int depositedId = engine.getId(move.getDeposited());
+        if (takenId < 0 || depositedId < 0) {
+            throw new IllegalArgumentException("The cards of the move are not part of the configuration");
+        }
+        return of(takenId, depositedId);
+    }
+
+    /**
+     * Gets the id of the taken card
+     *
+     * @param move the packed move
+     * @return the id of the card taken from the draw or the discard pile
+     */
+    public static int getTaken(int move) {
+        return move >>> 16;
+    }
+
+    /**
+     * Gets the id of the deposited card
+     *
+     * @param move the packed move
+     * @return the id of the card put onto the discard pile
+     */
+    public static int getDeposited(int move) {
+        return move & 0xFFFF;
+    }
+
+    /**
+     * Unpacks a move into a {@link Move}, e.g. to return it from {@link bauernhof.preset.Player#request()}
+     *
+     * @param move   the packed move
+     * @param engine the engine assigning the card ids
+     * @return the move
+     */
+    public static Move toMove(int move, ScoringEngine engine) {
+        return new Move(engine.getCard(getTaken(move)), engine.getCard(getDeposited(move)));
+    }
+}
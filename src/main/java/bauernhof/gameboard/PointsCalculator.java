@@ -11,10 +11,32 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A calculator for the points given a list of cards
+ * With a {@link ScoringEngine} the points are taken from the compiled rules, otherwise the lists are evaluated directly;
+ * Both ways give the same result and neither changes the cards
  *
  * @author Maxim Strzebkowski
  */
 public class PointsCalculator {
+    /**
+     * The compiled scoring rules; If null the points are counted on the card lists directly
+     */
+    private final ScoringEngine engine;
+
+    /**
+     * Constructor for a calculator working on the card lists directly
+     */
+    public PointsCalculator() {
+        this(null);
+    }
+
+    /**
+     * Constructor for a calculator using the compiled scoring rules of a configuration
+     *
+     * @param engine the {@link ScoringEngine} of the configuration (or null to count on the card lists)
+     */
+    public PointsCalculator(ScoringEngine engine) {
+        this.engine = engine;
+    }
 
     /**
      * Checks if a given card is part of a selection
@@ -144,6 +166,9 @@ public class PointsCalculator {
      * @return the total cumulative cards of the points
      */
     public int calculatePoints(List<Card> cards) {
+        if (this.engine != null) {
+            return this.engine.score(cards);
+        }
         int points = 0;
         List<Card> cardsToCount = this.removeBlockedCards(cards);
         points += this.countEffectPoints(cardsToCount);
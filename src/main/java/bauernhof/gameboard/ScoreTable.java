@@ -0,0 +1,474 @@
+package bauernhof.gameboard;
+
+import bauernhof.preset.Either;
+import bauernhof.preset.card.Card;
+import bauernhof.preset.card.CardColor;
+import bauernhof.preset.card.Effect;
+import bauernhof.preset.card.EffectType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed scores of a configuration for one hand size.
+ * If there are at most {@code limit} different hands the score of every hand is stored in an {@code int[]}
+ * indexed by the rank of the hand in the combinatorial number system, so scoring is a single lookup ("full" table).
+ * Otherwise only the scores of single cards and the interaction of every pair of cards are stored ("pair" table).
+ * Hands whose cards only have {@link EffectType#POINTS_FOREACH} and {@link EffectType#POINTS_SUM_BASEVALUES} effects
+ * score exactly the sum of these values, so their score and the score after a swap come from the pair table;
+ * For all other hands the table has no answer and {@link HandScoreCache#MISSING} is returned.
+ * Full tables can be written to and read from a cache file identified by a fingerprint of the cards and the hand size.
+ */
+public final class ScoreTable {
+    /**
+     * First value of a cache file
+     */
+    private static final int MAGIC = 0x42485354;
+
+    /**
+     * The compiled scoring rules
+     */
+    private final ScoringEngine engine;
+    /**
+     * The number of cards of a hand
+     */
+    private final int handSize;
+    /**
+     * The fingerprint of the cards and the hand size
+     */
+    private final long fingerprint;
+    /**
+     * {@code binomials[n * (handSize + 1) + k]} is n over k
+     */
+    private final int[] binomials;
+    /**
+     * The score of every hand by rank (null for a pair table)
+     */
+    private final int[] scores;
+    /**
+     * The score of every single card (pair table)
+     */
+    private final int[] singles;
+    /**
+     * {@code pairs[a * numCards + b]} is what a hand gains by having both cards compared to the two single scores (pair table)
+     */
+    private final int[] pairs;
+    /**
+     * The cards with effects which are not a sum over pairs of cards (pair table)
+     */
+    private final long[] nonAdditive;
+    /**
+     * The time needed to build or load the table in milliseconds
+     */
+    private long buildMillis;
+    /**
+     * True if the table was read from a cache file
+     */
+    private boolean loaded;
+
+    /**
+     * Constructor for an empty table
+     *
+     * @param engine   the compiled scoring rules
+     * @param handSize the number of cards of a hand
+     * @param full     true for a full table, false for a pair table
+     */
+    private ScoreTable(ScoringEngine engine, int handSize, boolean full) {
+        this.engine = engine;
+        this.handSize = handSize;
+        this.fingerprint = fingerprint(engine, handSize);
+        int numCards = engine.getNumCards();
+        this.binomials = new int[(numCards + 1) * (handSize + 1)];
+        for (int n = 0; n <= numCards; n++) {
+            for (int k = 0; k <= handSize; k++) {
+                long value = binomial(n, k);
+                this.binomials[n * (handSize + 1) + k] = (int) Math.min(Integer.MAX_VALUE, value);
+            }
+        }
+        if (full) {
+            this.scores = new int[(int) binomial(numCards, handSize)];
+            this.singles = null;
+            this.pairs = null;
+            this.nonAdditive = null;
+        } else {
+            this.scores = null;
+            this.singles = new int[numCards];
+            this.pairs = new int[numCards * numCards];
+            this.nonAdditive = engine.newHand();
+        }
+    }
+
+    /**
+     * Builds the table for a hand size: A full table if there are at most {@code limit} hands, a pair table otherwise
+     *
+     * @param engine   the compiled scoring rules
+     * @param handSize the number of cards of a hand
+     * @param limit    the largest number of hands stored in a full table
+     * @return the table
+     * @throws IllegalArgumentException if the hand size is larger than the number of cards
+     */
+    public static ScoreTable build(ScoringEngine engine, int handSize, long limit) {
+        if (handSize < 0 || handSize > engine.getNumCards()) {
+            throw new IllegalArgumentException("Invalid hand size " + handSize + " for " + engine.getNumCards() + " cards");
+        }
+        long start = System.nanoTime();
+        ScoreTable table = new ScoreTable(engine, handSize, fitsFullTable(engine, handSize, limit));
+        if (table.isFull()) {
+            table.fillScores();
+        } else {
+            table.fillPairs();
+        }
+        table.buildMillis = (System.nanoTime() - start) / 1_000_000;
+        return table;
+    }
+
+    /**
+     * Checks if the score of every hand is stored by {@link #build} and {@link #load} for a limit
+     *
+     * @param engine   the compiled scoring rules
+     * @param handSize the number of cards of a hand
+     * @param limit    the largest number of hands stored in a full table
+     * @return true if there are at most {@code limit} different hands, which also fit into an array
+     */
+    public static boolean fitsFullTable(ScoringEngine engine, int handSize, long limit) {
+        return binomial(engine.getNumCards(), handSize) <= Math.min(limit, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * Reads a full table from a cache directory or builds it and writes it there.
+     * Pair tables are always built because they are small; Problems with the cache file only cause the table to be built
+     *
+     * @param engine   the compiled scoring rules
+     * @param handSize the number of cards of a hand
+     * @param limit    the largest number of hands stored in a full table
+     * @param cacheDir the directory of the cache files
+     * @return the table
+     * @throws IllegalArgumentException if the hand size is larger than the number of cards
+     */
+    public static ScoreTable load(ScoringEngine engine, int handSize, long limit, File cacheDir) {
+        if (handSize < 0 || handSize > engine.getNumCards()) {
+            throw new IllegalArgumentException("Invalid hand size " + handSize + " for " + engine.getNumCards() + " cards");
+        }
+        if (!fitsFullTable(engine, handSize, limit)) {
+            return build(engine, handSize, limit);
+        }
+        long start = System.nanoTime();
+        File file = new File(cacheDir, String.format("scores-%016x.bin", fingerprint(engine, handSize)));
+        if (file.isFile()) {
+            ScoreTable table = new ScoreTable(engine, handSize, true);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+                if (in.readInt() == MAGIC && in.readLong() == table.fingerprint && in.readInt() == table.scores.length) {
+                    for (int i = 0; i < table.scores.length; i++) {
+                        table.scores[i] = in.readInt();
+                    }
+                    table.loaded = true;
+                    table.buildMillis = (System.nanoTime() - start) / 1_000_000;
+                    return table;
+                }
+            } catch (IOException e) {
+                System.out.println("Could not read score table " + file + ": " + e.getMessage());
+            }
+        }
+        ScoreTable table = build(engine, handSize, limit);
+        try {
+            table.save(file);
+        } catch (IOException e) {
+            System.out.println("Could not write score table " + file + ": " + e.getMessage());
+        }
+        return table;
+    }
+
+    /**
+     * Writes a full table to a file
+     *
+     * @param file the file
+     * @throws IOException           if the file cannot be written
+     * @throws IllegalStateException if this is a pair table
+     */
+    public void save(File file) throws IOException {
+        if (!this.isFull()) {
+            throw new IllegalStateException("Only full score tables can be saved");
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeLong(this.fingerprint);
+            out.writeInt(this.scores.length);
+            for (int score : this.scores) {
+                out.writeInt(score);
+            }
+        }
+    }
+
+    /**
+     * Checks if the table stores the score of every hand
+     *
+     * @return true for a full table, false for a pair table
+     */
+    public boolean isFull() {
+        return this.scores != null;
+    }
+
+    /**
+     * Gets the hand size of the table
+     *
+     * @return the number of cards of a hand
+     */
+    public int getHandSize() {
+        return this.handSize;
+    }
+
+    /**
+     * Gets the number of stored values
+     *
+     * @return the number of hands of a full table or single and pair values of a pair table
+     */
+    public int getNumEntries() {
+        return this.isFull() ? this.scores.length : this.singles.length + this.pairs.length;
+    }
+
+    /**
+     * Gets the memory used by the stored values
+     *
+     * @return the size in bytes
+     */
+    public long getSizeInBytes() {
+        return (long) this.getNumEntries() * Integer.BYTES;
+    }
+
+    /**
+     * Gets the time needed to build or load the table
+     *
+     * @return the time in milliseconds
+     */
+    public long getBuildMillis() {
+        return this.buildMillis;
+    }
+
+    /**
+     * Checks if the table was read from a cache file
+     *
+     * @return true if loaded, false if built
+     */
+    public boolean isLoaded() {
+        return this.loaded;
+    }
+
+    /**
+     * Gets the score of a hand from the table
+     *
+     * @param hands  the array containing the hand bitset
+     * @param offset index of the first word of the hand
+     * @return the score or {@link HandScoreCache#MISSING} if the table has no answer for the hand
+     */
+    public int lookup(long[] hands, int offset) {
+        int words = this.engine.getNumWords();
+        if (this.isFull()) {
+            int rank = 0;
+            int k = 0;
+            for (int w = 0; w < words; w++) {
+                for (long bits = hands[offset + w]; bits != 0; bits &= bits - 1) {
+                    if (k == this.handSize) {
+                        return HandScoreCache.MISSING;
+                    }
+                    rank += this.binomials[((w << 6) + Long.numberOfTrailingZeros(bits)) * (this.handSize + 1) + ++k];
+                }
+            }
+            return k == this.handSize ? this.scores[rank] : HandScoreCache.MISSING;
+        }
+        for (int w = 0; w < words; w++) {
+            if ((hands[offset + w] & this.nonAdditive[w]) != 0) {
+                return HandScoreCache.MISSING;
+            }
+        }
+        int numCards = this.engine.getNumCards();
+        int points = 0;
+        for (int w = 0; w < words; w++) {
+            for (long bits = hands[offset + w]; bits != 0; bits &= bits - 1) {
+                int a = (w << 6) + Long.numberOfTrailingZeros(bits);
+                points += this.singles[a];
+                for (int v = w; v < words; v++) {
+                    for (long others = v == w ? bits & (bits - 1) : hands[offset + v]; others != 0; others &= others - 1) {
+                        points += this.pairs[a * numCards + (v << 6) + Long.numberOfTrailingZeros(others)];
+                    }
+                }
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Gets the score of a hand after exchanging one card from the score before; Only pair tables answer this incrementally
+     *
+     * @param hand   the array containing the hand bitset before the swap
+     * @param offset index of the first word of the hand
+     * @param score  the score of the hand before the swap
+     * @param out    the id of the card leaving the hand
+     * @param in     the id of the card entering the hand
+     * @return the score after the swap or {@link HandScoreCache#MISSING} if the table has no answer
+     */
+    public int scoreAfterSwap(long[] hand, int offset, int score, int out, int in) {
+        if (this.isFull() || this.isSet(this.nonAdditive, 0, in) || this.isSet(this.nonAdditive, 0, out)) {
+            return HandScoreCache.MISSING;
+        }
+        int words = this.engine.getNumWords();
+        for (int w = 0; w < words; w++) {
+            if ((hand[offset + w] & this.nonAdditive[w]) != 0) {
+                return HandScoreCache.MISSING;
+            }
+        }
+        int numCards = this.engine.getNumCards();
+        int points = score - this.singles[out] + this.singles[in];
+        for (int w = 0; w < words; w++) {
+            for (long bits = hand[offset + w]; bits != 0; bits &= bits - 1) {
+                int other = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (other != out) {
+                    points += this.pairs[in * numCards + other] - this.pairs[out * numCards + other];
+                }
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Scores every hand in the order of the combinatorial number system
+     */
+    private void fillScores() {
+        int numCards = this.engine.getNumCards();
+        int[] combination = new int[this.handSize + 1];
+        long[] hand = this.engine.newHand();
+        long[] scratch = this.engine.newHand();
+        for (int k = 0; k < this.handSize; k++) {
+            combination[k] = k;
+            hand[k >>> 6] |= 1L << k;
+        }
+        combination[this.handSize] = numCards;
+        for (int rank = 0; rank < this.scores.length; rank++) {
+            this.scores[rank] = this.engine.score(hand, 0, scratch, 0);
+            //Next combination: Increase the lowest card which can move up and put the ones below back to the start
+            int k = 0;
+            while (k < this.handSize && combination[k] + 1 == combination[k + 1]) {
+                k++;
+            }
+            if (k == this.handSize) {
+                break;
+            }
+            for (int j = 0; j < k; j++) {
+                hand[combination[j] >>> 6] &= ~(1L << combination[j]);
+                combination[j] = j;
+                hand[j >>> 6] |= 1L << j;
+            }
+            hand[combination[k] >>> 6] &= ~(1L << combination[k]);
+            combination[k]++;
+            hand[combination[k] >>> 6] |= 1L << combination[k];
+        }
+    }
+
+    /**
+     * Scores every single card and every pair of cards and marks the cards whose effects are not additive
+     */
+    private void fillPairs() {
+        int numCards = this.engine.getNumCards();
+        long[] hand = this.engine.newHand();
+        for (int a = 0; a < numCards; a++) {
+            hand[a >>> 6] |= 1L << a;
+            this.singles[a] = this.engine.score(hand);
+            hand[a >>> 6] &= ~(1L << a);
+            if (this.engine.blockingStarts[a] < this.engine.blockingStarts[a + 1]) {
+                this.nonAdditive[a >>> 6] |= 1L << a;
+            }
+            for (int i = this.engine.pointStarts[a]; i < this.engine.pointStarts[a + 1]; i++) {
+                EffectType type = this.engine.effectTypes[this.engine.pointEffects[i]];
+                if (type != EffectType.POINTS_FOREACH && type != EffectType.POINTS_SUM_BASEVALUES) {
+                    this.nonAdditive[a >>> 6] |= 1L << a;
+                }
+            }
+        }
+        for (int a = 0; a < numCards; a++) {
+            for (int b = a + 1; b < numCards; b++) {
+                hand[a >>> 6] |= 1L << a;
+                hand[b >>> 6] |= 1L << b;
+                int interaction = this.engine.score(hand) - this.singles[a] - this.singles[b];
+                hand[a >>> 6] &= ~(1L << a);
+                hand[b >>> 6] &= ~(1L << b);
+                this.pairs[a * numCards + b] = interaction;
+                this.pairs[b * numCards + a] = interaction;
+            }
+        }
+    }
+
+    /**
+     * Checks if a card is in a bitset
+     *
+     * @param bits   the array containing the bitset
+     * @param offset index of the first word of the bitset
+     * @param id     the card id
+     * @return true if the bit of the card is set
+     */
+    private boolean isSet(long[] bits, int offset, int id) {
+        return (bits[offset + (id >>> 6)] & (1L << id)) != 0;
+    }
+
+    /**
+     * Calculates n over k
+     *
+     * @param n the number of elements
+     * @param k the number of chosen elements
+     * @return the binomial coefficient, {@link Long#MAX_VALUE} if it is too large
+     */
+    static long binomial(int n, int k) {
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        long value = 1;
+        for (int i = 1; i <= Math.min(k, n - k); i++) {
+            if (value > Long.MAX_VALUE / (n - i + 1)) {
+                return Long.MAX_VALUE;
+            }
+            value = value * (n - i + 1) / i;
+        }
+        return value;
+    }
+
+    /**
+     * Calculates a fingerprint of everything the scores depend on: the cards in id order with their effects and the hand size
+     *
+     * @param engine   the compiled scoring rules
+     * @param handSize the number of cards of a hand
+     * @return the fingerprint
+     */
+    private static long fingerprint(ScoringEngine engine, int handSize) {
+        StringBuilder description = new StringBuilder().append(handSize);
+        for (int id = 0; id < engine.getNumCards(); id++) {
+            Card card = engine.getCard(id);
+            description.append('|').append(card.getName()).append(',').append(card.getColor()).append(',').append(card.getBaseValue());
+            List<String> effects = new ArrayList<>();
+            for (Effect effect : card.getEffects()) {
+                List<String> selectors = new ArrayList<>();
+                for (Either<Card, CardColor> selector : effect.getSelector()) {
+                    selectors.add(selector.isLeft() ? "card:" + selector.getLeft().getName() : "color:" + selector.getRight());
+                }
+                selectors.sort(null);
+                effects.add(effect.getType() + ":" + effect.getEffectValue() + selectors);
+            }
+            effects.sort(null);
+            description.append(effects);
+        }
+        long hash = 0xCBF29CE484222325L;    //64 bit FNV-1a
+        for (int i = 0; i < description.length(); i++) {
+            hash = (hash ^ description.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+}
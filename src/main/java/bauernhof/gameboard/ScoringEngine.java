@@ -0,0 +1,553 @@
+package bauernhof.gameboard;
+
+import bauernhof.gameconfig.EffectIndex;
+import bauernhof.preset.Either;
+import bauernhof.preset.GameConfiguration;
+import bauernhof.preset.card.Card;
+import bauernhof.preset.card.CardColor;
+import bauernhof.preset.card.Effect;
+import bauernhof.preset.card.EffectType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A compiled version of the scoring rules of a game configuration.
+ * Every card gets a dense id and every effect selector is turned into a bitmask over these ids,
+ * so a hand can be scored with a few AND / popcount operations instead of nested streams.
+ * A hand is a {@code long[]} bitset of {@link #getNumWords()} words where bit {@code id} is set if the card is in the hand.
+ * The rules are immutable and the engine can be shared by every board using the same configuration;
+ * Only the score cache and an optional {@link ScoreTable} of precomputed scores change.
+ * Nothing is written to the cards and scratch space is kept per thread, so any number of threads can score at the same time.
+ * The results are the same as the ones of the list based evaluation in {@link PointsCalculator}.
+ */
+public final class ScoringEngine {
+    /**
+     * Engines that were already compiled, one per configuration
+     */
+    private static final Map<GameConfiguration, ScoringEngine> ENGINES = new WeakHashMap<>();
+    /**
+     * The number of hands remembered by the score cache of an engine
+     */
+    private static final int CACHE_CAPACITY = 1 << 16;
+
+    /**
+     * The cards ordered by their id
+     */
+    private final Card[] cards;
+    /**
+     * The id of every card
+     */
+    private final Map<Card, Integer> ids;
+    /**
+     * The number of long words of a hand bitset
+     */
+    private final int words;
+    /**
+     * The base value of every card by id
+     */
+    final int[] baseValues;
+    /**
+     * The type of each effect
+     */
+    final EffectType[] effectTypes;
+    /**
+     * The value of each effect
+     */
+    final int[] effectValues;
+    /**
+     * The union of all selectors of each effect ({@link #words} longs per effect)
+     */
+    final long[] effectMasks;
+    /**
+     * Start index of the selectors of each effect in {@link #selectorMasks} (one more entry than effects)
+     */
+    final int[] selectorStarts;
+    /**
+     * The mask of every single selector ({@link #words} longs per selector), needed for conjunctions
+     */
+    final long[] selectorMasks;
+    /**
+     * The card id of every single selector (-1 if the selector is a color)
+     */
+    final int[] selectorCards;
+    /**
+     * The color id of every single selector (-1 if the selector is a card)
+     */
+    final int[] selectorColors;
+    /**
+     * The color id of every card
+     */
+    final int[] cardColors;
+    /**
+     * The number of different colors of cards and selectors
+     */
+    private final int numColors;
+    /**
+     * Start index of the blocking effects of each card in {@link #blockingEffects} (one more entry than cards)
+     */
+    final int[] blockingStarts;
+    /**
+     * The ids of the blocking effects grouped by card
+     */
+    final int[] blockingEffects;
+    /**
+     * Start index of the point effects of each card in {@link #pointEffects} (one more entry than cards)
+     */
+    final int[] pointStarts;
+    /**
+     * The ids of the point effects grouped by card
+     */
+    final int[] pointEffects;
+    /**
+     * Start index of the effects selecting each card in {@link #selectingEffects} (one more entry than cards)
+     */
+    final int[] selectingStarts;
+    /**
+     * The ids of the effects whose selector contains a card, grouped by card
+     */
+    final int[] selectingEffects;
+    /**
+     * Scratch space for the list based entry points (a hand and the unblocked cards)
+     */
+    private final ThreadLocal<long[]> scratch;
+    /**
+     * Already calculated scores, shared by every user of the engine
+     */
+    private final HandScoreCache scoreCache;
+    /**
+     * Precomputed scores for the hand size of the game, null if there are none
+     */
+    private volatile ScoreTable scoreTable;
+
+    /**
+     * Compiles the scoring rules of the given cards
+     *
+     * @param cardSet all cards of the game
+     */
+    public ScoringEngine(Collection<Card> cardSet) {
+        this(cardSet, new EffectIndex(cardSet));
+    }
+
+    /**
+     * Compiles the scoring rules of the given cards using an existing reverse index of the effects
+     *
+     * @param cardSet     all cards of the game
+     * @param effectIndex the {@link EffectIndex} of the same cards
+     */
+    public ScoringEngine(Collection<Card> cardSet, EffectIndex effectIndex) {
+        List<Card> sorted = new ArrayList<>(cardSet);
+        sorted.sort(Comparator.comparing(Card::getName));   //Deterministic ids independent of the set order
+        this.cards = sorted.toArray(new Card[0]);
+        this.words = Math.max(1, (this.cards.length + 63) >>> 6);
+        this.ids = new HashMap<>();
+        this.baseValues = new int[this.cards.length];
+        this.cardColors = new int[this.cards.length];
+        Map<CardColor, Integer> colorIds = new HashMap<>();
+        for (int id = 0; id < this.cards.length; id++) {
+            this.ids.put(this.cards[id], id);
+            this.baseValues[id] = this.cards[id].getBaseValue();
+            this.cardColors[id] = colorIds.computeIfAbsent(this.cards[id].getColor(), color -> colorIds.size());
+        }
+
+        List<Effect> effects = new ArrayList<>();
+        Map<Effect, Integer> effectIds = new IdentityHashMap<>();
+        this.blockingStarts = new int[this.cards.length + 1];
+        this.pointStarts = new int[this.cards.length + 1];
+        List<Integer> blocking = new ArrayList<>();
+        List<Integer> points = new ArrayList<>();
+        for (int id = 0; id < this.cards.length; id++) {
+            this.blockingStarts[id] = blocking.size();
+            this.pointStarts[id] = points.size();
+            for (Effect effect : this.cards[id].getEffects()) {
+                int effectId = effects.size();
+                effects.add(effect);
+                effectIds.put(effect, effectId);
+                if (isBlocking(effect.getType())) {
+                    blocking.add(effectId);
+                } else {
+                    points.add(effectId);
+                }
+            }
+        }
+        this.blockingStarts[this.cards.length] = blocking.size();
+        this.pointStarts[this.cards.length] = points.size();
+        this.blockingEffects = blocking.stream().mapToInt(Integer::intValue).toArray();
+        this.pointEffects = points.stream().mapToInt(Integer::intValue).toArray();
+
+        int numEffects = effects.size();
+        this.effectTypes = new EffectType[numEffects];
+        this.effectValues = new int[numEffects];
+        this.effectMasks = new long[numEffects * this.words];
+        this.selectorStarts = new int[numEffects + 1];
+        int numSelectors = effects.stream().mapToInt(effect -> effect.getSelector().size()).sum();
+        this.selectorMasks = new long[numSelectors * this.words];
+        this.selectorCards = new int[numSelectors];
+        this.selectorColors = new int[numSelectors];
+        int selector = 0;
+        for (int effectId = 0; effectId < numEffects; effectId++) {
+            Effect effect = effects.get(effectId);
+            this.effectTypes[effectId] = effect.getType();
+            this.effectValues[effectId] = effect.getEffectValue();
+            this.selectorStarts[effectId] = selector;
+            for (Either<Card, CardColor> either : effect.getSelector()) {
+                this.selectorCards[selector] = either.isLeft() ? this.getId(either.getLeft()) : -1;
+                this.selectorColors[selector] = either.isLeft() ? -1 : colorIds.computeIfAbsent(either.getRight(), color -> colorIds.size());
+                for (int id = 0; id < this.cards.length; id++) {
+                    if (EffectIndex.isCardInSelector(this.cards[id], either)) {
+                        this.selectorMasks[selector * this.words + (id >>> 6)] |= 1L << id;
+                        this.effectMasks[effectId * this.words + (id >>> 6)] |= 1L << id;
+                    }
+                }
+                selector++;
+            }
+        }
+        this.selectorStarts[numEffects] = selector;
+        this.numColors = colorIds.size();
+
+        //Reverse index from every card to the effects selecting it
+        this.selectingStarts = new int[this.cards.length + 1];
+        List<Integer> selecting = new ArrayList<>();
+        for (int id = 0; id < this.cards.length; id++) {
+            this.selectingStarts[id] = selecting.size();
+            for (EffectIndex.Dependency dependency : effectIndex.getEffectsSelecting(this.cards[id])) {
+                selecting.add(effectIds.get(dependency.getEffect()));
+            }
+        }
+        this.selectingStarts[this.cards.length] = selecting.size();
+        this.selectingEffects = selecting.stream().mapToInt(Integer::intValue).toArray();
+        this.scratch = ThreadLocal.withInitial(() -> new long[2 * this.words]);
+        this.scoreCache = new HandScoreCache(CACHE_CAPACITY, this.words);
+    }
+
+    /**
+     * Gets the shared engine of a configuration; The engine is compiled on first use
+     *
+     * @param config the game configuration
+     * @return the engine for all the cards of the configuration
+     */
+    public static ScoringEngine forConfiguration(GameConfiguration config) {
+        synchronized (ENGINES) {
+            return ENGINES.computeIfAbsent(config, key -> {
+                EffectIndex effectIndex = key instanceof bauernhof.gameconfig.GameConfiguration ?
+                        ((bauernhof.gameconfig.GameConfiguration) key).getEffectIndex() : null;
+                return effectIndex == null ? new ScoringEngine(key.getCards()) : new ScoringEngine(key.getCards(), effectIndex);
+            });
+        }
+    }
+
+    /**
+     * Checks if an effect type only blocks cards instead of giving points
+     *
+     * @param type the effect type
+     * @return true if the type is one of the blocking types
+     */
+    static boolean isBlocking(EffectType type) {
+        return type == EffectType.BLOCKS_EVERY || type == EffectType.BLOCKED_IF_WITH || type == EffectType.BLOCKED_IF_WITHOUT;
+    }
+
+    /**
+     * Gets the number of cards known to the engine
+     *
+     * @return the number of cards
+     */
+    public int getNumCards() {
+        return this.cards.length;
+    }
+
+    /**
+     * Gets the number of long words of a hand bitset
+     *
+     * @return the number of words
+     */
+    public int getNumWords() {
+        return this.words;
+    }
+
+    /**
+     * Gets the number of effects of all cards
+     *
+     * @return the number of effects
+     */
+    public int getNumEffects() {
+        return this.effectTypes.length;
+    }
+
+    /**
+     * Gets the number of different colors
+     *
+     * @return the number of colors
+     */
+    public int getNumColors() {
+        return this.numColors;
+    }
+
+    /**
+     * Gets the id of a card
+     *
+     * @param card the card
+     * @return the id of the card; If the card is not part of the configuration <b>returns -1</b>
+     */
+    public int getId(Card card) {
+        Integer id = this.ids.get(card);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the card with a given id
+     *
+     * @param id the id of the card
+     * @return the card
+     */
+    public Card getCard(int id) {
+        return this.cards[id];
+    }
+
+    /**
+     * Gets the base value of a card
+     *
+     * @param id the id of the card
+     * @return the base value
+     */
+    public int getBaseValue(int id) {
+        return this.baseValues[id];
+    }
+
+    /**
+     * Creates an empty hand bitset
+     *
+     * @return a new hand without any cards
+     */
+    public long[] newHand() {
+        return new long[this.words];
+    }
+
+    /**
+     * Writes the given cards into a hand bitset
+     *
+     * @param cardList the cards of the hand
+     * @param hand     the bitset to be filled (at least {@link #getNumWords()} long)
+     * @param offset   the index of the first word of the hand
+     * @throws IllegalArgumentException if a card is not part of the configuration
+     */
+    public void fillHand(List<Card> cardList, long[] hand, int offset) {
+        for (int w = 0; w < this.words; w++) {
+            hand[offset + w] = 0L;
+        }
+        for (int i = 0; i < cardList.size(); i++) {
+            int id = this.getId(cardList.get(i));
+            if (id < 0) {
+                throw new IllegalArgumentException("Card is not part of the configuration: " + cardList.get(i).getName());
+            }
+            hand[offset + (id >>> 6)] |= 1L << id;
+        }
+    }
+
+    /**
+     * Calculate the total points for a given list of cards
+     *
+     * @param cardList the list of cards for which the points should be calculated
+     * @return the total points of the cards
+     * @throws IllegalArgumentException if a card is not part of the configuration
+     */
+    public int score(List<Card> cardList) {
+        long[] buffer = this.scratch.get();
+        this.fillHand(cardList, buffer, 0);
+        return this.cachedScore(buffer, 0);
+    }
+
+    /**
+     * Gets the total points for a hand bitset from the shared {@link HandScoreCache}; Calculates and stores them on a miss
+     *
+     * @param hands  the array containing the hand
+     * @param offset index of the first word of the hand
+     * @return the total points of the hand
+     */
+    public int cachedScore(long[] hands, int offset) {
+        ScoreTable table = this.scoreTable;
+        if (table != null) {
+            int points = table.lookup(hands, offset);
+            if (points != HandScoreCache.MISSING) {
+                return points;
+            }
+        }
+        int points = this.scoreCache.get(hands, offset);
+        if (points == HandScoreCache.MISSING) {
+            long[] buffer = this.scratch.get();
+            points = this.score(hands, offset, buffer, buffer == hands ? this.words : 0);
+            this.scoreCache.put(hands, offset, points);
+        }
+        return points;
+    }
+
+    /**
+     * Gets the cache of already calculated scores shared by every user of the engine
+     *
+     * @return the {@link HandScoreCache}
+     */
+    public HandScoreCache getScoreCache() {
+        return this.scoreCache;
+    }
+
+    /**
+     * Gets the precomputed scores used before the cache
+     *
+     * @return the {@link ScoreTable} or null if there is none
+     */
+    public ScoreTable getScoreTable() {
+        return this.scoreTable;
+    }
+
+    /**
+     * Sets precomputed scores which are used before the cache by every user of the engine
+     *
+     * @param scoreTable the {@link ScoreTable} built with this engine or null to remove it
+     */
+    public void setScoreTable(ScoreTable scoreTable) {
+        this.scoreTable = scoreTable;
+    }
+
+    /**
+     * Calculate the total points for a hand bitset
+     *
+     * @param hand the hand bitset
+     * @return the total points of the hand
+     */
+    public int score(long[] hand) {
+        return this.score(hand, 0, this.scratch.get(), 0);
+    }
+
+    /**
+     * Calculate the total points for a hand bitset inside a larger array; Does not allocate anything
+     *
+     * @param hands         the array containing the hand
+     * @param offset        index of the first word of the hand
+     * @param scratch       an array with room for {@link #getNumWords()} longs used for the unblocked cards
+     * @param scratchOffset index of the first free word in the scratch array
+     * @return the total points of the hand
+     */
+    public int score(long[] hands, int offset, long[] scratch, int scratchOffset) {
+        //Remove blocked cards; The conditions are always checked against the full hand
+        for (int w = 0; w < this.words; w++) {
+            scratch[scratchOffset + w] = hands[offset + w];
+        }
+        for (int w = 0; w < this.words; w++) {
+            for (long bits = hands[offset + w]; bits != 0; bits &= bits - 1) {
+                int id = (w << 6) + Long.numberOfTrailingZeros(bits);
+                for (int i = this.blockingStarts[id]; i < this.blockingStarts[id + 1]; i++) {
+                    int effect = this.blockingEffects[i];
+                    switch (this.effectTypes[effect]) {
+                        case BLOCKS_EVERY:
+                            for (int v = 0; v < this.words; v++) {
+                                scratch[scratchOffset + v] &= ~this.effectMasks[effect * this.words + v];
+                            }
+                            break;
+                        case BLOCKED_IF_WITH:
+                            if (this.intersects(hands, offset, this.effectMasks, effect * this.words)) {
+                                scratch[scratchOffset + w] &= ~(1L << id);
+                            }
+                            break;
+                        case BLOCKED_IF_WITHOUT:
+                            if (!this.intersects(hands, offset, this.effectMasks, effect * this.words)) {
+                                scratch[scratchOffset + w] &= ~(1L << id);
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        }
+
+        //Count base values and effect points of the remaining cards
+        int points = 0;
+        for (int w = 0; w < this.words; w++) {
+            for (long bits = scratch[scratchOffset + w]; bits != 0; bits &= bits - 1) {
+                int id = (w << 6) + Long.numberOfTrailingZeros(bits);
+                points += this.baseValues[id];
+                for (int i = this.pointStarts[id]; i < this.pointStarts[id + 1]; i++) {
+                    points += this.effectPoints(this.pointEffects[i], scratch, scratchOffset);
+                }
+            }
+        }
+        return points;
+    }
+
+    /**
+     * Calculates the points a single point effect gives for a set of (unblocked) cards
+     *
+     * @param effect the effect id
+     * @param active the bitset of the counted cards
+     * @param offset index of the first word of the bitset
+     * @return the points of the effect
+     */
+    private int effectPoints(int effect, long[] active, int offset) {
+        int maskOffset = effect * this.words;
+        switch (this.effectTypes[effect]) {
+            //If all selectors are met => effect value
+            case POINTS_FLAT_CONJUNCTION:
+                for (int s = this.selectorStarts[effect]; s < this.selectorStarts[effect + 1]; s++) {
+                    if (!this.intersects(active, offset, this.selectorMasks, s * this.words)) {
+                        return 0;
+                    }
+                }
+                return this.effectValues[effect];
+            //If any card is contained in the selector => effect value
+            case POINTS_FLAT_DISJUNCTION:
+                return this.intersects(active, offset, this.effectMasks, maskOffset) ? this.effectValues[effect] : 0;
+            //Number of selected cards multiplied by the effect value
+            case POINTS_FOREACH:
+                int count = 0;
+                for (int w = 0; w < this.words; w++) {
+                    count += Long.bitCount(active[offset + w] & this.effectMasks[maskOffset + w]);
+                }
+                return count * this.effectValues[effect];
+            //Sum of the base values of the selected cards
+            case POINTS_SUM_BASEVALUES:
+                int sum = 0;
+                for (int w = 0; w < this.words; w++) {
+                    for (long bits = active[offset + w] & this.effectMasks[maskOffset + w]; bits != 0; bits &= bits - 1) {
+                        sum += this.baseValues[(w << 6) + Long.numberOfTrailingZeros(bits)];
+                    }
+                }
+                return sum;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Checks if the selector of an effect contains a card
+     *
+     * @param effect the effect id
+     * @param id     the card id
+     * @return true if the card is selected by the effect
+     */
+    boolean selects(int effect, int id) {
+        return (this.effectMasks[effect * this.words + (id >>> 6)] & (1L << id)) != 0;
+    }
+
+    /**
+     * Checks if two bitsets have at least one card in common
+     *
+     * @param bits       the first bitset
+     * @param offset     index of the first word of the first bitset
+     * @param mask       the second bitset
+     * @param maskOffset index of the first word of the second bitset
+     * @return true if the intersection is not empty
+     */
+    private boolean intersects(long[] bits, int offset, long[] mask, int maskOffset) {
+        for (int w = 0; w < this.words; w++) {
+            if ((bits[offset + w] & mask[maskOffset + w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,406 @@
+package bauernhof.gameboard;
+
+import bauernhof.preset.card.Card;
+import bauernhof.preset.card.EffectType;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores every possible outcome of a turn at once: A hand takes one card and puts one card down,
+ * which can be any card of the hand or the taken card itself.
+ * All outcomes are the hand together with the taken card minus one card, so only this extended hand is scored;
+ * While scoring it every effect also notes what it would lose without each of the cards it counts.
+ * The score of an outcome is then the score of the extended hand minus the loss of the card put down.
+ * Only if putting a card down can change which other cards are blocked is the outcome scored completely.
+ * The evaluator keeps scratch space for the cards and effects, so every thread needs its own instance.
+ */
+public class SwapEvaluator {
+    /**
+     * The compiled scoring rules
+     */
+    private final ScoringEngine engine;
+    /**
+     * The number of long words of a hand bitset
+     */
+    private final int words;
+    /**
+     * The extended hand: the hand and the taken card
+     */
+    private final long[] extended;
+    /**
+     * The unblocked cards of the extended hand
+     */
+    private final long[] active;
+    /**
+     * The extended hand without the card put down, for outcomes that are scored completely
+     */
+    private final long[] reduced;
+    /**
+     * Scratch space for scoring
+     */
+    private final long[] scratch;
+    /**
+     * The cards of the extended hand which change the blocking of other cards when they are put down
+     */
+    private final long[] critical;
+    /**
+     * For every card of the extended hand the points the hand loses without it (if no blocking changes)
+     */
+    private final int[] losses;
+    /**
+     * The card ids of the hand, reused between calls
+     */
+    private int[] handIds = new int[16];
+
+    /**
+     * Constructor for an evaluator
+     *
+     * @param engine the {@link ScoringEngine} of the configuration
+     */
+    public SwapEvaluator(ScoringEngine engine) {
+        this.engine = engine;
+        this.words = engine.getNumWords();
+        this.extended = engine.newHand();
+        this.active = engine.newHand();
+        this.reduced = engine.newHand();
+        this.scratch = engine.newHand();
+        this.critical = engine.newHand();
+        this.losses = new int[engine.getNumCards()];
+    }
+
+    /**
+     * Scores all outcomes of taking a card
+     *
+     * @param hand     the cards of the hand
+     * @param incoming the card taken
+     * @return the scores, at index {@code i} for putting down {@code hand.get(i)} and at index {@code hand.size()} for putting down the taken card
+     * @throws IllegalArgumentException if a card is not part of the configuration or the taken card is already in the hand
+     */
+    public int[] scoreSwaps(List<Card> hand, Card incoming) {
+        int[] scores = new int[hand.size() + 1];
+        this.scoreSwaps(this.fillIds(hand), hand.size(), this.idOf(incoming), scores);
+        return scores;
+    }
+
+    /**
+     * Scores all outcomes of taking one of several cards
+     *
+     * @param hand     the cards of the hand
+     * @param incoming the cards which could be taken
+     * @return one row of scores per taken card as in {@link #scoreSwaps(List, Card)}
+     * @throws IllegalArgumentException if a card is not part of the configuration or a taken card is already in the hand
+     */
+    public int[][] scoreSwaps(List<Card> hand, List<Card> incoming) {
+        int[] ids = this.fillIds(hand);
+        int[][] scores = new int[incoming.size()][hand.size() + 1];
+        for (int i = 0; i < incoming.size(); i++) {
+            this.scoreSwaps(ids, hand.size(), this.idOf(incoming.get(i)), scores[i]);
+        }
+        return scores;
+    }
+
+    /**
+     * Scores all moves a player can make on a board: Taking any card of the discard pile or the top card of the draw pile
+     * and putting down any card of the hand or the taken card
+     *
+     * @param board    the game board
+     * @param playerId the id of the player
+     * @return for every card which can be taken (discard pile first, then the draw pile) the scores as in {@link #scoreSwaps(List, Card)},
+     * indexed by the order of the player pile
+     */
+    public Map<Card, int[]> scoreSwaps(GameBoard board, Integer playerId) {
+        List<Card> hand = board.getPlayerPile(playerId).getList();
+        int[] ids = this.fillIds(hand);
+        Map<Card, int[]> scores = new LinkedHashMap<>();
+        for (Card card : board.getDiscardPile().getList()) {
+            int[] row = new int[hand.size() + 1];
+            this.scoreSwaps(ids, hand.size(), this.idOf(card), row);
+            scores.put(card, row);
+        }
+        if (board.getDrawPile().getSize() > 0) {
+            Card card = board.getDrawPile().lookAt(0);
+            int[] row = new int[hand.size() + 1];
+            this.scoreSwaps(ids, hand.size(), this.idOf(card), row);
+            scores.put(card, row);
+        }
+        return scores;
+    }
+
+    /**
+     * Scores all outcomes of taking a card; Does not allocate anything
+     *
+     * @param hand     the card ids of the hand
+     * @param size     the number of cards of the hand
+     * @param incoming the id of the card taken
+     * @param scores   the array the scores are written to: at index {@code i} for putting down {@code hand[i]} and at index
+     *                 {@code size} for putting down the taken card
+     * @throws IllegalArgumentException if the taken card is already in the hand
+     */
+    public void scoreSwaps(int[] hand, int size, int incoming, int[] scores) {
+        Arrays.fill(this.extended, 0L);
+        for (int i = 0; i < size; i++) {
+            this.extended[hand[i] >>> 6] |= 1L << hand[i];
+        }
+        if (this.isSet(this.extended, incoming)) {
+            throw new IllegalArgumentException("The taken card is already in the hand: " + this.engine.getCard(incoming).getName());
+        }
+        this.extended[incoming >>> 6] |= 1L << incoming;
+        int total = this.evaluateExtended();
+        for (int i = 0; i < size; i++) {
+            scores[i] = this.scoreWithout(hand[i], total);
+        }
+        scores[size] = this.scoreWithout(incoming, total);
+    }
+
+    /**
+     * Scores the extended hand and in the same pass collects for every card what the hand loses without it:
+     * its own points and the points the effects of the other unblocked cards give for it
+     *
+     * @return the total points of the extended hand
+     */
+    private int evaluateExtended() {
+        System.arraycopy(this.extended, 0, this.active, 0, this.words);
+        Arrays.fill(this.critical, 0L);
+        for (int w = 0; w < this.words; w++) {
+            for (long bits = this.extended[w]; bits != 0; bits &= bits - 1) {
+                int id = (w << 6) + Long.numberOfTrailingZeros(bits);
+                this.losses[id] = 0;
+                for (int i = this.engine.blockingStarts[id]; i < this.engine.blockingStarts[id + 1]; i++) {
+                    int effect = this.engine.blockingEffects[i];
+                    int maskOffset = effect * this.words;
+                    int count = this.count(this.extended, this.engine.effectMasks, maskOffset);
+                    switch (this.engine.effectTypes[effect]) {
+                        case BLOCKS_EVERY:
+                            for (int v = 0; v < this.words; v++) {
+                                this.active[v] &= ~this.engine.effectMasks[maskOffset + v];
+                            }
+                            if (count - (this.engine.selects(effect, id) ? 1 : 0) > 0) {
+                                this.critical[w] |= 1L << id;     //Blocks other cards
+                            }
+                            break;
+                        case BLOCKED_IF_WITH:
+                            if (count > 0) {
+                                this.active[w] &= ~(1L << id);
+                            }
+                            this.markOnlyMatch(effect, id, count);
+                            break;
+                        case BLOCKED_IF_WITHOUT:
+                            if (count == 0) {
+                                this.active[w] &= ~(1L << id);
+                            }
+                            this.markOnlyMatch(effect, id, count);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        }
+        int total = 0;
+        for (int w = 0; w < this.words; w++) {
+            for (long bits = this.active[w]; bits != 0; bits &= bits - 1) {
+                int id = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int points = this.engine.baseValues[id];
+                for (int i = this.engine.pointStarts[id]; i < this.engine.pointStarts[id + 1]; i++) {
+                    points += this.collectPoints(this.engine.pointEffects[i], id);
+                }
+                this.losses[id] += points;
+                total += points;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Marks the card fulfilling the condition of a blocking effect if it is the only one and not the owner,
+     * because putting it down would change whether the owner is blocked
+     *
+     * @param effect the effect id
+     * @param owner  the id of the card owning the effect
+     * @param count  the number of cards of the extended hand matching the selector
+     */
+    private void markOnlyMatch(int effect, int owner, int count) {
+        if (count != 1) {
+            return;
+        }
+        for (int w = 0; w < this.words; w++) {
+            long match = this.extended[w] & this.engine.effectMasks[effect * this.words + w];
+            if (match != 0) {
+                int id = (w << 6) + Long.numberOfTrailingZeros(match);
+                if (id != owner) {
+                    this.critical[w] |= 1L << id;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Calculates the points of a point effect of the extended hand and adds to every other selected card
+     * what the effect would lose without it
+     *
+     * @param effect the effect id
+     * @param owner  the id of the card owning the effect
+     * @return the points of the effect
+     */
+    private int collectPoints(int effect, int owner) {
+        int value = this.engine.effectValues[effect];
+        int maskOffset = effect * this.words;
+        switch (this.engine.effectTypes[effect]) {
+            case POINTS_FLAT_CONJUNCTION:
+                int first = this.engine.selectorStarts[effect];
+                int last = this.engine.selectorStarts[effect + 1];
+                for (int s = first; s < last; s++) {
+                    if (this.count(this.active, this.engine.selectorMasks, s * this.words) == 0) {
+                        return 0;
+                    }
+                }
+                //A card which is the only match of a selector breaks the conjunction; Every such card loses the value once
+                for (int s = first; s < last; s++) {
+                    int only = this.onlyMatch(this.engine.selectorMasks, s * this.words);
+                    if (only >= 0 && only != owner && !this.isEarlierOnlyMatch(first, s, only)) {
+                        this.losses[only] += value;
+                    }
+                }
+                return value;
+            case POINTS_FLAT_DISJUNCTION:
+                int only = this.onlyMatch(this.engine.effectMasks, maskOffset);
+                if (only >= 0 && only != owner) {
+                    this.losses[only] += value;
+                }
+                return this.count(this.active, this.engine.effectMasks, maskOffset) > 0 ? value : 0;
+            case POINTS_FOREACH:
+            case POINTS_SUM_BASEVALUES:
+                int points = 0;
+                for (int w = 0; w < this.words; w++) {
+                    for (long bits = this.active[w] & this.engine.effectMasks[maskOffset + w]; bits != 0; bits &= bits - 1) {
+                        int id = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        int cardPoints = this.engine.effectTypes[effect] == EffectType.POINTS_FOREACH ? value : this.engine.baseValues[id];
+                        points += cardPoints;
+                        if (id != owner) {
+                            this.losses[id] += cardPoints;
+                        }
+                    }
+                }
+                return points;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Gets the single unblocked card matching a mask
+     *
+     * @param mask       the array containing the mask
+     * @param maskOffset index of the first word of the mask
+     * @return the id of the card or -1 if no card or more than one card matches
+     */
+    private int onlyMatch(long[] mask, int maskOffset) {
+        int only = -1;
+        for (int w = 0; w < this.words; w++) {
+            long match = this.active[w] & mask[maskOffset + w];
+            if (match != 0) {
+                if (only >= 0 || (match & (match - 1)) != 0) {
+                    return -1;
+                }
+                only = (w << 6) + Long.numberOfTrailingZeros(match);
+            }
+        }
+        return only;
+    }
+
+    /**
+     * Checks if a card is already the only match of an earlier selector of the same conjunction
+     *
+     * @param first    the first selector of the conjunction
+     * @param selector the current selector
+     * @param id       the card id
+     * @return true if the card was already counted for this conjunction
+     */
+    private boolean isEarlierOnlyMatch(int first, int selector, int id) {
+        for (int s = first; s < selector; s++) {
+            if (this.onlyMatch(this.engine.selectorMasks, s * this.words) == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calculates the score of the extended hand without one card
+     *
+     * @param removed the id of the card put down
+     * @param total   the total points of the extended hand
+     * @return the total points without the card
+     */
+    private int scoreWithout(int removed, int total) {
+        if (this.isSet(this.critical, removed)) {   //Other cards could be blocked differently, so score it completely
+            System.arraycopy(this.extended, 0, this.reduced, 0, this.words);
+            this.reduced[removed >>> 6] &= ~(1L << removed);
+            return this.engine.score(this.reduced, 0, this.scratch, 0);
+        }
+        return this.isSet(this.active, removed) ? total - this.losses[removed] : total;    //A blocked card gives and counts nothing
+    }
+
+    /**
+     * Counts the cards two bitsets have in common
+     *
+     * @param bits       the first bitset
+     * @param mask       the array containing the second bitset
+     * @param maskOffset index of the first word of the second bitset
+     * @return the number of common cards
+     */
+    private int count(long[] bits, long[] mask, int maskOffset) {
+        int count = 0;
+        for (int w = 0; w < this.words; w++) {
+            count += Long.bitCount(bits[w] & mask[maskOffset + w]);
+        }
+        return count;
+    }
+
+    /**
+     * Checks if a card is in a bitset
+     *
+     * @param bits the bitset
+     * @param id   the card id
+     * @return true if the bit of the card is set
+     */
+    private boolean isSet(long[] bits, int id) {
+        return (bits[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * Writes the ids of the cards of a hand into the reused id array
+     *
+     * @param hand the cards of the hand
+     * @return the id array
+     * @throws IllegalArgumentException if a card is not part of the configuration
+     */
+    private int[] fillIds(List<Card> hand) {
+        if (this.handIds.length < hand.size()) {
+            this.handIds = new int[hand.size()];
+        }
+        for (int i = 0; i < hand.size(); i++) {
+            this.handIds[i] = this.idOf(hand.get(i));
+        }
+        return this.handIds;
+    }
+
+    /**
+     * Gets the id of a card
+     *
+     * @param card the card
+     * @return the id of the card
+     * @throws IllegalArgumentException if the card is not part of the configuration
+     */
+    private int idOf(Card card) {
+        int id = this.engine.getId(card);
+        if (id < 0) {
+            throw new IllegalArgumentException("Card is not part of the configuration: " + card.getName());
+        }
+        return id;
+    }
+}
@@ -0,0 +1,75 @@
+package bauernhof.gameboard;
+
+/**
+ * The keys for Zobrist hashing of game positions.
+ * The hash of a position is the XOR of the key of every card at its location and the key of the player to move,
+ * so moving a card only needs two XORs to update the hash.
+ * The keys are a fixed function of the card id and the location, so boards on different machines agree on the hash.
+ * Additionally the moves of a game can be folded into a rolling hash, which identifies the whole sequence of moves.
+ */
+public final class Zobrist {
+    /**
+     * Seed of the keys; Changing it changes every hash
+     */
+    private static final long SEED = 0x6A09E667F3BCC909L;
+    /**
+     * Number of different key slots per card: draw pile, discard pile and up to 14 players
+     */
+    private static final int SLOTS = 16;
+
+    /**
+     * Keys are only calculated by the static methods
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key of a card at a location
+     *
+     * @param id       the id of the card in the {@link ScoringEngine}
+     * @param location the location as used by {@link GameBoard#getCardLocation(bauernhof.preset.card.Card)}
+     * @return the key; 0 for {@link GameBoard#NOWHERE}, so cards off the board do not change the hash
+     */
+    public static long cardKey(int id, int location) {
+        if (location == GameBoard.NOWHERE) {
+            return 0;
+        }
+        int slot = location == GameBoard.DRAW_PILE ? 0 : location == GameBoard.DISCARD_PILE ? 1 : location + 1;
+        return mix((long) id * SLOTS + slot);
+    }
+
+    /**
+     * Gets the key of the player to move
+     *
+     * @param playerId the id of the player to move
+     * @return the key
+     */
+    public static long playerKey(int playerId) {
+        return mix(-playerId);
+    }
+
+    /**
+     * Folds a move into the rolling hash of the moves made so far
+     *
+     * @param hash      the rolling hash before the move; 0 at the start of the game
+     * @param turnCount the turn in which the move is made
+     * @param move      the move packed as in {@link PackedMove}
+     * @return the rolling hash including the move
+     */
+    public static long foldMove(long hash, int turnCount, int move) {
+        return mix(hash ^ (((long) turnCount << 32) | (move & 0xFFFFFFFFL)));
+    }
+
+    /**
+     * Helper method mapping an index to a key (the SplitMix64 finalizer)
+     *
+     * @param index the index of the key
+     * @return the key
+     */
+    private static long mix(long index) {
+        long z = SEED + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,132 @@
+package bauernhof.gameconfig;
+
+import bauernhof.preset.Either;
+import bauernhof.preset.card.Card;
+import bauernhof.preset.card.CardColor;
+import bauernhof.preset.card.Effect;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reverse index from the cards and colors of a configuration to the effects whose selectors refer to them.
+ * When a card enters or leaves a hand only the effects listed for that card have to be checked again.
+ * The index is built once by the {@link GameConfigurationParser}, is immutable and can be shared by every board.
+ */
+public final class EffectIndex {
+
+    /**
+     * An effect together with the card it belongs to.
+     */
+    public static final class Dependency {
+        private final Card owner;
+        private final Effect effect;
+
+        private Dependency(Card owner, Effect effect) {
+            this.owner = owner;
+            this.effect = effect;
+        }
+
+        /**
+         * @return the card owning the effect
+         */
+        public Card getOwner() {
+            return owner;
+        }
+
+        /**
+         * @return the effect
+         */
+        public Effect getEffect() {
+            return effect;
+        }
+    }
+
+    private final Map<Card, List<Dependency>> byCard = new HashMap<>();
+    private final Map<CardColor, List<Dependency>> byColor = new HashMap<>();
+
+    /**
+     * Builds the index for a set of cards
+     * @param cards all playing cards of the configuration
+     */
+    public EffectIndex(Collection<Card> cards) {
+        List<Card> sorted = new ArrayList<>(cards);
+        sorted.sort(Comparator.comparing(Card::getName));
+        Map<Card, List<Dependency>> cardLists = new HashMap<>();
+        Map<CardColor, List<Dependency>> colorLists = new HashMap<>();
+        for (Card card : sorted) {
+            cardLists.put(card, new ArrayList<>());
+        }
+        for (Card owner : sorted) {
+            for (Effect effect : owner.getEffects()) {
+                Dependency dependency = new Dependency(owner, effect);
+                for (Either<Card, CardColor> selector : effect.getSelector()) {
+                    if (selector.isRight()) {
+                        List<Dependency> colorList = colorLists.computeIfAbsent(selector.getRight(), color -> new ArrayList<>());
+                        if (!colorList.contains(dependency)) {
+                            colorList.add(dependency);
+                        }
+                    }
+                }
+                // a card is listed once per effect, even if several selectors match it
+                for (Card card : sorted) {
+                    if (isCardInSelection(card, effect)) {
+                        cardLists.get(card).add(dependency);
+                    }
+                }
+            }
+        }
+        cardLists.forEach((card, list) -> byCard.put(card, Collections.unmodifiableList(list)));
+        colorLists.forEach((color, list) -> byColor.put(color, Collections.unmodifiableList(list)));
+    }
+
+    /**
+     * Checks if a card is part of a singular selector
+     * @param card the card to be checked
+     * @param selector the selector used
+     * @return true if the selector names the card or its color
+     */
+    public static boolean isCardInSelector(Card card, Either<Card, CardColor> selector) {
+        return selector.isLeft() ?
+                selector.getLeft().equals(card) :
+                selector.getRight().equals(card.getColor());
+    }
+
+    /**
+     * Checks if a card is part of the selection of an effect
+     * @param card the card to be checked
+     * @param effect the effect
+     * @return true if any selector of the effect matches the card
+     */
+    public static boolean isCardInSelection(Card card, Effect effect) {
+        for (Either<Card, CardColor> selector : effect.getSelector()) {
+            if (isCardInSelector(card, selector)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Effects whose selection contains a card, either by name or by its color
+     * @param card the card
+     * @return unmodifiable list of the effects and their owners; empty if no effect refers to the card
+     */
+    public List<Dependency> getEffectsSelecting(Card card) {
+        return byCard.getOrDefault(card, Collections.emptyList());
+    }
+
+    /**
+     * Effects with a selector naming a color
+     * @param color the card color
+     * @return unmodifiable list of the effects and their owners; empty if no effect refers to the color
+     */
+    public List<Dependency> getEffectsSelecting(CardColor color) {
+        return byColor.getOrDefault(color, Collections.emptyList());
+    }
+}
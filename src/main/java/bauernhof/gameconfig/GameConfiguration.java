@@ -23,6 +23,7 @@ public class GameConfiguration implements bauernhof.preset.GameConfiguration {
     private int numCardsPerPlayerHand;
     private Set<CardColor> colorCollection = new HashSet<>();
     private Set<Card> farmCards = new HashSet<>();
+    private EffectIndex effectIndex;
 
     //Configuration Description
     public String getConfigDescription(){
@@ -115,6 +116,22 @@ public class GameConfiguration implements bauernhof.preset.GameConfiguration {
         return numCardsPerPlayerHand;
     }
 
+    /**
+     * Getter for the reverse index from cards and colors to the effects referring to them
+     * @return the index built by the parser, or null if the cards have not been parsed yet
+     */
+    public EffectIndex getEffectIndex(){
+        return effectIndex;
+    }
+
+    /**
+     * Setter for the reverse index of the effects
+     * @param effectIndex the index for the cards of this configuration
+     */
+    public void setEffectIndex(EffectIndex effectIndex){
+        this.effectIndex = effectIndex;
+    }
+
     /**
      * Methode to get a card by its name
      * @param name String card name
@@ -188,6 +188,8 @@ public class GameConfigurationParser implements bauernhof.preset.GameConfigurati
                         if(elementName1.equals("Cards")){
                             currentCard.setEffects(currentCardEffects);
                             gameConfiguration.setCards(cards);
+                            //reverse index from cards and colors to the effects, shared by all boards of this configuration
+                            gameConfiguration.setEffectIndex(new EffectIndex(cards));
                         }
                         break;
                     }
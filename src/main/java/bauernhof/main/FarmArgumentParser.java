@@ -0,0 +1,126 @@
+package bauernhof.main;
+
+import bauernhof.player.AlphaBetaAIPlayer;
+import bauernhof.player.GameClock;
+import bauernhof.player.RealTimeClock;
+import bauernhof.player.VirtualClock;
+import bauernhof.preset.ArgumentParser;
+import bauernhof.preset.OptionalFeature;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.ParseException;
+
+import java.util.List;
+
+/**
+ * The {@link ArgumentParser} of the preset extended by the flags of our own features.
+ */
+public class FarmArgumentParser extends ArgumentParser {
+
+    /**
+     * Default for the largest number of hands whose scores are precomputed into a table.
+     */
+    public static final long DEFAULT_SCORE_TABLE_LIMIT = 1_000_000;
+
+    /**
+     * The largest number of hands whose scores are precomputed into a table; 0 switches the table off.
+     */
+    public long scoreTableLimit;
+
+    /**
+     * The master seed of the random numbers of the game, so a game can be replayed; null if none was given.
+     */
+    public Long seed;
+
+    /**
+     * Whether the pauses of the game are skipped by a {@link VirtualClock} instead of waiting in real time.
+     */
+    public boolean virtualTime;
+
+    /**
+     * The time (in milliseconds) an {@link bauernhof.preset.PlayerType#ADVANCED_AI} searches for each move.
+     */
+    public long searchTime;
+
+    /**
+     * Constructor parsing the arguments.
+     * @param args The command line arguments.
+     * @param projectName The name of the project shown in the help.
+     * @param version The version shown in the help.
+     * @param authors The authors shown in the help.
+     * @param optionalFeatures The implemented optional features.
+     */
+    public FarmArgumentParser(String[] args, String projectName, String version, List<String> authors, List<OptionalFeature> optionalFeatures) {
+        super(args, projectName, version, authors, optionalFeatures, false);
+        //The options are added by the super constructor, the values are only set here before parsing.
+        scoreTableLimit = DEFAULT_SCORE_TABLE_LIMIT;
+        searchTime = AlphaBetaAIPlayer.DEFAULT_TIME_BUDGET;
+        parse();
+    }
+
+    @Override
+    protected void addOptions() {
+        super.addOptions();
+        addOption("scoreTableLimit", "stl", "Precompute the score of every hand if there are at most LIMIT different hands (default: "
+                        + DEFAULT_SCORE_TABLE_LIMIT + ", 0 = off).",
+                ArgAmount.ONE, "LIMIT", Long.class, null, new Handler() {
+                    @Override
+                    public void handle(CommandLine line, Option option, List<String> values) throws ParseException {
+                        scoreTableLimit = parseLong(option, values.get(0));
+                    }
+                });
+        addOption("seed", "s", "The master seed of the shuffling and the random AI players, to replay a game (default: random).",
+                ArgAmount.ONE, "SEED", Long.class, null, new Handler() {
+                    @Override
+                    public void handle(CommandLine line, Option option, List<String> values) throws ParseException {
+                        try {
+                            seed = Long.parseLong(values.get(0));
+                        } catch (NumberFormatException e) {
+                            throw new ParseException("Option --seed needs a number, got: " + values.get(0));
+                        }
+                    }
+                });
+        addOption("virtualTime", "vt", "Skip all pauses of the game instead of waiting, e.g. for simulations.",
+                ArgAmount.NONE, null, null, null, new Handler() {
+                    @Override
+                    public void handle(CommandLine line, Option option, List<String> values) {
+                        virtualTime = true;
+                    }
+                });
+        addOption("searchTime", "st", "Time in milliseconds an ADVANCED_AI searches for each move (default: "
+                        + AlphaBetaAIPlayer.DEFAULT_TIME_BUDGET + ").",
+                ArgAmount.ONE, "MILLIS", Long.class, null, new Handler() {
+                    @Override
+                    public void handle(CommandLine line, Option option, List<String> values) throws ParseException {
+                        searchTime = parseLong(option, values.get(0));
+                    }
+                });
+    }
+
+    /**
+     * Creates the clock of a game as selected by the {@code --virtualTime} flag, see {@link FarmArgumentParser#virtualTime}.
+     * @return A new {@link VirtualClock} if the pauses are skipped, a {@link RealTimeClock} otherwise.
+     */
+    public GameClock createClock() {
+        return virtualTime ? new VirtualClock() : new RealTimeClock();
+    }
+
+    /**
+     * Helper method to read a non-negative number given to an option.
+     * @param option The option.
+     * @param value The given value.
+     * @return The number.
+     * @throws ParseException If the value is not a non-negative number.
+     */
+    private static long parseLong(Option option, String value) throws ParseException {
+        try {
+            long number = Long.parseLong(value);
+            if (number >= 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            //Reported below
+        }
+        throw new ParseException("Option --" + option.getLongOpt() + " needs a non-negative number, got: " + value);
+    }
+}
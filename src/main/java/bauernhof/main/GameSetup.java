@@ -0,0 +1,96 @@
+package bauernhof.main;
+
+import bauernhof.gameboard.ScoreTable;
+import bauernhof.gameboard.ScoringEngine;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import bauernhof.preset.GameConfigurationException;
+import bauernhof.preset.card.Card;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Helper methods for setting up a game, shared by {@link Main} and the headless {@link Tournament}.
+ * The class must not use any AWT or sag classes, so a tournament can run on machines without a display.
+ */
+final class GameSetup {
+
+    /**
+     * The configuration file used if none is given.
+     */
+    static final File DEFAULT_CONFIG_FILE = new File("src/main/ressources/bauernhof.xml");
+
+    /**
+     * Only static helper methods.
+     */
+    private GameSetup() {
+    }
+
+    /**
+     * A helper method to shuffle all cards of a configuration with the random numbers of a game. The cards are put in the
+     * order of their ids in the {@link ScoringEngine} first, which only depends on the card names, so the same seed
+     * always deals the same cards regardless of the order of the card set.
+     * @param config The {@link GameConfiguration}.
+     * @param random The random numbers of the game.
+     * @return The shuffled cards, the first card being the top card.
+     */
+    static List<Card> shuffleCards(GameConfiguration config, SplittableRandom random) {
+        ScoringEngine engine = ScoringEngine.forConfiguration(config);
+        List<Card> cards = new ArrayList<>(engine.getNumCards());
+        for (int id = 0; id < engine.getNumCards(); id++) {
+            cards.add(engine.getCard(id));
+        }
+        //Fisher-Yates shuffle like Collections.shuffle, which only accepts a java.util.Random
+        for (int i = cards.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            cards.set(i, cards.set(j, cards.get(i)));
+        }
+        return cards;
+    }
+
+    /**
+     * A helper method to generate a {@link GameConfiguration} from an XML configuration file and a {@link GameConfigurationParser}.
+     * @param configParser The {@link GameConfigurationParser} to be used here.
+     * @param configFile The XML game configuration file or null for {@link GameSetup#DEFAULT_CONFIG_FILE}.
+     * @return The {@link GameConfiguration} or null if it could not be parsed.
+     */
+    static GameConfiguration getConfig(GameConfigurationParser configParser, File configFile) {
+        GameConfiguration config = null;
+
+        try {
+            config = configParser.parse(configFile == null ? DEFAULT_CONFIG_FILE : configFile);
+        } catch (GameConfigurationException | IOException e) {
+            System.out.println("Could not obtain config from ConfigParser");
+            e.printStackTrace();
+        }
+
+        return config;
+    }
+
+    /**
+     * A helper method to precompute the scores of the hands of a configuration. If there are at most {@code limit}
+     * different hands, the score of every hand is stored (and cached in a file for the next start) and every board
+     * using the configuration looks the scores up in the table. Otherwise no table is installed: A pair table only
+     * answers hands without blocking or other non-additive effects, which are rare in the shipped configurations, so it
+     * would only add a failed lookup in front of the {@link bauernhof.gameboard.HandScoreCache}.
+     * @param config The {@link GameConfiguration}.
+     * @param limit The largest number of hands stored in a full table.
+     */
+    static void installScoreTable(GameConfiguration config, long limit) {
+        ScoringEngine engine = ScoringEngine.forConfiguration(config);
+        int handSize = config.getNumCardsPerPlayerHand();
+        if (!ScoreTable.fitsFullTable(engine, handSize, limit)) {
+            System.out.println("Score table: off, more than " + limit + " different hands");
+            return;
+        }
+        File cacheDir = new File(System.getProperty("java.io.tmpdir"), "growmanssky-scores");
+        ScoreTable scoreTable = ScoreTable.load(engine, handSize, limit, cacheDir);
+        engine.setScoreTable(scoreTable);
+        System.out.println("Score table: " + scoreTable.getNumEntries() + " hands, " + scoreTable.getSizeInBytes() / 1024
+                + " KiB, " + (scoreTable.isLoaded() ? "loaded" : "built") + " in " + scoreTable.getBuildMillis() + " ms");
+    }
+}
@@ -5,6 +5,10 @@ import bauernhof.gameconfig.GameConfiguration;
 import bauernhof.gameconfig.GameConfigurationParser;
 import bauernhof.gui.FarmPanel;
 import bauernhof.networking.C2SFarmConnection;
+import bauernhof.player.AlphaBetaAIPlayer;
+import bauernhof.player.BasicPlayer;
+import bauernhof.player.GameClock;
+import bauernhof.player.GreedyAIPlayer;
 import bauernhof.player.HumanPlayer;
 import bauernhof.player.RandomAIPlayer;
 import bauernhof.player.ScoreDiscrepancyException;
@@ -46,7 +50,9 @@ public class Main {
         ArrayList<OptionalFeature> optionalFeatures= new ArrayList<>();
         optionalFeatures.add(OptionalFeature.SOUNDEFFECTS);
         optionalFeatures.add(OptionalFeature.SCREENSHOTS);
-        ArgumentParser argumentParser = new ArgumentParser(args, projectname, "Version 1", projectauthors, optionalFeatures);
+        optionalFeatures.add(OptionalFeature.SIMPLE_AI);
+        optionalFeatures.add(OptionalFeature.ADVANCED_AI);
+        FarmArgumentParser argumentParser = new FarmArgumentParser(args, projectname, "Version 1", projectauthors, optionalFeatures);
 
         //Different flags handled by the ArgumentParser to be used for by the server, client, or non-network game.
         List<String> playerNames = argumentParser.playerNames;
@@ -111,20 +117,32 @@ public class Main {
             number of cards drawn by all players if each of them draws their starting hand is numplayers * numCardsPerPlayerHand,
             everything from the topmost card to that point will be removed before constructing the main GameBoard.
              */
-            GameConfiguration config = getConfig(new GameConfigurationParser(), configFile);
+            GameConfiguration config = GameSetup.getConfig(new GameConfigurationParser(), configFile);
 
             int numCardsPerPlayerHand = config.getNumCardsPerPlayerHand();
             int numDepositionAreaSlots = config.getNumDepositionAreaSlots();
             int numplayers = playerTypes.size();
 
-            Set<Card> cards = config.getCards();
-            List<Card> baseDrawPile = new ArrayList<>(cards);
-            Collections.shuffle(baseDrawPile);
+            if (argumentParser.scoreTableLimit > 0) {
+                GameSetup.installScoreTable(config, argumentParser.scoreTableLimit);
+            }
+
+            /*
+            All random numbers of the game come from one generator seeded with the master seed: The cards are shuffled
+            with it and every random AI player gets its own stream split off it. Giving the printed seed with -s replays
+            the game.
+             */
+            long seed = argumentParser.seed != null ? argumentParser.seed : new SplittableRandom().nextLong();
+            System.out.println("Seed: " + seed);
+            SplittableRandom gameRandom = new SplittableRandom(seed);
+            List<Card> baseDrawPile = GameSetup.shuffleCards(config, gameRandom);
             ImmutableList<Card> initialDrawPile = new ImmutableList<>(baseDrawPile);
             List<Card> playerHandsDrawn = new ArrayList<>(initialDrawPile);
             playerHandsDrawn.subList(0, (numplayers * numCardsPerPlayerHand)).clear();
-            GameBoard board = new GameBoard(numplayers, playerHandsDrawn);
+            GameBoard board = new GameBoard(numplayers, playerHandsDrawn, config);
             List<Player> players = new ArrayList<>(numplayers);
+            //All pauses of the game go through the clock, the virtual one skips them.
+            GameClock clock = argumentParser.createClock();
 
             SAGFrame frame = new SAGFrame("Grow Man's Sky", 30, 1280, 720);
             FarmPanel panel = new FarmPanel(1600, 900, board, frame, volume);
@@ -146,9 +164,17 @@ public class Main {
                         showGUI = true;
                         break;
                     case RANDOM_AI:
-                        Player randomPlayer = new RandomAIPlayer(playerNames.get(i), delay);
+                        Player randomPlayer = new RandomAIPlayer(playerNames.get(i), delay, gameRandom.split(), clock);
                         players.add(i, randomPlayer);
                         break;
+                    case SIMPLE_AI:
+                        Player greedyPlayer = new GreedyAIPlayer(playerNames.get(i), delay, clock);
+                        players.add(i, greedyPlayer);
+                        break;
+                    case ADVANCED_AI:
+                        Player searchPlayer = new AlphaBetaAIPlayer(playerNames.get(i), delay, argumentParser.searchTime, clock);
+                        players.add(i, searchPlayer);
+                        break;
                     case REMOTE:
                         try {
                             serverCon = new S2CConnection(socket);
@@ -171,6 +197,10 @@ public class Main {
             for (Player p : players) {
                 try {
                     int playerid = players.indexOf(p) + 1;
+                    //Local players read the main GameBoard instead of replicating it, remote players keep their own.
+                    if (p instanceof BasicPlayer) {
+                        ((BasicPlayer) p).shareBoard(board);
+                    }
                     p.init(config, initialDrawPile, numplayers, playerid);
 
                     int offset = (playerid - 1) * numCardsPerPlayerHand;
@@ -205,10 +235,13 @@ public class Main {
             /*
             Iterating through the round of the game. The game either goes on for 30 rounds or until there are enough
             cards on the discard pile. The number of cards is given in the GameConfiguration. Each turn of each round the
-            turn count gets increased, the gui gets updated (if it is visible), and the current player is requested to make a move.
-            After that, the move is made on the main GameBoard and every other player gets updated.
+            gui gets updated (if it is visible), and the current player is requested to make a move. After that, the move
+            is made on the main GameBoard and every other player gets updated. Every board counts the turns of its own game,
+            making a move on a board ends the turn on that board.
              */
             Move currentMove = null;
+            //Reused for printing the scores after every move.
+            int[] scores = new int[numplayers];
             rounds:
             for (int i = 0; i < 30; i++) {
                 for (Player p : players) {
@@ -216,8 +249,6 @@ public class Main {
                         break rounds;
                     }
 
-                    GameBoard.increaseTurnCount();
-
                     if (showGUI) {
                         try {
                             panel.updateGUI(p);
@@ -229,7 +260,7 @@ public class Main {
                         currentMove = p.request();
                         System.out.println(currentMove);
                         board.makeMove(currentMove);
-                        System.out.println("Scores: " + board.getPlayerScoresAsList());
+                        System.out.println("Scores: " + Arrays.toString(board.getPlayerScores(scores)));
                     } catch (Exception e) {
                         e.printStackTrace();
                     }
@@ -250,7 +281,7 @@ public class Main {
                     is a little pause at the end of each turn. The value was experimentally found to work well.
                     */
                     try {
-                        Thread.sleep(200);
+                        clock.pause(200);
                     } catch (InterruptedException e) {
                         System.out.println("Sleep at the end of turn interrupted");
                         e.printStackTrace();
@@ -261,10 +292,15 @@ public class Main {
             /*
             Calculating the winner in order to show the winner graphic at the end.
              */
+            board.getPlayerScores(scores);
+            int argmax = 0;
+            for (int i = 1; i < numplayers; i++) {
+                if (scores[i] > scores[argmax]) {  //The first player with the highest score wins
+                    argmax = i;
+                }
+            }
+            int maxScore = scores[argmax];
             ImmutableList<Integer> finalScores = new ImmutableList<>(board.getPlayerScoresAsList());
-
-            Integer maxScore = Collections.max(finalScores);
-            int argmax = finalScores.indexOf(maxScore);
             Player winningPlayer = players.get(argmax);
             String winnerName = null;
             try {
@@ -340,29 +376,6 @@ public class Main {
 
         return socket;
     }
-
-    /**
-     * A helper method to generate a {@link GameConfiguration} from an XML configuration file and a {@link GameConfigurationParser}.
-     * @param configParser The {@link GameConfigurationParser} to be used here.
-     * @param configFile The XML game configuration file.
-     * @return The {@link GameConfiguration}.
-     */
-    private static GameConfiguration getConfig(GameConfigurationParser configParser, File configFile) {
-        GameConfiguration config = null;
-
-        try {
-            if (configFile == null) {
-                config = configParser.parse(new File("src/main/ressources/bauernhof.xml"));
-            } else {
-                config = configParser.parse(configFile);
-            }
-        } catch (GameConfigurationException | IOException e) {
-            System.out.println("Could not obtain config from ConfigParser");
-            e.printStackTrace();
-        }
-
-        return config;
-    }
 }
 
 //}
@@ -0,0 +1,456 @@
+package bauernhof.main;
+
+import bauernhof.gameboard.GameBoard;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import bauernhof.player.AlphaBetaAIPlayer;
+import bauernhof.player.BasicPlayer;
+import bauernhof.player.GreedyAIPlayer;
+import bauernhof.player.RandomAIPlayer;
+import bauernhof.player.RealTimeClock;
+import bauernhof.preset.ImmutableList;
+import bauernhof.preset.Move;
+import bauernhof.preset.Player;
+import bauernhof.preset.card.Card;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless entry point playing many games between AI players at once, e.g. on a build server without a display.
+ * Unlike {@link Main} it never touches the GUI: No sag or window classes are loaded, which is also why the
+ * {@link bauernhof.preset.ArgumentParser} of the preset (holding the player colors) is not used. Only the colors of the
+ * cards in the preset are AWT colors, so AWT runs in headless mode.
+ * The games are played on a pool of worker threads, every worker keeps its own statistics which are merged at the end.
+ * Every game has its own random numbers seeded from the master seed and the number of the game, so the results do not
+ * depend on the number of workers and a single game can be replayed by giving its seed to {@link Main}.
+ * The players are given by their {@link bauernhof.preset.PlayerType} or by the class name of any {@link Player}
+ * with a public constructor taking the player name and possibly a delay.
+ */
+public class Tournament {
+
+    /**
+     * Number of rounds after which a game ends at the latest, as in {@link Main}.
+     */
+    private static final int MAX_ROUNDS = 30;
+
+    /**
+     * Default number of games.
+     */
+    private static final int DEFAULT_GAMES = 1000;
+
+    /**
+     * Main method running a tournament.
+     * @param args The command line arguments, see {@link Tournament#createOptions()}.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Options options = createOptions();
+        CommandLine line;
+        try {
+            line = new DefaultParser().parse(options, args);
+        } catch (ParseException e) {
+            System.out.println(e.getMessage());
+            new HelpFormatter().printHelp("Tournament", options);
+            return;
+        }
+        if (line.hasOption("help")) {
+            new HelpFormatter().printHelp("Tournament", options);
+            return;
+        }
+
+        int games;
+        int workers;
+        long scoreTableLimit;
+        long seed;
+        long searchTime;
+        try {
+            games = Integer.parseInt(line.getOptionValue("games", String.valueOf(DEFAULT_GAMES)));
+            workers = Integer.parseInt(line.getOptionValue("workers", String.valueOf(Runtime.getRuntime().availableProcessors())));
+            scoreTableLimit = Long.parseLong(line.getOptionValue("scoreTableLimit", String.valueOf(FarmArgumentParser.DEFAULT_SCORE_TABLE_LIMIT)));
+            seed = line.hasOption("seed") ? Long.parseLong(line.getOptionValue("seed")) : new SplittableRandom().nextLong();
+            searchTime = Long.parseLong(line.getOptionValue("searchTime", String.valueOf(AlphaBetaAIPlayer.DEFAULT_TIME_BUDGET)));
+        } catch (NumberFormatException e) {
+            System.out.println("Not a number: " + e.getMessage());
+            return;
+        }
+        if (games < 1 || workers < 1 || scoreTableLimit < 0 || searchTime < 0) {
+            System.out.println("The number of games and workers has to be positive, the score table limit and the search time non-negative");
+            return;
+        }
+        List<String> playerSpecs = line.hasOption("players")
+                ? Arrays.asList(line.getOptionValues("players")) : Arrays.asList("RANDOM_AI", "RANDOM_AI");
+
+        GameConfiguration config = GameSetup.getConfig(new GameConfigurationParser(),
+                line.hasOption("config") ? new File(line.getOptionValue("config")) : null);
+        if (config == null) {
+            return;
+        }
+        if (scoreTableLimit > 0) {
+            GameSetup.installScoreTable(config, scoreTableLimit);
+        }
+
+        //Creating one set of players up front, so misspelled players are reported before any game is played.
+        try {
+            createPlayers(playerSpecs, searchTime, new SplittableRandom(seed));
+        } catch (Exception e) {
+            System.out.println("Could not create players: " + e.getMessage());
+            return;
+        }
+
+        Statistics statistics = run(config, playerSpecs, searchTime, games, workers, seed);
+
+        if (line.hasOption("output")) {
+            try (PrintStream out = new PrintStream(line.getOptionValue("output"), "UTF-8")) {
+                statistics.print(out, playerSpecs, workers, seed);
+            } catch (FileNotFoundException | UnsupportedEncodingException e) {
+                System.out.println("Could not write statistics: " + e.getMessage());
+            }
+        }
+        statistics.print(System.out, playerSpecs, workers, seed);
+    }
+
+    /**
+     * Plays all games of a tournament on a pool of worker threads.
+     * @param config The configuration of the games.
+     * @param playerSpecs The players, see {@link Tournament#createPlayer(String, String, long, SplittableRandom)}.
+     * @param searchTime The time (in milliseconds) an {@code ADVANCED_AI} searches for each move.
+     * @param games The number of games.
+     * @param workers The number of worker threads.
+     * @param seed The master seed.
+     * @return The merged statistics of all games.
+     */
+    static Statistics run(GameConfiguration config, List<String> playerSpecs, long searchTime, int games, int workers, long seed) {
+        //The games are handed out one at a time, so a slow game does not hold up the other workers.
+        AtomicInteger nextGame = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<Statistics>> results = new ArrayList<>(workers);
+        long start = System.nanoTime();
+        for (int w = 0; w < workers; w++) {
+            results.add(pool.submit(() -> {
+                Statistics statistics = new Statistics(playerSpecs.size());
+                for (int game = nextGame.getAndIncrement(); game < games; game = nextGame.getAndIncrement()) {
+                    long gameSeed = gameSeed(seed, game);
+                    try {
+                        statistics.add(playGame(config, playerSpecs, searchTime, new SplittableRandom(gameSeed)));
+                    } catch (Exception e) {
+                        if (statistics.failedGames++ == 0) {   //Only the first failure of every worker is shown
+                            System.out.println("Game " + game + " failed, replay it with seed " + gameSeed);
+                            e.printStackTrace();
+                        }
+                    }
+                }
+                return statistics;
+            }));
+        }
+        pool.shutdown();
+
+        Statistics total = new Statistics(playerSpecs.size());
+        for (Future<Statistics> result : results) {
+            try {
+                total.merge(result.get());
+            } catch (Exception e) {
+                System.out.println("Worker failed");
+                e.printStackTrace();
+            }
+        }
+        total.nanos = System.nanoTime() - start;
+        return total;
+    }
+
+    /**
+     * Calculates the seed of a game from the master seed, so every game gets an independent stream of random numbers
+     * no matter which worker plays it.
+     * @param seed The master seed.
+     * @param game The number of the game.
+     * @return The seed of the game.
+     */
+    static long gameSeed(long seed, int game) {
+        return new SplittableRandom(seed + game).nextLong();
+    }
+
+    /**
+     * Plays a single game without GUI and without pauses, following the same rules as {@link Main}.
+     * Local players read the board of the game instead of replicating it and verify the game at the end.
+     * The random numbers are used exactly like in {@link Main}, so {@link Main} replays the game with the same seed.
+     * @param config The configuration of the game.
+     * @param playerSpecs The players.
+     * @param searchTime The time (in milliseconds) an {@code ADVANCED_AI} searches for each move.
+     * @param random The random numbers of the game.
+     * @return The final scores indexed by the player id - 1.
+     * @throws Exception If a player cannot be created, makes an illegal move or cannot verify the game.
+     */
+    static int[] playGame(GameConfiguration config, List<String> playerSpecs, long searchTime, SplittableRandom random) throws Exception {
+        int numplayers = playerSpecs.size();
+        int numCardsPerPlayerHand = config.getNumCardsPerPlayerHand();
+
+        List<Card> baseDrawPile = GameSetup.shuffleCards(config, random);
+        ImmutableList<Card> initialDrawPile = new ImmutableList<>(baseDrawPile);
+        GameBoard board = new GameBoard(numplayers,
+                new ArrayList<>(baseDrawPile.subList(numplayers * numCardsPerPlayerHand, baseDrawPile.size())), config);
+
+        List<Player> players = createPlayers(playerSpecs, searchTime, random);
+        for (int i = 0; i < numplayers; i++) {
+            Player p = players.get(i);
+            if (p instanceof BasicPlayer) {
+                ((BasicPlayer) p).shareBoard(board);
+                ((BasicPlayer) p).setReportVerification(false);
+            }
+            p.init(config, initialDrawPile, numplayers, i + 1);
+            board.setPlayerCards(i + 1, new ArrayList<>(baseDrawPile.subList(i * numCardsPerPlayerHand, (i + 1) * numCardsPerPlayerHand)));
+        }
+
+        rounds:
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            for (Player p : players) {
+                if (board.getDiscardPile().getSize() == config.getNumDepositionAreaSlots()) {
+                    break rounds;
+                }
+                Move move = p.request();
+                board.makeMove(move);
+                for (Player oP : players) {
+                    if (oP != p) {
+                        oP.update(move);
+                    }
+                }
+            }
+        }
+
+        ImmutableList<Integer> finalScores = new ImmutableList<>(board.getPlayerScoresAsList());
+        for (Player p : players) {
+            p.verifyGame(finalScores);
+        }
+        return board.getPlayerScores(new int[numplayers]);
+    }
+
+    /**
+     * Creates a new set of players for a game.
+     * @param playerSpecs The players.
+     * @param searchTime The time (in milliseconds) an {@code ADVANCED_AI} searches for each move.
+     * @param random The random numbers of the game, the random AI players get streams split off it.
+     * @return The players in the order of their ids.
+     * @throws Exception If a player cannot be created.
+     */
+    private static List<Player> createPlayers(List<String> playerSpecs, long searchTime, SplittableRandom random) throws Exception {
+        List<Player> players = new ArrayList<>(playerSpecs.size());
+        for (int i = 0; i < playerSpecs.size(); i++) {
+            players.add(createPlayer(playerSpecs.get(i), "Player " + (i + 1), searchTime, random));
+        }
+        return players;
+    }
+
+    /**
+     * Creates a player from its description. AI player types are played without delay, {@code HUMAN} and
+     * {@code REMOTE} players cannot take part.
+     * @param spec Either the name of a {@link bauernhof.preset.PlayerType} or the class name of a {@link Player}
+     *             with a public constructor taking the player name (and possibly the delay, which is 0).
+     * @param name The name of the player.
+     * @param searchTime The time (in milliseconds) an {@code ADVANCED_AI} searches for each move.
+     * @param random The random numbers of the game.
+     * @return The player.
+     * @throws Exception If the player cannot be created.
+     */
+    private static Player createPlayer(String spec, String name, long searchTime, SplittableRandom random) throws Exception {
+        switch (spec) {
+            case "RANDOM_AI":
+                return new RandomAIPlayer(name, 0, random.split());
+            case "SIMPLE_AI":
+                return new GreedyAIPlayer(name, 0);
+            case "ADVANCED_AI":
+                return new AlphaBetaAIPlayer(name, 0, searchTime, new RealTimeClock());
+            case "HUMAN":
+            case "REMOTE":
+                throw new IllegalArgumentException("Only AI players can take part in a tournament, not " + spec);
+            default:
+                Class<?> playerClass = Class.forName(spec);
+                if (!Player.class.isAssignableFrom(playerClass)) {
+                    throw new IllegalArgumentException(spec + " is not a Player");
+                }
+                try {
+                    return (Player) playerClass.getConstructor(String.class).newInstance(name);
+                } catch (NoSuchMethodException e) {
+                    return (Player) playerClass.getConstructor(String.class, long.class).newInstance(name, 0L);
+                }
+        }
+    }
+
+    /**
+     * Helper method defining the command line options.
+     * @return The options.
+     */
+    private static Options createOptions() {
+        Options options = new Options();
+        options.addOption(Option.builder("c").longOpt("config").hasArg().argName("FILE")
+                .desc("The game configuration (default: " + GameSetup.DEFAULT_CONFIG_FILE + ").").build());
+        options.addOption(Option.builder("p").longOpt("players").hasArgs().argName("PLAYER")
+                .desc("The players in the order of their ids: RANDOM_AI, SIMPLE_AI, ADVANCED_AI or the class name of a Player (default: two RANDOM_AI).").build());
+        options.addOption(Option.builder("g").longOpt("games").hasArg().argName("M")
+                .desc("The number of games (default: " + DEFAULT_GAMES + ").").build());
+        options.addOption(Option.builder("w").longOpt("workers").hasArg().argName("N")
+                .desc("The number of worker threads (default: number of processors).").build());
+        options.addOption(Option.builder("o").longOpt("output").hasArg().argName("FILE")
+                .desc("Also write the statistics into a file.").build());
+        options.addOption(Option.builder("stl").longOpt("scoreTableLimit").hasArg().argName("LIMIT")
+                .desc("Precompute the score of every hand if there are at most LIMIT different hands (default: "
+                        + FarmArgumentParser.DEFAULT_SCORE_TABLE_LIMIT + ", 0 = off).").build());
+        options.addOption(Option.builder("s").longOpt("seed").hasArg().argName("SEED")
+                .desc("The master seed of the random numbers of all games (default: random).").build());
+        options.addOption(Option.builder("st").longOpt("searchTime").hasArg().argName("MILLIS")
+                .desc("The time an ADVANCED_AI searches for each move; Its moves depend on the speed of the machine (default: "
+                        + AlphaBetaAIPlayer.DEFAULT_TIME_BUDGET + ").").build());
+        options.addOption(Option.builder("h").longOpt("help").desc("Show this help.").build());
+        return options;
+    }
+
+    /**
+     * The aggregated results of a number of games.
+     */
+    static final class Statistics {
+
+        /**
+         * The number of finished games.
+         */
+        private long games;
+
+        /**
+         * The number of games that were aborted by an exception.
+         */
+        private long failedGames;
+
+        /**
+         * The number of games in which more than one player had the highest score.
+         */
+        private long sharedWins;
+
+        /**
+         * The wins indexed by the player id - 1; As in {@link Main} the first player with the highest score wins.
+         */
+        private final long[] wins;
+
+        /**
+         * The sums of the final scores indexed by the player id - 1.
+         */
+        private final long[] scoreSums;
+
+        /**
+         * The lowest final scores indexed by the player id - 1.
+         */
+        private final int[] minScores;
+
+        /**
+         * The highest final scores indexed by the player id - 1.
+         */
+        private final int[] maxScores;
+
+        /**
+         * The time all games took in nanoseconds.
+         */
+        private long nanos;
+
+        /**
+         * Constructor for empty statistics.
+         * @param numplayers The number of players per game.
+         */
+        Statistics(int numplayers) {
+            this.wins = new long[numplayers];
+            this.scoreSums = new long[numplayers];
+            this.minScores = new int[numplayers];
+            this.maxScores = new int[numplayers];
+            Arrays.fill(minScores, Integer.MAX_VALUE);
+            Arrays.fill(maxScores, Integer.MIN_VALUE);
+        }
+
+        /**
+         * Adds the result of a game.
+         * @param scores The final scores indexed by the player id - 1.
+         */
+        void add(int[] scores) {
+            int argmax = 0;
+            for (int i = 0; i < scores.length; i++) {
+                if (scores[i] > scores[argmax]) {
+                    argmax = i;
+                }
+                scoreSums[i] += scores[i];
+                minScores[i] = Math.min(minScores[i], scores[i]);
+                maxScores[i] = Math.max(maxScores[i], scores[i]);
+            }
+            for (int i = argmax + 1; i < scores.length; i++) {
+                if (scores[i] == scores[argmax]) {
+                    sharedWins++;
+                    break;
+                }
+            }
+            wins[argmax]++;
+            games++;
+        }
+
+        /**
+         * Adds the results of other statistics.
+         * @param other The other statistics.
+         */
+        void merge(Statistics other) {
+            games += other.games;
+            failedGames += other.failedGames;
+            sharedWins += other.sharedWins;
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                scoreSums[i] += other.scoreSums[i];
+                minScores[i] = Math.min(minScores[i], other.minScores[i]);
+                maxScores[i] = Math.max(maxScores[i], other.maxScores[i]);
+            }
+        }
+
+        /**
+         * Describes the results of the games, i.e. everything except the time they took.
+         * @return The number of games, failed games and shared wins and the wins and scores of every player.
+         */
+        String describeResults() {
+            return "games: " + games + ", failed: " + failedGames + ", shared wins: " + sharedWins
+                    + ", wins: " + Arrays.toString(wins) + ", score sums: " + Arrays.toString(scoreSums)
+                    + ", min scores: " + Arrays.toString(minScores) + ", max scores: " + Arrays.toString(maxScores);
+        }
+
+        /**
+         * Calculates how fast the games were played.
+         * @return The number of finished games per second.
+         */
+        double getGamesPerSecond() {
+            return games / (nanos / 1e9);
+        }
+
+        /**
+         * Prints the statistics as a table.
+         * @param out The stream to print to.
+         * @param playerSpecs The players.
+         * @param workers The number of worker threads.
+         * @param seed The master seed.
+         */
+        void print(PrintStream out, List<String> playerSpecs, int workers, long seed) {
+            double seconds = nanos / 1e9;
+            out.printf("Games: %d (%d failed, %d with a shared highest score), seed: %d, workers: %d, %.2f s, %.1f games/s%n",
+                    games, failedGames, sharedWins, seed, workers, seconds, getGamesPerSecond());
+            out.printf("%-4s %-40s %10s %8s %10s %6s %6s%n", "Id", "Player", "Wins", "Win %", "Mean", "Min", "Max");
+            for (int i = 0; i < wins.length; i++) {
+                out.printf("%-4d %-40s %10d %8.2f %10.2f %6d %6d%n", i + 1, playerSpecs.get(i), wins[i],
+                        games == 0 ? 0.0 : 100.0 * wins[i] / games, games == 0 ? 0.0 : (double) scoreSums[i] / games,
+                        games == 0 ? 0 : minScores[i], games == 0 ? 0 : maxScores[i]);
+            }
+        }
+    }
+}
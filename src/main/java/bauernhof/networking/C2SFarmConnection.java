@@ -2,7 +2,9 @@ package bauernhof.networking;
 
 import bauernhof.gameboard.GameBoard;
 import bauernhof.gui.FarmPanel;
+import bauernhof.player.AlphaBetaAIPlayer;
 import bauernhof.player.BasicPlayer;
+import bauernhof.player.GreedyAIPlayer;
 import bauernhof.player.HumanPlayer;
 import bauernhof.player.RandomAIPlayer;
 import bauernhof.preset.*;
@@ -131,7 +133,7 @@ public class C2SFarmConnection extends C2SConnection {
         List<Card> playerHandsDrawn = new ArrayList<>(initialDrawPile);
         playerHandsDrawn.subList(0, (numplayers * numCardsPerPlayerHand)).clear();
 
-        board = new GameBoard(numplayers, playerHandsDrawn);
+        board = new GameBoard(numplayers, playerHandsDrawn, config);
         players = new ArrayList<>(numplayers);
         SAGFrame frame = new SAGFrame("Grow Man's Sky", 30, 1280, 720);
         panel = new FarmPanel(1600, 900, board, frame, volume);
@@ -150,8 +152,16 @@ public class C2SFarmConnection extends C2SConnection {
                         player = new RandomAIPlayer(playerName, delay);
                         players.add(player);
                         break;
+                    case SIMPLE_AI:
+                        player = new GreedyAIPlayer(playerName, delay);
+                        players.add(player);
+                        break;
+                    case ADVANCED_AI:
+                        player = new AlphaBetaAIPlayer(playerName, delay);
+                        players.add(player);
+                        break;
                     default:
-                        throw new UnsupportedOperationException("Clients can only use PlayerTypes HUMAN or RANDOM_AI");
+                        throw new UnsupportedOperationException("Clients can only use PlayerTypes HUMAN, RANDOM_AI, SIMPLE_AI or ADVANCED_AI");
                 }
             }
 
@@ -165,9 +175,10 @@ public class C2SFarmConnection extends C2SConnection {
             board.setPlayerCards(i + 1, initialPlayerHand);
         }
 
-        //Initializing each player.
+        //Initializing each player on the main GameBoard of the client, which is verified by the server at the end.
         for (Player p : players) {
             try {
+                ((BasicPlayer) p).shareBoard(board);
                 p.init(config, initialDrawPile, numplayers, players.indexOf(p) + 1);
             } catch (Exception e) {
                 System.out.println("Player initialization problem");
@@ -178,9 +189,6 @@ public class C2SFarmConnection extends C2SConnection {
         //Updating to show the scores even for initial hands.
         board.updateAllPlayerScores();
 
-        //Since player 1 starts and the GameBoard starts its TurnCount at 0.
-        GameBoard.increaseTurnCount();
-
         //Make GUI visible if GUI is supposed to be used.
         if (showGUI) {
             try {
@@ -212,9 +220,6 @@ public class C2SFarmConnection extends C2SConnection {
             System.out.println(myMove);
             board.makeMove(myMove);
             System.out.println("Scores: " + board.getPlayerScoresAsList());
-
-            //Increase turn count after each request.
-            GameBoard.increaseTurnCount();
             guiUpdate();
             return myMove;
         } catch (Exception e) {
@@ -243,7 +248,6 @@ public class C2SFarmConnection extends C2SConnection {
             e.printStackTrace();
             throw new RemoteException(e.getMessage(), e.toString(), connection.getLocalSocketAddress());
         }
-        GameBoard.increaseTurnCount();
 
         guiUpdate();
     }
@@ -0,0 +1,553 @@
+package bauernhof.player;
+
+import bauernhof.gameboard.GameBoard;
+import bauernhof.gameboard.IntArray;
+import bauernhof.gameboard.PackedMove;
+import bauernhof.gameboard.SwapEvaluator;
+import bauernhof.preset.GameConfiguration;
+import bauernhof.preset.ImmutableList;
+import bauernhof.preset.Move;
+
+import java.util.Arrays;
+
+/**
+ * A class corresponding to {@link bauernhof.preset.PlayerType#ADVANCED_AI} to enable playing against an AI which looks
+ * ahead several moves.
+ * Every player knows the whole shuffled draw pile from {@link BasicPlayer#init(GameConfiguration, ImmutableList, int, int)},
+ * so the game has perfect information and the moves can be searched exactly. The AI searches a copy of the board with
+ * alpha-beta pruning over its own moves: A position is worth the own score minus the best score of the other players.
+ * The other players are expected to make the move giving them the highest score right away, like the
+ * {@link GreedyAIPlayer}, instead of the move which is worst for the AI: Assuming that all other players play together
+ * against the AI made it give up good plans in games with more than two players, and predicting a single move for them
+ * lets the search look much deeper. The search deepens iteratively until the time budget of the move is used up and
+ * remembers the searched positions in a transposition table keyed by the Zobrist hash of the board. The moves of a
+ * position are tried in the order of the score they give the moving player right away, which a {@link SwapEvaluator}
+ * calculates for all moves taking the same card at once; The best move of the table is tried first.
+ */
+public class AlphaBetaAIPlayer extends BasicPlayer {
+
+    /**
+     * The time (in milliseconds) the AI searches for a move if no other time is given.
+     */
+    public static final long DEFAULT_TIME_BUDGET = 1000;
+
+    /**
+     * The number of rounds after which the game ends, as in {@link bauernhof.main.Main}.
+     */
+    private static final int MAX_ROUNDS = 30;
+
+    /**
+     * The deepest search in plies; Deeper than the longest game with 2 players.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * The fewest bits of the index into the transposition table, which has 2^bits entries.
+     */
+    private static final int MIN_TABLE_BITS = 10;
+
+    /**
+     * The most bits of the index into the transposition table; 2^18 entries take about 4.5 MB.
+     */
+    private static final int MAX_TABLE_BITS = 18;
+
+    /**
+     * About the number of positions searched per millisecond, as measured by the {@code AIPlayerBenchmark}.
+     * The transposition table gets about one entry per position the time budget allows.
+     */
+    private static final long NODES_PER_MILLI = 1024;
+
+    /**
+     * The number of nodes searched between two looks at the clock.
+     */
+    private static final int CHECK_INTERVAL = 256;
+
+    /**
+     * Depth stored in the table for positions searched to the end of the game in every line, whose values hold for
+     * any depth.
+     */
+    private static final byte SOLVED = Byte.MAX_VALUE;
+
+    /**
+     * Multiplier mixing the turn count into the keys of the table, because the same cards on the same places are worth
+     * something else when fewer turns are left.
+     */
+    private static final long TURN_KEY = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Packed move standing for no move, as every packed move including {@code PackedMove.of(0, 0)} may be legal.
+     */
+    private static final int NO_MOVE = -1;
+
+    /**
+     * Bound of a table entry: The stored value is exact.
+     */
+    private static final byte EXACT = 0;
+
+    /**
+     * Bound of a table entry: The value is at least the stored value.
+     */
+    private static final byte LOWER = 1;
+
+    /**
+     * Bound of a table entry: The value is at most the stored value.
+     */
+    private static final byte UPPER = 2;
+
+    /**
+     * The time (in milliseconds) the AI player should wait after choosing a move, so the human in front of the screen
+     * can follow along better. Handed over by the {@link bauernhof.preset.ArgumentParser} through the -d flag.
+     */
+    private final long delay;
+
+    /**
+     * The time (in milliseconds) the AI searches for a move.
+     */
+    private final long timeBudget;
+
+    /**
+     * The clock of the game, used for the pause of {@link AlphaBetaAIPlayer#delay}. The search itself always runs in
+     * real time, as a {@link VirtualClock} would never let the time budget run out.
+     */
+    private final GameClock clock;
+
+    /**
+     * The number of bits of the index into the transposition table, chosen from the time budget.
+     */
+    private final int tableBits;
+
+    /**
+     * The keys of the positions in the transposition table, 0 for empty entries.
+     */
+    private final long[] tableKeys;
+
+    /**
+     * The values of the positions in the transposition table.
+     */
+    private final int[] tableValues;
+
+    /**
+     * The best packed moves of the positions in the transposition table.
+     */
+    private final int[] tableMoves;
+
+    /**
+     * The depths the positions in the transposition table were searched to.
+     */
+    private final byte[] tableDepths;
+
+    /**
+     * The bounds of the values in the transposition table, see {@link AlphaBetaAIPlayer#EXACT}.
+     */
+    private final byte[] tableBounds;
+
+    /**
+     * The legal moves of every ply of the search, reused for every move.
+     */
+    private final IntArray[] moveBuffers = new IntArray[MAX_DEPTH + 1];
+
+    /**
+     * The order of the legal moves of every ply of the search, reused for every move.
+     */
+    private final int[][] orderBuffers = new int[MAX_DEPTH + 1][];
+
+    /**
+     * Scores the outcomes of taking a card for the move order, created when the first move is chosen.
+     */
+    private SwapEvaluator evaluator;
+
+    /**
+     * The card ids of the hand of the moving player, reused for every node.
+     */
+    private int[] handIds = new int[16];
+
+    /**
+     * The scores of putting down each card of the hand or the taken card, reused for every node.
+     */
+    private int[] swapScores = new int[17];
+
+    /**
+     * The copy of the board searched for the current move.
+     */
+    private GameBoard board;
+
+    /**
+     * The id of the player, which maximizes the value of the positions.
+     */
+    private int playerId;
+
+    /**
+     * The turn after which the game on {@link AlphaBetaAIPlayer#board} ends at the latest.
+     */
+    private int lastTurn;
+
+    /**
+     * The time (from {@link System#nanoTime()}) at which the search of the current move has to stop.
+     */
+    private long deadline;
+
+    /**
+     * Whether the search of the current move ran out of time.
+     */
+    private boolean aborted;
+
+    /**
+     * Whether the search stopped at a position before the end of the game, in the current iteration or below the current node.
+     */
+    private boolean depthLimited;
+
+    /**
+     * The best packed move at the root of the last completed iteration, {@link AlphaBetaAIPlayer#NO_MOVE} before.
+     */
+    private int rootMove;
+
+    /**
+     * The number of positions searched for the last move.
+     */
+    private long nodes;
+
+    /**
+     * The depth (in plies) of the last completed iteration of the last move.
+     */
+    private int completedDepth;
+
+    /**
+     * The time (in nanoseconds) the search of the last move took.
+     */
+    private long searchNanos;
+
+    /**
+     * Constructor for the {@link AlphaBetaAIPlayer} searching for {@link AlphaBetaAIPlayer#DEFAULT_TIME_BUDGET} and
+     * pausing in real time.
+     * @param playername The name of the player.
+     * @param delay The time the AI should wait after choosing a move.
+     */
+    public AlphaBetaAIPlayer(String playername, long delay) {
+        this(playername, delay, DEFAULT_TIME_BUDGET, new RealTimeClock());
+    }
+
+    /**
+     * Constructor for the {@link AlphaBetaAIPlayer}.
+     * @param playername The name of the player.
+     * @param delay The time the AI should wait after choosing a move.
+     * @param timeBudget The time (in milliseconds) the AI searches for a move, which also sizes the transposition table.
+     * @param clock The clock of the game, see {@link GameClock}.
+     */
+    public AlphaBetaAIPlayer(String playername, long delay, long timeBudget, GameClock clock) {
+        super(playername);
+        this.delay = delay;
+        this.timeBudget = timeBudget;
+        this.clock = clock;
+        //Short searches, e.g. in tournaments creating new players for every game, do not need the largest table.
+        long positions = Math.max(1, Math.min(timeBudget, 1L << MAX_TABLE_BITS) * NODES_PER_MILLI);
+        this.tableBits = Math.max(MIN_TABLE_BITS, Math.min(MAX_TABLE_BITS, 64 - Long.numberOfLeadingZeros(positions - 1)));
+        this.tableKeys = new long[1 << tableBits];
+        this.tableValues = new int[1 << tableBits];
+        this.tableMoves = new int[1 << tableBits];
+        this.tableDepths = new byte[1 << tableBits];
+        this.tableBounds = new byte[1 << tableBits];
+    }
+
+    /**
+     * Used to let the AI make the best move it finds within its time budget.
+     * @return The move the AI just made.
+     * @throws Exception If the player has not yet been initialized (see also {@link BasicPlayer#init(GameConfiguration, ImmutableList, int, int)}).
+     */
+    @Override
+    public Move request() throws Exception {
+        if (!(getInitialized())) {
+            throw new UninitializedPlayerException("request can only be called by an initialized player");
+        }
+
+        //Same as in HumanPlayer
+        if ((getPlayerboard().getTurnCount() % getNumplayers()) != getPlayerid() % getNumplayers()) {
+            throw new UnsupportedOperationException("request can only be called by the current player");
+        }
+
+        Move myMove = chooseMove();
+        recordOwnMove(myMove);
+
+        //Pause so the player realizes the AI made its move.
+        clock.pause(delay);
+
+        return myMove;
+    }
+
+    /**
+     * Chooses the best move for the player in the current position without making it. The search deepens one ply at
+     * a time and returns the best move of the deepest completed iteration, so at least a one ply search is always
+     * completed even if the time budget is used up before.
+     * @return The best move.
+     * @throws UninitializedPlayerException If the player has not been initialized.
+     * @throws IllegalStateException If the draw pile and the discard pile are both empty.
+     */
+    public Move chooseMove() throws UninitializedPlayerException {
+        if (!(getInitialized())) {
+            throw new UninitializedPlayerException("chooseMove can only be called by an initialized player");
+        }
+
+        long start = System.nanoTime();
+        board = getPlayerboard().toGameState().toGameBoard();
+        if (evaluator == null) {
+            evaluator = new SwapEvaluator(board.getScoringEngine());
+        }
+        playerId = getPlayerid();
+        lastTurn = MAX_ROUNDS * board.getNumOfPlayers();
+        deadline = start + timeBudget * 1_000_000L;
+        aborted = false;
+        nodes = 0;
+        completedDepth = 0;
+        rootMove = NO_MOVE;
+
+        int bestMove = NO_MOVE;
+        int maxDepth = Math.min(MAX_DEPTH, lastTurn - board.getTurnCount() + 1);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            depthLimited = false;
+            search(depth, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            if (aborted && depth > 1) {
+                break;
+            }
+            bestMove = rootMove;
+            completedDepth = depth;
+            //Every line was searched to the end of the game, so deeper iterations give the same result.
+            if (!depthLimited) {
+                break;
+            }
+        }
+        searchNanos = System.nanoTime() - start;
+        if (bestMove == NO_MOVE) {
+            throw new IllegalStateException("The player has no legal move");
+        }
+        return PackedMove.toMove(bestMove, board.getScoringEngine());
+    }
+
+    /**
+     * Get the number of positions searched for the last move
+     * @return The number of positions.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Get the depth of the last completed iteration of the last move
+     * @return The depth in plies.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Get the time the search of the last move took
+     * @return The time in nanoseconds.
+     */
+    public long getSearchNanos() {
+        return searchNanos;
+    }
+
+    /**
+     * Get the number of entries of the transposition table
+     * @return The number of entries.
+     */
+    public int getTableSize() {
+        return tableKeys.length;
+    }
+
+    /**
+     * Clears the transposition table, e.g. to measure searches independent of each other.
+     */
+    public void clearTable() {
+        Arrays.fill(tableKeys, 0L);
+    }
+
+    /**
+     * Helper method searching the position on the board with alpha-beta pruning. The player maximizes the value, the
+     * other players make the move giving them the highest score right away, see {@link AlphaBetaAIPlayer#orderMoves}.
+     * Moves are made and taken back on the board, which is in the same position afterwards.
+     * @param depth The remaining depth in plies.
+     * @param ply The distance to the root.
+     * @param alpha The value the player is already guaranteed.
+     * @param beta The value the other players are already guaranteed.
+     * @return The value of the position, or 0 if the search ran out of time.
+     */
+    private int search(int depth, int ply, int alpha, int beta) {
+        if (++nodes % CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        //The first iteration is always completed, so there is a move to return.
+        if (aborted && completedDepth > 0) {
+            return 0;
+        }
+        if (isGameOver()) {
+            return evaluate();
+        }
+        if (depth == 0) {
+            depthLimited = true;
+            return evaluate();
+        }
+
+        //Look up the position, whose value may already be known well enough.
+        long key = key();
+        int index = index(key);
+        int tableMove = NO_MOVE;
+        if (tableKeys[index] == key) {
+            tableMove = tableMoves[index];
+            if (tableDepths[index] >= depth && ply > 0) {
+                int value = tableValues[index];
+                byte bound = tableBounds[index];
+                if (bound == EXACT || (bound == LOWER && value >= beta) || (bound == UPPER && value <= alpha)) {
+                    if (tableDepths[index] != SOLVED) {
+                        depthLimited = true;
+                    }
+                    return value;
+                }
+            }
+        }
+
+        boolean maximizing = board.calculateCurrentPlayerId() == playerId;
+        IntArray moves = orderMoves(ply, maximizing ? tableMove : NO_MOVE);
+        if (moves.size() == 0) {
+            return evaluate();
+        }
+        //The other players are expected to make their first move, which gives them the highest score.
+        int count = maximizing ? moves.size() : 1;
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        int best = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        int bestMove = moves.get(0);
+        boolean outerLimited = depthLimited;
+        depthLimited = false;
+        for (int i = 0; i < count; i++) {
+            int move = moves.get(i);
+            int token;
+            try {
+                token = board.apply(move);
+            } catch (IllegalMoveException e) {
+                throw new IllegalStateException("Generated move is illegal", e);
+            }
+            int value = search(depth - 1, ply + 1, alpha, beta);
+            board.undo(token);
+            if (aborted && completedDepth > 0) {
+                return 0;
+            }
+            if (maximizing ? value > best : value < best) {
+                best = value;
+                bestMove = move;
+            }
+            if (maximizing) {
+                alpha = Math.max(alpha, value);
+            } else {
+                beta = Math.min(beta, value);
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        //Always replace the entry, as the newer position is more likely to be searched again soon.
+        tableKeys[index] = key;
+        tableValues[index] = best;
+        tableMoves[index] = bestMove;
+        tableDepths[index] = depthLimited ? (byte) depth : SOLVED;
+        tableBounds[index] = best <= originalAlpha ? UPPER : best >= originalBeta ? LOWER : EXACT;
+        depthLimited |= outerLimited;
+        if (ply == 0) {
+            rootMove = bestMove;
+        }
+        return best;
+    }
+
+    /**
+     * Helper method writing the legal moves of the position on the board into the buffer of a ply, in the order in
+     * which they are searched: The move of the transposition table first, then the moves giving the moving player the
+     * highest score right away. Moves with the same score keep the order of {@link GameBoard#generateMoves(IntArray)}.
+     * @param ply The distance to the root.
+     * @param tableMove The best move stored in the transposition table or {@link AlphaBetaAIPlayer#NO_MOVE} if there is none.
+     * @return The ordered moves.
+     */
+    private IntArray orderMoves(int ply, int tableMove) {
+        if (moveBuffers[ply] == null) {
+            moveBuffers[ply] = new IntArray();
+            orderBuffers[ply] = new int[64];
+        }
+        IntArray moves = moveBuffers[ply];
+        int count = board.generateMoves(moves);
+        if (orderBuffers[ply].length < count) {
+            orderBuffers[ply] = new int[count];
+        }
+        int[] order = orderBuffers[ply];
+
+        //The moves come grouped by the taken card, each group putting down the cards of the hand in the order of their ids and then the taken card.
+        long[] hand = board.getPlayerHand(board.calculateCurrentPlayerId()).getBits();
+        int size = 0;
+        for (int word = 0; word < hand.length; word++) {
+            for (long bits = hand[word]; bits != 0; bits &= bits - 1) {
+                if (size == handIds.length) {
+                    handIds = Arrays.copyOf(handIds, 2 * size);
+                    swapScores = new int[2 * size + 1];
+                }
+                handIds[size++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        for (int group = 0; group < count; group += size + 1) {
+            evaluator.scoreSwaps(handIds, size, PackedMove.getTaken(moves.get(group)), swapScores);
+            System.arraycopy(swapScores, 0, order, group, size + 1);
+        }
+
+        //Insertion sort, as there are only a few dozen moves.
+        for (int i = 0; i < count; i++) {
+            int move = moves.get(i);
+            int score = move == tableMove ? Integer.MAX_VALUE : order[i];
+            int j = i;
+            while (j > 0 && order[j - 1] < score) {
+                order[j] = order[j - 1];
+                moves.set(j, moves.get(j - 1));
+                j--;
+            }
+            order[j] = score;
+            moves.set(j, move);
+        }
+        return moves;
+    }
+
+    /**
+     * Helper method checking whether the game on the board is over, like the game loop of {@link bauernhof.main.Main}.
+     * @return Whether the game is over.
+     */
+    private boolean isGameOver() {
+        return board.getTurnCount() > lastTurn
+                || board.getDiscardPile().getSize() == board.getConfiguration().getNumDepositionAreaSlots();
+    }
+
+    /**
+     * Helper method evaluating the position on the board for the player.
+     * @return The score of the player minus the highest score of the other players.
+     */
+    private int evaluate() {
+        int best = Integer.MIN_VALUE;
+        for (int id = 1; id <= board.getNumOfPlayers(); id++) {
+            if (id != playerId) {
+                best = Math.max(best, board.getPlayerScore(id));
+            }
+        }
+        return board.getPlayerScore(playerId) - best;
+    }
+
+    /**
+     * Helper method calculating the key of the position on the board in the transposition table.
+     * @return The key, which is never 0.
+     */
+    private long key() {
+        long key = board.getHash() + board.getTurnCount() * TURN_KEY;
+        return key == 0 ? 1 : key;
+    }
+
+    /**
+     * Helper method calculating the index of a key in the transposition table.
+     * @param key The key.
+     * @return The index.
+     */
+    private int index(long key) {
+        return (int) (key >>> (64 - tableBits));
+    }
+}
@@ -1,6 +1,9 @@
 package bauernhof.player;
 
 import bauernhof.gameboard.GameBoard;
+import bauernhof.gameboard.GameBoardView;
+import bauernhof.gameboard.PackedMove;
+import bauernhof.gameboard.Zobrist;
 import bauernhof.preset.GameConfiguration;
 import bauernhof.preset.ImmutableList;
 import bauernhof.preset.Move;
@@ -40,14 +43,36 @@ public class BasicPlayer implements Player {
     private int numplayers;
 
     /**
-     * The {@link GameBoard} of the player used to keep track of the game logic and verify the game at the end.
+     * The replicated {@link GameBoard} of the player used to keep track of the game logic and verify the game at the end.
+     * Stays null if the player shares the authoritative board of the game, see {@link BasicPlayer#shareBoard(GameBoard)}.
      */
     private GameBoard playerboard;
 
     /**
-     * A counter to ensure that update only gets called once per round per player.
+     * The authoritative {@link GameBoard} of the game if the player runs in the same process, null otherwise.
+     * The player never makes moves on it, the owner of the board does.
      */
-    private int updatedCounter = -1;
+    private GameBoard sharedBoard;
+
+    /**
+     * The read-only view through which the player reads either its own or the shared board.
+     */
+    private GameBoardView boardView;
+
+    /**
+     * The rolling hash of all moves the player was told about, compared to the board at the end of the game.
+     */
+    private long moveHash = 0;
+
+    /**
+     * The turn of the last update when sharing the board, to ensure that update only gets called once per turn.
+     */
+    private int updatedTurn = 0;
+
+    /**
+     * Flag to print a message when the scores were verified, off for games played without anyone watching.
+     */
+    private boolean reportVerification = true;
 
 
     /**
@@ -72,10 +97,58 @@ public class BasicPlayer implements Player {
     protected int getNumplayers() { return numplayers; }
 
     /**
-     * Getter for the player board {@link BasicPlayer#playerboard}.
-     * @return The player's own GameBoard.
+     * Getter for the read-only view on the board of the player, see also {@link BasicPlayer#boardView}.
+     * @return The view on the player's own GameBoard or on the shared board.
+     */
+    protected GameBoardView getPlayerboard() { return boardView; }
+
+    /**
+     * Lets the player read the authoritative board of a local game instead of replicating it. The owner of the board
+     * makes every move on it, the player only verifies its own moves against it and compares the hash of all moves at
+     * the end of the game. Has to be called before {@link BasicPlayer#init(GameConfiguration, ImmutableList, int, int)}.
+     * @param board The authoritative board of the game.
+     * @throws UnsupportedOperationException If the player has already been initialized.
+     */
+    public void shareBoard(GameBoard board) throws UnsupportedOperationException {
+        if (this.getInitialized()) {
+            throw new UnsupportedOperationException("The board can only be shared before the player is initialized");
+        }
+        this.sharedBoard = board;
+    }
+
+    /**
+     * Sets whether the player prints a message when it has verified the scores at the end of a game, see
+     * {@link BasicPlayer#verifyGame(ImmutableList)}. A failed verification is always reported by an exception.
+     * @param reportVerification True to print the message (default), false to verify silently.
      */
-    protected GameBoard getPlayerboard() { return playerboard; }
+    public void setReportVerification(boolean reportVerification) {
+        this.reportVerification = reportVerification;
+    }
+
+    /**
+     * Records a move of the player itself before it is returned by request. The move is made on the player's own board,
+     * or only verified if the board is shared as the owner of the board makes it.
+     * @param myMove The move the player makes.
+     * @throws IllegalMoveException If the move is illegal.
+     */
+    protected void recordOwnMove(Move myMove) throws IllegalMoveException {
+        int turn = boardView.getTurnCount();
+        if (playerboard != null) {
+            playerboard.makeMove(myMove);
+        } else {
+            sharedBoard.verifyMove(myMove);
+        }
+        foldMove(turn, myMove);
+    }
+
+    /**
+     * Helper method adding a move to the rolling hash of all moves, see also {@link BasicPlayer#moveHash}.
+     * @param turn The turn in which the move was made.
+     * @param move The move.
+     */
+    private void foldMove(int turn, Move move) {
+        moveHash = Zobrist.foldMove(moveHash, turn, PackedMove.of(move, boardView.getScoringEngine()));
+    }
 
     /**
      * Getter for {@link BasicPlayer#playername}. Can be called at any time, even before
@@ -117,43 +190,50 @@ public class BasicPlayer implements Player {
 
     /**
      * Updates the player's {@link BasicPlayer#playerboard} to include a move another player made. Can only be called
-     * on another player's turn and if so only once.
+     * on another player's turn and if so only once, since the move ends that turn on the player's board.
+     * If the player shares the board, the owner of the board has already made the move and it is only recorded.
      * @param opponentMove The move the opponent just made.
-     * @throws Exception If the player has not been initialized, it's the player's own turn, or the player has already been
-     * updated this turn.
+     * @throws Exception If the player has not been initialized, it's the player's own turn, or the move is illegal
+     * on the player's board.
      */
     @Override
     public void update(Move opponentMove) throws Exception {
+        if (!(this.getInitialized())) {
+            throw new UninitializedPlayerException("Player needs to be initialized first");
+        }
+
+        //A shared board has already moved on to the next turn.
+        int turn = playerboard != null ? playerboard.getTurnCount() : boardView.getTurnCount() - 1;
+
         /*
         Since the game is cyclical in nature, the remainder of the turn count divided by the number of players will be the
         player ID of the player whose turn it is. Since the highest player ID is equal to the number of players, we need the
         remainder on the right side as well as 0 = numplayers (mod numplayers) but the logical operator "==" does not
         understand congruence classes.
          */
-        if ((GameBoard.getTurnCount() % numplayers) == (playerid % numplayers)) {
+        if ((turn % numplayers) == (playerid % numplayers)) {
             throw new UnsupportedOperationException("update() can only be called for players other than the current player");
         }
 
-        if (!(this.getInitialized())) {
-            throw new UninitializedPlayerException("Player needs to be initialized first");
-        }
-
-        /*
-        Upon successfully updating the player's GameBoard, the update counter is set to the turn counter to signalize that
-        the player has already been updated. Since only one update is allowed, an exception is thrown on the second try.
-         */
-        if (updatedCounter == GameBoard.getTurnCount()) {
-            throw new UnsupportedOperationException("update() can only be called once per turn per player");
-        }
-
-        //The actual update.
-        try {
-            playerboard.makeMove(opponentMove);
-            updatedCounter = GameBoard.getTurnCount();
-        } catch (IllegalMoveException e) {
-            e.printStackTrace();
-            throw e;
+        if (playerboard == null) {
+            //The shared board is not changed by the player, so a second update in the same turn is caught here.
+            if (updatedTurn == turn) {
+                throw new UnsupportedOperationException("update() can only be called once per turn per player");
+            }
+            updatedTurn = turn;
+        } else {
+            /*
+            The actual update. Making the move also ends the turn on the player's board, so calling update a second time
+            with the same move is rejected by the board.
+             */
+            try {
+                playerboard.makeMove(opponentMove);
+            } catch (IllegalMoveException e) {
+                e.printStackTrace();
+                throw e;
+            }
         }
+        foldMove(turn, opponentMove);
     }
 
     /**
@@ -167,7 +247,7 @@ public class BasicPlayer implements Player {
             throw new UninitializedPlayerException("Player needs to be initialized first");
         }
 
-        return playerboard.getPlayerScore(playerid);
+        return boardView.getPlayerScore(playerid);
     }
 
     /**
@@ -182,13 +262,22 @@ public class BasicPlayer implements Player {
             throw new UninitializedPlayerException("Game can only be verified by an initialized player");
         }
 
-        List<Integer> testscores = playerboard.getPlayerScoresAsList();
+        List<Integer> testscores = boardView.getPlayerScoresAsList();
         for (int i = 0; i < scores.size(); i++) {
             if (scores.get(i).compareTo(testscores.get(i)) != 0) {
                 throw new ScoreDiscrepancyException("Scores could not be verified by player: " + playername);
             }
         }
-        System.out.println("Scores successfully verified by player: " + playername);
+        /*
+        The board must have made exactly the moves the player was told about. For a shared board this replaces the
+        comparison with a replicated board, since the scores are read from the very same board.
+         */
+        if (moveHash != boardView.getMoveHash()) {
+            throw new ScoreDiscrepancyException("Moves could not be verified by player: " + playername);
+        }
+        if (reportVerification) {
+            System.out.println("Scores successfully verified by player: " + playername);
+        }
     }
 
     /**
@@ -211,6 +300,12 @@ public class BasicPlayer implements Player {
         this.numplayers = numplayers;
         this.playerid = playerid;
 
+        //Players in the same process as the authoritative board only read it.
+        if (sharedBoard != null) {
+            boardView = new GameBoardView(sharedBoard);
+            return;
+        }
+
         /*
         If every player draws numCardsPerPlayerHand many cards before the start of the first round, that means the player's
         GameBoard needs to start with a draw pile of size initialDrawPile.size() - numplayers * numCardsPerPlayerHand.
@@ -219,7 +314,7 @@ public class BasicPlayer implements Player {
         int numCardsPerPlayerHand = config.getNumCardsPerPlayerHand();
         drawPile.subList(0, (numplayers * numCardsPerPlayerHand)).clear();
 
-        playerboard = new GameBoard(numplayers, drawPile);
+        playerboard = new GameBoard(numplayers, drawPile, config);
 
         /*
         Each player draws numCardsPerPlayerHand many cards from the draw pile in the beginning. Hence, each individual player's
@@ -240,6 +335,6 @@ public class BasicPlayer implements Player {
              */
             playerboard.setPlayerCards(j + 1, initialPlayerHand);
         }
-
+        boardView = new GameBoardView(playerboard);
     }
 }
\ No newline at end of file
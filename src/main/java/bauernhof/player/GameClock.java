@@ -0,0 +1,22 @@
+package bauernhof.player;
+
+/**
+ * The clock of a game, used for all pauses that only exist so a human in front of the screen can follow the game.
+ * The {@link RealTimeClock} actually waits, the {@link VirtualClock} only counts the time and returns instantly, so
+ * simulations are not slowed down by the pauses.
+ */
+public interface GameClock {
+
+    /**
+     * Pauses the game.
+     * @param millis The length of the pause in milliseconds; Nothing happens for 0 or less.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    void pause(long millis) throws InterruptedException;
+
+    /**
+     * Gets the time of the clock.
+     * @return The time in milliseconds.
+     */
+    long currentTimeMillis();
+}
@@ -0,0 +1,145 @@
+package bauernhof.player;
+
+import bauernhof.gameboard.GameBoardView;
+import bauernhof.gameboard.ScoringEngine;
+import bauernhof.gameboard.SwapEvaluator;
+import bauernhof.preset.GameConfiguration;
+import bauernhof.preset.ImmutableList;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+
+import java.util.List;
+
+/**
+ * A class corresponding to {@link bauernhof.preset.PlayerType#SIMPLE_AI} to enable playing against an AI which always
+ * makes the move that gives it the highest score right away.
+ * Every card that can be taken (the top card of the draw pile or any card of the discard pile) is combined with every
+ * card that can be put down. All outcomes of taking one card are scored at once by a {@link SwapEvaluator} on the card
+ * ids of the hand, so a move is chosen within microseconds without copying any cards.
+ */
+public class GreedyAIPlayer extends BasicPlayer {
+
+    /**
+     * The time (in milliseconds) the AI player should wait after choosing a move, so the human in front of the screen
+     * can follow along better. Handed over by the {@link bauernhof.preset.ArgumentParser} through the -d flag.
+     */
+    private final long delay;
+
+    /**
+     * The clock of the game, used for the pause of {@link GreedyAIPlayer#delay}.
+     */
+    private final GameClock clock;
+
+    /**
+     * Scores the outcomes of taking a card, created when the first move is chosen.
+     */
+    private SwapEvaluator evaluator;
+
+    /**
+     * The card ids of the hand, reused for every move.
+     */
+    private int[] handIds = new int[16];
+
+    /**
+     * The scores of putting down each card of the hand or the taken card, reused for every move.
+     */
+    private int[] scores = new int[17];
+
+    /**
+     * Constructor for the {@link GreedyAIPlayer} pausing in real time.
+     * @param playername The name of the player.
+     * @param delay The time the AI should wait after choosing a move.
+     */
+    public GreedyAIPlayer(String playername, long delay) {
+        this(playername, delay, new RealTimeClock());
+    }
+
+    /**
+     * Constructor for the {@link GreedyAIPlayer}.
+     * @param playername The name of the player.
+     * @param delay The time the AI should wait after choosing a move.
+     * @param clock The clock of the game, see {@link GameClock}.
+     */
+    public GreedyAIPlayer(String playername, long delay, GameClock clock) {
+        super(playername);
+        this.delay = delay;
+        this.clock = clock;
+    }
+
+    /**
+     * Used to let the AI make the move with the highest score.
+     * @return The move the AI just made.
+     * @throws Exception If the player has not yet been initialized (see also {@link BasicPlayer#init(GameConfiguration, ImmutableList, int, int)}).
+     */
+    @Override
+    public Move request() throws Exception {
+        if (!(getInitialized())) {
+            throw new UninitializedPlayerException("request can only be called by an initialized player");
+        }
+
+        //Same as in HumanPlayer
+        if ((getPlayerboard().getTurnCount() % getNumplayers()) != getPlayerid() % getNumplayers()) {
+            throw new UnsupportedOperationException("request can only be called by the current player");
+        }
+
+        Move myMove = chooseMove();
+        recordOwnMove(myMove);
+
+        //Pause so the player realizes the AI made its move.
+        clock.pause(delay);
+
+        return myMove;
+    }
+
+    /**
+     * Chooses the move with the highest score for the player in the current position without making it. Of several
+     * moves with the same score the first one is chosen, taking the top card of the draw pile before the cards of the
+     * discard pile and putting down the cards of the hand in their order before the taken card.
+     * @return The best move.
+     * @throws UninitializedPlayerException If the player has not been initialized.
+     * @throws IllegalStateException If the draw pile and the discard pile are both empty.
+     */
+    public Move chooseMove() throws UninitializedPlayerException {
+        if (!(getInitialized())) {
+            throw new UninitializedPlayerException("chooseMove can only be called by an initialized player");
+        }
+
+        GameBoardView board = getPlayerboard();
+        ScoringEngine engine = board.getScoringEngine();
+        if (evaluator == null) {
+            evaluator = new SwapEvaluator(engine);
+        }
+
+        List<Card> hand = board.getPlayerPile(getPlayerid());
+        int size = hand.size();
+        if (handIds.length < size) {
+            handIds = new int[size];
+            scores = new int[size + 1];
+        }
+        for (int i = 0; i < size; i++) {
+            handIds[i] = engine.getId(hand.get(i));
+        }
+
+        List<Card> drawPile = board.getDrawPile();
+        List<Card> discardPile = board.getDiscardPile();
+        int bestScore = Integer.MIN_VALUE;
+        Card bestTaken = null;
+        Card bestDeposited = null;
+        //Candidate -1 is the top card of the draw pile, the others are the cards of the discard pile.
+        for (int candidate = drawPile.isEmpty() ? 0 : -1; candidate < discardPile.size(); candidate++) {
+            Card taken = candidate < 0 ? drawPile.get(0) : discardPile.get(candidate);
+            evaluator.scoreSwaps(handIds, size, engine.getId(taken), scores);
+            for (int i = 0; i <= size; i++) {
+                if (scores[i] > bestScore) {
+                    bestScore = scores[i];
+                    bestTaken = taken;
+                    bestDeposited = i < size ? hand.get(i) : taken;
+                }
+            }
+        }
+        if (bestTaken == null) {
+            throw new IllegalStateException("The player has no legal move");
+        }
+        return new Move(bestTaken, bestDeposited);
+    }
+}
@@ -1,6 +1,5 @@
 package bauernhof.player;
 
-import bauernhof.gameboard.GameBoard;
 import bauernhof.gui.FarmPanel;
 import bauernhof.preset.GameConfiguration;
 import bauernhof.preset.ImmutableList;
@@ -45,7 +44,7 @@ public class HumanPlayer extends BasicPlayer {
         Same logic as in update in BasicPlayer. Just this time we want it to be the player's turn.
          */
         try {//getPlayerid() might throw an exception
-            if ((GameBoard.getTurnCount() % getNumplayers()) != getPlayerid() % getNumplayers()) {
+            if ((getPlayerboard().getTurnCount() % getNumplayers()) != getPlayerid() % getNumplayers()) {
                 throw new UnsupportedOperationException("request can only be called by the current player");
             }
             else {
@@ -69,8 +68,8 @@ public class HumanPlayer extends BasicPlayer {
                 }
                 //Getting the move that was just made from the GUI.
                 Move myMove = guiAccess.requestMoveFromCurrentHumanPlayer();
-                //Handing the move on to the player's GameBoard first, so it gets recorded before being returned.
-                this.getPlayerboard().makeMove(myMove);
+                //Recording the move on the player's GameBoard first (or verifying it against the shared board) before it is returned.
+                this.recordOwnMove(myMove);
                 return myMove;
             }
         } catch (UninitializedPlayerException e) {
@@ -6,6 +6,8 @@ import bauernhof.preset.Move;
 import bauernhof.gameboard.*;
 import bauernhof.preset.card.Card;
 
+import java.util.SplittableRandom;
+
 /**
  * A class corresponding to {@link bauernhof.preset.PlayerType#RANDOM_AI} to enable playing
  * agains a randomly drawing and discarding AI.
@@ -20,13 +22,47 @@ public class RandomAIPlayer extends BasicPlayer{
     private final long delay;
 
     /**
-     * Constructor for the {@link RandomAIPlayer}.
+     * The random numbers of the player. Every player has its own stream split off the random numbers of the game, so
+     * players of games running in parallel do not contend on one shared generator and a game can be replayed from its seed.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * The clock of the game, used for the pauses of {@link RandomAIPlayer#delay}.
+     */
+    private final GameClock clock;
+
+    /**
+     * Constructor for the {@link RandomAIPlayer} with random numbers that cannot be replayed, pausing in real time.
      * @param playername The name of the player.
      * @param delay The time the AI should wait between drawing and discarding cards.
      */
     public RandomAIPlayer(String playername, long delay) {
+        this(playername, delay, new SplittableRandom());
+    }
+
+    /**
+     * Constructor for the {@link RandomAIPlayer} pausing in real time.
+     * @param playername The name of the player.
+     * @param delay The time the AI should wait between drawing and discarding cards.
+     * @param random The random numbers of the player, usually split off the random numbers of the game.
+     */
+    public RandomAIPlayer(String playername, long delay, SplittableRandom random) {
+        this(playername, delay, random, new RealTimeClock());
+    }
+
+    /**
+     * Constructor for the {@link RandomAIPlayer}.
+     * @param playername The name of the player.
+     * @param delay The time the AI should wait between drawing and discarding cards.
+     * @param random The random numbers of the player, usually split off the random numbers of the game.
+     * @param clock The clock of the game, see {@link GameClock}.
+     */
+    public RandomAIPlayer(String playername, long delay, SplittableRandom random, GameClock clock) {
         super(playername);
         this.delay = delay;
+        this.random = random;
+        this.clock = clock;
     }
 
     /**
@@ -42,44 +78,44 @@ public class RandomAIPlayer extends BasicPlayer{
 
         //Same as in HumanPlayer
         try {
-            if ((GameBoard.getTurnCount() % getNumplayers()) != getPlayerid() % getNumplayers()) {
+            if ((getPlayerboard().getTurnCount() % getNumplayers()) != getPlayerid() % getNumplayers()) {
                 throw new UnsupportedOperationException("request can only be called by the current player");
             } else {
-                GameBoard playerboard = getPlayerboard();
+                GameBoardView playerboard = getPlayerboard();
                 //Deciding whether to draw from discard or draw pile, given that there are cards in the discard pile.
-                boolean drawFromDiscardPile = (Math.random() > 0.5 && playerboard.getDiscardPile().getSize() > 0);
+                boolean drawFromDiscardPile = (random.nextBoolean() && playerboard.getDiscardPile().size() > 0);
 
                 //First time waiting so the player realizes it's the AI's turn.
-                Thread.sleep(delay);
+                clock.pause(delay);
 
                 Card taken;
                 if (drawFromDiscardPile) {
                     //Pick a random card from the discard pile and draw it.
-                    int randDraw = (int) (playerboard.getDiscardPile().getSize() * Math.random());
-                    taken = playerboard.getDiscardPile().lookAt(randDraw);
+                    int randDraw = random.nextInt(playerboard.getDiscardPile().size());
+                    taken = playerboard.getDiscardPile().get(randDraw);
                 }
                 else {//Only the first card from the draw pile can be drawn.
-                    taken = playerboard.getDrawPile().lookAt(0);
+                    taken = playerboard.getDrawPile().get(0);
                 }
 
                 //Another short pause.
-                Thread.sleep(delay);
+                clock.pause(delay);
 
                 Card deposited;
-                if (Math.random() < 0.1){ //Randomly discarding the card that was just drawn.
+                if (random.nextInt(10) == 0){ //Randomly discarding the card that was just drawn.
                     deposited = taken;
                 }
                 else { //Alternatively discarding a card from the hand.
-                    int randDiscard = (int) (playerboard.getPlayerPile(getPlayerid()).getSize() * Math.random());
-                    deposited = playerboard.getPlayerPile(getPlayerid()).lookAt(randDiscard);
+                    int randDiscard = random.nextInt(playerboard.getPlayerPile(getPlayerid()).size());
+                    deposited = playerboard.getPlayerPile(getPlayerid()).get(randDiscard);
                 }
 
-                //Making the move on the player board.
+                //Recording the move, which makes it on the player board unless the board is shared.
                 Move myMove = new Move(taken, deposited);
-                playerboard.makeMove(myMove);
+                recordOwnMove(myMove);
 
                 //Final pause.
-                Thread.sleep(delay);
+                clock.pause(delay);
 
                 return myMove;
             }
@@ -0,0 +1,28 @@
+package bauernhof.player;
+
+/**
+ * A {@link GameClock} following the wall clock, used when the game is shown in the GUI.
+ */
+public class RealTimeClock implements GameClock {
+
+    /**
+     * Waits for the given time.
+     * @param millis The length of the pause in milliseconds; Nothing happens for 0 or less.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    @Override
+    public void pause(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    /**
+     * Gets the wall clock time.
+     * @return The time in milliseconds since the epoch.
+     */
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
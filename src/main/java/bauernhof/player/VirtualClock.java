@@ -0,0 +1,34 @@
+package bauernhof.player;
+
+/**
+ * A {@link GameClock} whose time only moves on when the game pauses, and then instantly. Used to fast-forward games in
+ * simulations, which still know how long the game would have taken in real time.
+ * Every game should have its own virtual clock, since the time is not shared between threads.
+ */
+public class VirtualClock implements GameClock {
+
+    /**
+     * The virtual time in milliseconds, starting with 0.
+     */
+    private long time = 0;
+
+    /**
+     * Moves the virtual time on without waiting.
+     * @param millis The length of the pause in milliseconds; Nothing happens for 0 or less.
+     */
+    @Override
+    public void pause(long millis) {
+        if (millis > 0) {
+            time += millis;
+        }
+    }
+
+    /**
+     * Gets the virtual time, which is the sum of all pauses so far.
+     * @return The time in milliseconds.
+     */
+    @Override
+    public long currentTimeMillis() {
+        return time;
+    }
+}
@@ -0,0 +1,83 @@
+package bauernhof.gameboard;
+
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.preset.card.Card;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Differential test of the {@link BatchScorer} against scoring every hand on its own with the {@link ScoringEngine} and
+ * a {@link HandState}.
+ */
+public class BatchScorerTest {
+
+    /**
+     * Number of hands per batch, not a multiple of any tested chunk size
+     */
+    private static final int HANDS = 1001;
+
+    /**
+     * Scores a packed batch of random hands of every configuration on the calling thread and on a pool, with chunks of
+     * single hands, a few hands, the default size and more hands than the batch
+     *
+     * @throws Exception if a configuration cannot be read
+     */
+    @Test
+    public void batchScoresMatchSingleHands() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String configFile : TestGames.CONFIG_FILES) {
+                GameConfiguration config = TestGames.loadConfig(configFile);
+                ScoringEngine engine = new ScoringEngine(config.getCards());
+                List<Card> cards = TestGames.sortedCards(config);
+                Random random = new Random(9);
+                int words = engine.getNumWords();
+                long[] hands = new long[HANDS * words];
+                int[] expected = new int[HANDS];
+                for (int i = 0; i < HANDS; i++) {
+                    Collections.shuffle(cards, random);
+                    List<Card> hand = new ArrayList<>(cards.subList(0, 1 + random.nextInt(config.getNumCardsPerPlayerHand() + 1)));
+                    engine.fillHand(hand, hands, i * words);
+                    long[] single = engine.newHand();
+                    engine.fillHand(hand, single, 0);
+                    expected[i] = engine.score(single);
+                    assertEquals(configFile + " " + hand, expected[i], new HandState(engine, hand).getScore());
+                }
+
+                for (int chunkSize : new int[]{1, 7, 64, new BatchScorer(engine).getChunkSize(), 2 * HANDS}) {
+                    BatchScorer scorer = new BatchScorer(engine, chunkSize);
+                    int[] scores = new int[HANDS];
+                    scorer.score(hands, scores);
+                    for (int i = 0; i < HANDS; i++) {
+                        assertEquals(configFile + " chunk size " + chunkSize + " hand " + i, expected[i], scores[i]);
+                    }
+                    int[] poolScores = new int[HANDS + 1];
+                    scorer.score(hands, poolScores, pool);
+                    for (int i = 0; i < HANDS; i++) {
+                        assertEquals(configFile + " chunk size " + chunkSize + " hand " + i + " on the pool", expected[i], poolScores[i]);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks that a score array shorter than the batch is rejected
+     *
+     * @throws Exception if the configuration cannot be read
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shortScoreArrayIsRejected() throws Exception {
+        ScoringEngine engine = TestGames.createEngine("bauernhof.xml");
+        new BatchScorer(engine).score(new long[3 * engine.getNumWords()], new int[2]);
+    }
+}
@@ -0,0 +1,116 @@
+package bauernhof.gameboard;
+
+import bauernhof.preset.card.Card;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Test of the {@link DrawPile} backed by an array and the index of its top card.
+ */
+public class DrawPileTest {
+
+    /**
+     * The cards the pile starts with, the first card being the top card
+     */
+    private List<Card> cards;
+
+    /**
+     * Reads the cards of a configuration
+     *
+     * @throws Exception if the configuration cannot be read
+     */
+    @Before
+    public void setUp() throws Exception {
+        this.cards = TestGames.sortedCards(TestGames.loadConfig("bauernhof.xml"));
+    }
+
+    /**
+     * Draws all cards, which have to come in the order of the initial list; The list given to the pile is copied
+     */
+    @Test
+    public void cardsAreDrawnInOrder() {
+        List<Card> initial = new ArrayList<>(this.cards);
+        DrawPile pile = new DrawPile(initial);
+        initial.clear();
+        for (int i = 0; i < this.cards.size(); i++) {
+            assertEquals(this.cards.size() - i, pile.getSize());
+            assertSame(this.cards.get(i), pile.lookAt(0));
+            assertSame(this.cards.get(i), pile.drawCard());
+        }
+        assertEquals(0, pile.getSize());
+        assertNull(pile.drawCard());
+        assertEquals(0, pile.getSize());
+    }
+
+    /**
+     * Checks that the list of the pile is a view which shows every draw without being fetched again
+     */
+    @Test
+    public void listIsViewOfRemainingCards() {
+        DrawPile pile = new DrawPile(this.cards);
+        List<Card> view = pile.getList();
+        pile.drawCard();
+        pile.drawCard();
+        assertSame(view, pile.getList());
+        assertEquals(this.cards.subList(2, this.cards.size()), view);
+        assertSame(this.cards.get(2), view.get(0));
+        assertFalse(view.contains(this.cards.get(0)));
+        try {
+            view.add(this.cards.get(0));
+            fail("The view must be read-only");
+        } catch (UnsupportedOperationException e) {
+            //Expected
+        }
+    }
+
+    /**
+     * Checks that taking back draws puts the drawn cards on top again, also after the pile was emptied
+     */
+    @Test
+    public void undoDrawRestoresTopCard() {
+        DrawPile pile = new DrawPile(this.cards.subList(0, 3));
+        Card first = pile.drawCard();
+        Card second = pile.drawCard();
+        Card third = pile.drawCard();
+        pile.undoDraw(third);
+        assertEquals(1, pile.getSize());
+        assertSame(third, pile.lookAt(0));
+        pile.undoDraw(second);
+        pile.undoDraw(first);
+        assertEquals(this.cards.subList(0, 3), pile.getList());
+        assertSame(first, pile.drawCard());
+    }
+
+    /**
+     * Shuffles a pile after some draws: The remaining cards are the same cards in some order, the drawn cards stay
+     * drawn and can still be put back on top
+     */
+    @Test
+    public void shuffleKeepsDrawnCardsOut() {
+        DrawPile pile = new DrawPile(this.cards);
+        int drawn = 5;
+        List<Card> drawnCards = new ArrayList<>();
+        for (int i = 0; i < drawn; i++) {
+            drawnCards.add(pile.drawCard());
+        }
+        pile.shuffle();
+        assertEquals(this.cards.size() - drawn, pile.getSize());
+        assertEquals(new HashSet<>(this.cards.subList(drawn, this.cards.size())), new HashSet<>(pile.getList()));
+        for (Card card : drawnCards) {
+            assertFalse(pile.isCardInPile(card));
+        }
+        pile.undoDraw(drawnCards.get(drawn - 1));
+        assertSame(drawnCards.get(drawn - 1), pile.lookAt(0));
+        assertEquals(this.cards.size() - drawn + 1, pile.getSize());
+    }
+}
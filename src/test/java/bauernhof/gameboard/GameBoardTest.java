@@ -0,0 +1,427 @@
+package bauernhof.gameboard;
+
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.player.IllegalMoveException;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test of the moves on a {@link GameBoard}.
+ */
+public class GameBoardTest {
+
+    /**
+     * Number of players of the test games
+     */
+    private static final int NUM_PLAYERS = 3;
+
+    /**
+     * The configuration of the test games
+     */
+    private GameConfiguration config;
+
+    /**
+     * All cards of the configuration sorted by name
+     */
+    private List<Card> cards;
+
+    /**
+     * Reads the configuration
+     *
+     * @throws Exception if the configuration cannot be read
+     */
+    @Before
+    public void setUp() throws Exception {
+        this.config = TestGames.loadConfig("bauernhof.xml");
+        this.cards = TestGames.sortedCards(this.config);
+    }
+
+    /**
+     * Checks single legal and illegal moves and the card locations after them
+     *
+     * @throws Exception if a legal move is rejected
+     */
+    @Test
+    public void illegalMovesAreRejected() throws Exception {
+        GameBoard board = this.createBoard(new Random(1));
+        Card top = board.getDrawPile().lookAt(0);
+        Card second = board.getDrawPile().lookAt(1);
+        Card mine = board.getPlayerPile(1).lookAt(0);
+        Card theirs = board.getPlayerPile(2).lookAt(0);
+
+        board.verifyMove(new Move(top, mine));
+        board.verifyMove(new Move(top, top));
+        this.assertIllegal(board, new Move(second, mine));
+        this.assertIllegal(board, new Move(mine, top));
+        this.assertIllegal(board, new Move(top, theirs));
+        this.assertIllegal(board, new Move(null, mine));
+        this.assertIllegal(board, new Move(top, null));
+
+        board.makeMove(new Move(top, mine));
+        assertEquals(1, board.getCardLocation(top));
+        assertEquals(GameBoard.DISCARD_PILE, board.getCardLocation(mine));
+        board.verifyMove(new Move(mine, theirs));
+        this.assertIllegal(board, new Move(mine, top));
+
+        board.makeMove(new Move(mine, theirs));
+        assertEquals(2, board.getCardLocation(mine));
+        assertEquals(GameBoard.DISCARD_PILE, board.getCardLocation(theirs));
+    }
+
+    /**
+     * Plays random games and checks at every turn for every pair of cards that {@link GameBoard#verifyMove(Move)} agrees
+     * with the rules checked on the card lists of the piles, and that the card locations match the piles
+     *
+     * @throws Exception if a legal move is rejected
+     */
+    @Test
+    public void verifyMoveMatchesPiles() throws Exception {
+        for (int game = 0; game < 10; game++) {
+            Random random = new Random(game);
+            GameBoard board = this.createBoard(random);
+            for (int turn = 0; turn < 30 && board.getDiscardPile().getSize() < this.config.getNumDepositionAreaSlots(); turn++) {
+                List<Card> hand = board.getPlayerPile(board.calculateCurrentPlayerId()).getList();
+                List<Move> legal = new ArrayList<>();
+                for (Card taken : this.cards) {
+                    for (Card deposited : this.cards) {
+                        boolean expected = (board.getDiscardPile().getList().contains(taken)
+                                || (board.getDrawPile().getSize() > 0 && taken.equals(board.getDrawPile().lookAt(0))))
+                                && (taken.equals(deposited) || hand.contains(deposited));
+                        Move move = new Move(taken, deposited);
+                        if (expected) {
+                            board.verifyMove(move);
+                            legal.add(move);
+                        } else {
+                            this.assertIllegal(board, move);
+                        }
+                    }
+                }
+                this.assertLocations(board);
+                board.makeMove(legal.get(random.nextInt(legal.size())));
+            }
+        }
+    }
+
+    /**
+     * Checks that packed moves with card ids outside of the configuration are rejected like unknown cards
+     *
+     * @throws Exception if a legal move is rejected
+     */
+    @Test
+    public void packedMovesOutOfRangeAreRejected() throws Exception {
+        GameBoard board = this.createBoard(new Random(2));
+        int numCards = board.getScoringEngine().getNumCards();
+        int top = board.getScoringEngine().getId(board.getDrawPile().lookAt(0));
+        int mine = board.getScoringEngine().getId(board.getPlayerPile(1).lookAt(0));
+        for (int move : new int[]{PackedMove.of(500, mine), PackedMove.of(numCards, numCards), PackedMove.of(top, numCards), PackedMove.of(top, 500)}) {
+            try {
+                board.makeMove(move);
+                fail("Illegal move accepted: " + PackedMove.getTaken(move) + " / " + PackedMove.getDeposited(move));
+            } catch (IllegalMoveException e) {
+                //Expected
+            }
+            try {
+                board.apply(move);
+                fail("Illegal move applied: " + PackedMove.getTaken(move) + " / " + PackedMove.getDeposited(move));
+            } catch (IllegalMoveException e) {
+                //Expected
+            }
+        }
+        board.makeMove(PackedMove.of(top, mine));
+        assertEquals(1, board.getCardLocation(board.getScoringEngine().getCard(top)));
+    }
+
+    /**
+     * Plays random games and checks at every turn that {@link GameBoard#generateMoves(IntArray)} gives exactly the packed
+     * moves which are accepted by {@link GameBoard#apply(int)}, each of them once
+     *
+     * @throws Exception if a generated move is rejected
+     */
+    @Test
+    public void generatedMovesAreExactlyTheLegalMoves() throws Exception {
+        IntArray moves = new IntArray();
+        for (int game = 0; game < 20; game++) {
+            Random random = new Random(game);
+            GameBoard board = this.createBoard(random);
+            int numCards = board.getScoringEngine().getNumCards();
+            for (int turn = 0; turn < 30 && board.getDiscardPile().getSize() < this.config.getNumDepositionAreaSlots(); turn++) {
+                Set<Integer> generated = new HashSet<>();
+                for (int i = 0; i < board.generateMoves(moves); i++) {
+                    assertTrue("game " + game + " turn " + turn + ": move generated twice", generated.add(moves.get(i)));
+                }
+                Set<Integer> legal = new HashSet<>();
+                for (int takenId = 0; takenId < numCards; takenId++) {
+                    for (int depositedId = 0; depositedId < numCards; depositedId++) {
+                        int move = PackedMove.of(takenId, depositedId);
+                        try {
+                            board.undo(board.apply(move));
+                            legal.add(move);
+                        } catch (IllegalMoveException e) {
+                            //Not a legal move
+                        }
+                    }
+                }
+                assertEquals("game " + game + " turn " + turn, legal, generated);
+                board.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    /**
+     * Makes, takes back and reads the scores of random moves: Every score read has to be the score of the
+     * {@link PointsCalculator} for the hand, and the skipped score calculations have to count every change of a hand
+     * whose score was not read before the hand changed again or the move was taken back
+     *
+     * @throws Exception if a legal move is rejected
+     */
+    @Test
+    public void lazyScoresMatchPointsCalculator() throws Exception {
+        PointsCalculator calculator = new PointsCalculator();
+        for (int game = 0; game < 20; game++) {
+            Random random = new Random(game);
+            GameBoard board = this.createBoard(random);
+            boolean[] dirty = new boolean[NUM_PLAYERS];
+            Arrays.fill(dirty, true);   //Dealing the hands does not calculate the scores
+            Deque<Integer> tokens = new ArrayDeque<>();
+            Deque<Boolean> dirtyBefore = new ArrayDeque<>();
+            long skipped = 0;
+            for (int step = 0; step < 200; step++) {
+                String name = "game " + game + " step " + step;
+                int player = board.calculateCurrentPlayerId();
+                boolean canMove = board.getDrawPile().getSize() > 1
+                        && board.getDiscardPile().getSize() < this.config.getNumDepositionAreaSlots();
+                int action = random.nextInt(4);
+                if (action == 0) {
+                    int id = 1 + random.nextInt(NUM_PLAYERS);
+                    assertEquals(name, calculator.calculatePoints(board.getPlayerPile(id).getList()), board.getPlayerScore(id));
+                    dirty[id - 1] = false;
+                } else if (!tokens.isEmpty() && (action == 1 || !canMove)) {
+                    board.undo(tokens.pop());
+                    int undone = board.calculateCurrentPlayerId();
+                    if (dirty[undone - 1]) {
+                        skipped++;
+                    }
+                    dirty[undone - 1] = dirtyBefore.pop();
+                } else if (canMove) {
+                    dirtyBefore.push(dirty[player - 1]);
+                    tokens.push(board.apply(TestGames.randomMove(board, random)));
+                    if (dirty[player - 1]) {
+                        skipped++;
+                    }
+                    dirty[player - 1] = true;
+                }
+                assertEquals(name, skipped, board.getSkippedScoreComputations());
+            }
+            for (int id = 1; id <= NUM_PLAYERS; id++) {
+                assertEquals(calculator.calculatePoints(board.getPlayerPile(id).getList()), board.getPlayerScore(id));
+            }
+            assertTrue(skipped > 0);
+        }
+    }
+
+    /**
+     * Interleaves the moves of two games with different numbers of players, which must not see each other's turns
+     *
+     * @throws Exception if a legal move is rejected
+     */
+    @Test
+    public void interleavedBoardsCountTurnsIndependently() throws Exception {
+        Random random = new Random(8);
+        GameBoard[] boards = {
+                TestGames.createBoard(this.config, 2, this.shuffle(random)),
+                TestGames.createBoard(this.config, 4, this.shuffle(random))
+        };
+        int[] moves = new int[boards.length];
+        for (int step = 0; step < 60; step++) {
+            int b = random.nextInt(3) == 0 ? 1 : 0;
+            GameBoard board = boards[b];
+            if (board.getDrawPile().getSize() == 0 || board.getDiscardPile().getSize() == this.config.getNumDepositionAreaSlots()) {
+                break;
+            }
+            board.makeMove(TestGames.randomMove(board, random));
+            moves[b]++;
+            for (int i = 0; i < boards.length; i++) {
+                assertEquals("board " + i + " step " + step, moves[i] + 1, boards[i].getTurnCount());
+                assertEquals("board " + i + " step " + step, moves[i] % boards[i].getNumOfPlayers() + 1, boards[i].calculateCurrentPlayerId());
+            }
+        }
+        assertTrue(moves[0] > 0 && moves[1] > 0);
+    }
+
+    /**
+     * Makes and takes back long random sequences of moves and compares the board with a new board on which only the
+     * moves which were not taken back are made
+     *
+     * @throws Exception if a legal move is rejected
+     */
+    @Test
+    public void applyAndUndoMatchReplay() throws Exception {
+        for (int game = 0; game < 100; game++) {
+            Random random = new Random(game);
+            List<Card> deal = this.shuffle(random);
+            GameBoard board = this.createBoard(deal);
+            Deque<Integer> tokens = new ArrayDeque<>();
+            List<Move> moves = new ArrayList<>();
+            for (int step = 0; step < 400; step++) {
+                boolean canMove = board.getDrawPile().getSize() > 0 || board.getDiscardPile().getSize() > 0;
+                if (!tokens.isEmpty() && (!canMove || random.nextInt(3) == 0 || board.getDrawPile().getSize() < 2)) {
+                    board.undo(tokens.pop());
+                    moves.remove(moves.size() - 1);
+                } else {
+                    Move move = TestGames.randomMove(board, random);
+                    tokens.push(board.apply(move));
+                    moves.add(move);
+                }
+                if (step % 7 == 0 || tokens.isEmpty()) {
+                    GameBoard replay = this.createBoard(deal);
+                    for (Move move : moves) {
+                        replay.makeMove(move);
+                    }
+                    assertEquals("game " + game + " step " + step, this.describe(replay), this.describe(board));
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that moves can only be taken back in the reverse order in which they were made, and that no move can be
+     * made for good while applied moves are waiting to be taken back
+     *
+     * @throws Exception if a legal move is rejected
+     */
+    @Test
+    public void undoOutOfOrderIsRejected() throws Exception {
+        List<Card> deal = this.shuffle(new Random(3));
+        GameBoard board = this.createBoard(deal);
+        String before = this.describe(board);
+        int first = board.apply(TestGames.randomMove(board, new Random(4)));
+        int second = board.apply(TestGames.randomMove(board, new Random(5)));
+        try {
+            board.undo(first);
+            fail("The first of two applied moves was undone");
+        } catch (IllegalStateException e) {
+            //Expected
+        }
+        Move move = TestGames.randomMove(board, new Random(6));
+        try {
+            board.makeMove(move);
+            fail("A move was made for good on top of applied moves");
+        } catch (IllegalStateException e) {
+            //Expected
+        }
+        try {
+            board.makeMove(PackedMove.of(move, board.getScoringEngine()));
+            fail("A packed move was made for good on top of applied moves");
+        } catch (IllegalStateException e) {
+            //Expected
+        }
+        board.undo(second);
+        board.undo(first);
+        assertEquals(before, this.describe(board));
+        board.makeMove(TestGames.randomMove(board, new Random(7)));
+    }
+
+    /**
+     * Helper method creating a board with a shuffled deal
+     *
+     * @param random the random numbers of the deal
+     * @return the board
+     */
+    private GameBoard createBoard(Random random) {
+        return this.createBoard(this.shuffle(random));
+    }
+
+    /**
+     * Helper method shuffling all cards
+     *
+     * @param random the random numbers
+     * @return the shuffled cards, the first cards being the hands of the players
+     */
+    private List<Card> shuffle(Random random) {
+        List<Card> deal = new ArrayList<>(this.cards);
+        Collections.shuffle(deal, random);
+        return deal;
+    }
+
+    /**
+     * Helper method creating a board with a given deal
+     *
+     * @param deal the cards, the first cards being the hands of the players
+     * @return the board
+     */
+    private GameBoard createBoard(List<Card> deal) {
+        return TestGames.createBoard(this.config, NUM_PLAYERS, deal);
+    }
+
+    /**
+     * Helper method describing everything visible on a board
+     *
+     * @param board the board
+     * @return the turn, the piles, the scores and the card locations
+     */
+    private String describe(GameBoard board) {
+        StringBuilder description = new StringBuilder();
+        description.append(board.getTurnCount()).append(board.getDrawPile().getList()).append(board.getDiscardPile().getList());
+        for (int id = 1; id <= NUM_PLAYERS; id++) {
+            description.append(board.getPlayerPile(id).getList()).append(board.getPlayerScore(id)).append(board.getPlayerHand(id).getScore());
+        }
+        for (Card card : this.cards) {
+            description.append(board.getCardLocation(card));
+        }
+        return description.toString();
+    }
+
+    /**
+     * Helper method checking that a move is rejected
+     *
+     * @param board the board
+     * @param move  the illegal move
+     */
+    private void assertIllegal(GameBoard board, Move move) {
+        try {
+            board.verifyMove(move);
+            fail("Illegal move accepted: " + move.getTaken() + " / " + move.getDeposited());
+        } catch (IllegalMoveException e) {
+            //Expected
+        }
+    }
+
+    /**
+     * Helper method checking the location of every card against the card lists of the piles
+     *
+     * @param board the board
+     */
+    private void assertLocations(GameBoard board) {
+        for (Card card : this.cards) {
+            int expected = GameBoard.NOWHERE;
+            if (board.getDrawPile().getList().contains(card)) {
+                expected = GameBoard.DRAW_PILE;
+            } else if (board.getDiscardPile().getList().contains(card)) {
+                expected = GameBoard.DISCARD_PILE;
+            }
+            for (int id = 1; id <= NUM_PLAYERS; id++) {
+                if (board.getPlayerPile(id).getList().contains(card)) {
+                    assertEquals(GameBoard.NOWHERE, expected);
+                    expected = id;
+                }
+            }
+            assertEquals(card.getName(), expected, board.getCardLocation(card));
+        }
+    }
+}
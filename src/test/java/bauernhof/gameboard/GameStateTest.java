@@ -0,0 +1,88 @@
+package bauernhof.gameboard;
+
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.player.IllegalMoveException;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Test of the immutable {@link GameState} against a {@link GameBoard} on which the same moves are made.
+ */
+public class GameStateTest {
+
+    /**
+     * Plays random games on a board and on game states at once, converting between both at every turn; Every state of
+     * the history must stay unchanged while the game goes on and other moves are tried from it
+     *
+     * @throws Exception if a legal move is rejected
+     */
+    @Test
+    public void statesMatchBoardAndRoundTrip() throws Exception {
+        for (String configFile : new String[]{"bauernhof.xml", "fr.xml"}) {
+            GameConfiguration config = TestGames.loadConfig(configFile);
+            for (int game = 0; game < 50; game++) {
+                Random random = new Random(game);
+                int numPlayers = 2 + game % 3;
+                List<Card> deal = TestGames.sortedCards(config);
+                Collections.shuffle(deal, random);
+                GameBoard board = TestGames.createBoard(config, numPlayers, deal);
+
+                GameState state = GameState.of(board);
+                List<GameState> history = new ArrayList<>();
+                List<String> descriptions = new ArrayList<>();
+                for (int turn = 0; turn < 60 && board.getDrawPile().getSize() > 1; turn++) {
+                    String name = configFile + " game " + game + " turn " + turn;
+                    history.add(state);
+                    descriptions.add(describe(state));
+                    assertEquals(name, TestGames.describe(board), describe(state));
+                    assertEquals(name, TestGames.describe(board), TestGames.describe(state.toGameBoard()));
+                    assertEquals(name, describe(state), describe(GameState.of(state.toGameBoard())));
+
+                    //Branch off other moves, which must not change the state
+                    for (int k = 0; k < 3; k++) {
+                        state.play(TestGames.randomMove(board, random));
+                    }
+                    CardPile hand = board.getPlayerPile(board.calculateCurrentPlayerId());
+                    try {
+                        state.play(new Move(hand.lookAt(0), hand.lookAt(1)));
+                        fail(name + ": a card of the hand was taken");
+                    } catch (IllegalMoveException e) {
+                        //Expected
+                    }
+
+                    Move move = TestGames.randomMove(board, random);
+                    state = state.play(move);
+                    board.makeMove(move);
+                }
+                for (int i = 0; i < history.size(); i++) {
+                    assertEquals(configFile + " game " + game + " state " + i, descriptions.get(i), describe(history.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method describing a game state like {@link TestGames#describe(GameBoard)} describes a board
+     *
+     * @param state the state
+     * @return the turn, the current player, the piles and the scores
+     */
+    private static String describe(GameState state) {
+        StringBuilder description = new StringBuilder();
+        description.append(state.getTurnCount()).append(state.calculateCurrentPlayerId())
+                .append(state.getDrawPile()).append(state.getDiscardPile());
+        for (int id = 1; id <= state.getNumOfPlayers(); id++) {
+            description.append(state.getPlayerCards(id)).append(state.getPlayerScore(id));
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package bauernhof.gameboard;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the bounded {@link HandScoreCache} and its counters.
+ */
+public class HandScoreCacheTest {
+
+    /**
+     * Number of long words of the test hands, more than one to compare every word
+     */
+    private static final int WORDS = 2;
+
+    /**
+     * Stores many more hands than fit into the cache, each with a score of its own; Looking them up afterwards has to
+     * give either the right score or {@link HandScoreCache#MISSING} for the evicted hands, and the cache never holds
+     * more hands than its capacity
+     */
+    @Test
+    public void evictedHandsAreNeverWrong() {
+        HandScoreCache cache = new HandScoreCache(16, WORDS);
+        assertEquals(16, cache.getCapacity());
+        List<long[]> hands = randomHands(40 * cache.getCapacity(), new Random(1));
+        for (int i = 0; i < hands.size(); i++) {
+            cache.put(hands.get(i), 0, i);
+        }
+
+        int found = 0;
+        for (int i = 0; i < hands.size(); i++) {
+            //Look the hand up at an offset, as the engine does with hands stored next to each other
+            long[] buffer = new long[3 * WORDS];
+            System.arraycopy(hands.get(i), 0, buffer, WORDS, WORDS);
+            int score = cache.get(buffer, WORDS);
+            if (score != HandScoreCache.MISSING) {
+                assertEquals("hand " + i, i, score);
+                found++;
+            }
+        }
+        assertTrue(found > 0);
+        assertTrue(found <= cache.getCapacity());
+        assertEquals(found, cache.getHits());
+        assertEquals(hands.size() - found, cache.getMisses());
+    }
+
+    /**
+     * Checks the hit and miss counters on a scripted sequence of lookups, and that clearing the cache resets them
+     */
+    @Test
+    public void countersFollowLookups() {
+        HandScoreCache cache = new HandScoreCache(64, WORDS);
+        List<long[]> hands = randomHands(2, new Random(2));
+        long[] first = hands.get(0);
+        long[] second = hands.get(1);
+
+        assertEquals(HandScoreCache.MISSING, cache.get(first, 0));
+        cache.put(first, 0, 17);
+        assertEquals(17, cache.get(first, 0));
+        assertEquals(HandScoreCache.MISSING, cache.get(second, 0));
+        cache.put(second, 0, -3);
+        assertEquals(17, cache.get(first, 0));
+        assertEquals(-3, cache.get(second, 0));
+        assertEquals(3, cache.getHits());
+        assertEquals(2, cache.getMisses());
+
+        cache.clear();
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(HandScoreCache.MISSING, cache.get(first, 0));
+        assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * Checks that the capacity is rounded up to a power of two of at least 2
+     */
+    @Test
+    public void capacityIsPowerOfTwo() {
+        assertEquals(2, new HandScoreCache(0, WORDS).getCapacity());
+        assertEquals(2, new HandScoreCache(2, WORDS).getCapacity());
+        assertEquals(8, new HandScoreCache(5, WORDS).getCapacity());
+        assertEquals(1024, new HandScoreCache(1000, WORDS).getCapacity());
+    }
+
+    /**
+     * Helper method creating different random hand bitsets
+     *
+     * @param count  the number of hands
+     * @param random the random numbers
+     * @return the hands
+     */
+    private static List<long[]> randomHands(int count, Random random) {
+        Set<List<Long>> seen = new HashSet<>();
+        List<long[]> hands = new ArrayList<>(count);
+        while (hands.size() < count) {
+            long[] hand = new long[WORDS];
+            List<Long> key = new ArrayList<>(WORDS);
+            for (int w = 0; w < WORDS; w++) {
+                hand[w] = random.nextLong() & random.nextLong();
+                key.add(hand[w]);
+            }
+            if (seen.add(key)) {
+                hands.add(hand);
+            }
+        }
+        return hands;
+    }
+}
@@ -0,0 +1,117 @@
+package bauernhof.gameboard;
+
+import bauernhof.preset.card.Card;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the {@link HandSolver} against a brute force search over all hands of small random pools.
+ */
+public class HandSolverTest {
+
+    /**
+     * Number of random pools per configuration
+     */
+    private static final int POOLS = 40;
+
+    /**
+     * The best score found by the brute force search
+     */
+    private int bestScore;
+
+    /**
+     * Solves random pools of 8 to 15 cards and compares the score with the best hand of a brute force search
+     *
+     * @throws Exception if a configuration cannot be read
+     */
+    @Test
+    public void solverFindsBestHand() throws Exception {
+        for (String configFile : TestGames.CONFIG_FILES) {
+            ScoringEngine engine = TestGames.createEngine(configFile);
+            HandSolver solver = new HandSolver(engine);
+            PointsCalculator calculator = new PointsCalculator();
+            List<Card> cards = this.sortedCards(engine);
+            Random random = new Random(7);
+            for (int pool = 0; pool < POOLS; pool++) {
+                Collections.shuffle(cards, random);
+                int poolSize = 8 + random.nextInt(8);
+                int handSize = 1 + random.nextInt(Math.min(poolSize, 8));
+                List<Card> cardPool = new ArrayList<>(cards.subList(0, poolSize));
+
+                this.bestScore = Integer.MIN_VALUE;
+                this.bruteForce(engine, cardPool, 0, engine.newHand(), handSize);
+                HandSolver.Solution solution = solver.solve(cardPool, handSize);
+
+                String name = configFile + " pool " + cardPool + " hand size " + handSize;
+                assertEquals(name, this.bestScore, solution.getScore());
+                assertEquals(name, handSize, solution.getHand().size());
+                assertTrue(name, cardPool.containsAll(solution.getHand()));
+                assertEquals(name, calculator.calculatePoints(solution.getHand()), solution.getScore());
+                assertTrue(name, solution.isOptimal());
+            }
+        }
+    }
+
+    /**
+     * Solves all cards of a configuration with a short time limit, which has to give a valid hand and a bound not below
+     * its score
+     *
+     * @throws Exception if a configuration cannot be read
+     */
+    @Test
+    public void timeLimitedSolutionIsConsistent() throws Exception {
+        for (String configFile : TestGames.CONFIG_FILES) {
+            ScoringEngine engine = TestGames.createEngine(configFile);
+            List<Card> cards = this.sortedCards(engine);
+            HandSolver.Solution solution = new HandSolver(engine).solve(cards, 7, 50);
+            assertEquals(configFile, 7, solution.getHand().size());
+            assertEquals(configFile, new PointsCalculator().calculatePoints(solution.getHand()), solution.getScore());
+            assertTrue(configFile, solution.getUpperBound() >= solution.getScore());
+        }
+    }
+
+    /**
+     * Helper method listing the cards of an engine in the order of their ids
+     *
+     * @param engine the engine
+     * @return the cards
+     */
+    private List<Card> sortedCards(ScoringEngine engine) {
+        List<Card> cards = new ArrayList<>(engine.getNumCards());
+        for (int id = 0; id < engine.getNumCards(); id++) {
+            cards.add(engine.getCard(id));
+        }
+        cards.sort(Comparator.comparing(Card::getName));
+        return cards;
+    }
+
+    /**
+     * Helper method scoring every hand of a given size from a pool and remembering the best score
+     *
+     * @param engine the engine
+     * @param pool   the pool
+     * @param start  index of the first card of the pool that may still be chosen
+     * @param hand   the bitset of the chosen cards
+     * @param left   number of cards still to be chosen
+     */
+    private void bruteForce(ScoringEngine engine, List<Card> pool, int start, long[] hand, int left) {
+        if (left == 0) {
+            this.bestScore = Math.max(this.bestScore, engine.score(hand));
+            return;
+        }
+        for (int i = start; i <= pool.size() - left; i++) {
+            int id = engine.getId(pool.get(i));
+            hand[id >>> 6] ^= 1L << id;
+            this.bruteForce(engine, pool, i + 1, hand, left - 1);
+            hand[id >>> 6] ^= 1L << id;
+        }
+    }
+}
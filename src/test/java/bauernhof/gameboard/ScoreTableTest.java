@@ -0,0 +1,142 @@
+package bauernhof.gameboard;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the lookups of full and pair {@link ScoreTable}s against scoring the hands with the {@link ScoringEngine}.
+ */
+public class ScoreTableTest {
+
+    /**
+     * Number of random hands per table
+     */
+    private static final int HANDS = 20_000;
+
+    /**
+     * Directory for the cache files
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Looks up random hands in full tables of bauernhof.xml; Hands of another size have no answer
+     *
+     * @throws Exception if the configuration cannot be read
+     */
+    @Test
+    public void fullTableMatchesEngine() throws Exception {
+        ScoringEngine engine = TestGames.createEngine("bauernhof.xml");
+        for (int handSize = 1; handSize <= 3; handSize++) {
+            ScoreTable table = ScoreTable.build(engine, handSize, Long.MAX_VALUE);
+            assertTrue(table.isFull());
+            assertEquals(ScoreTable.binomial(engine.getNumCards(), handSize), table.getNumEntries());
+            Random random = new Random(handSize);
+            for (int i = 0; i < HANDS; i++) {
+                long[] hand = randomHand(engine, handSize, random);
+                assertEquals(engine.score(hand), table.lookup(hand, 0));
+            }
+            assertEquals(HandScoreCache.MISSING, table.lookup(randomHand(engine, handSize + 1, random), 0));
+        }
+    }
+
+    /**
+     * Looks up random hands and swaps in pair tables; Where the table answers, the answer has to be the score of the hand
+     *
+     * @throws Exception if a configuration cannot be read
+     */
+    @Test
+    public void pairTableMatchesEngine() throws Exception {
+        int answered = 0;
+        for (String configFile : TestGames.CONFIG_FILES) {
+            ScoringEngine engine = TestGames.createEngine(configFile);
+            ScoreTable table = ScoreTable.build(engine, 7, 0);
+            assertFalse(table.isFull());
+            Random random = new Random(11);
+            for (int i = 0; i < HANDS; i++) {
+                int handSize = 1 + random.nextInt(7);
+                long[] hand = randomHand(engine, handSize, random);
+                int score = engine.score(hand);
+                int points = table.lookup(hand, 0);
+                if (points != HandScoreCache.MISSING) {
+                    answered++;
+                    assertEquals(configFile, score, points);
+                }
+
+                int out = randomCard(engine, hand, true, random);
+                int in = randomCard(engine, hand, false, random);
+                int swapped = table.scoreAfterSwap(hand, 0, score, out, in);
+                hand[out >>> 6] &= ~(1L << out);
+                hand[in >>> 6] |= 1L << in;
+                if (swapped != HandScoreCache.MISSING) {
+                    answered++;
+                    assertEquals(configFile, engine.score(hand), swapped);
+                }
+            }
+        }
+        assertTrue("The pair tables never answered", answered > 0);
+    }
+
+    /**
+     * Writes a full table to the cache and reads it back, which has to give the same lookups
+     *
+     * @throws Exception if the configuration cannot be read
+     */
+    @Test
+    public void cachedTableIsLoaded() throws Exception {
+        ScoringEngine engine = TestGames.createEngine("bauernhof.xml");
+        File cacheDir = this.folder.getRoot();
+        ScoreTable built = ScoreTable.load(engine, 3, Long.MAX_VALUE, cacheDir);
+        ScoreTable loaded = ScoreTable.load(engine, 3, Long.MAX_VALUE, cacheDir);
+        assertFalse(built.isLoaded());
+        assertTrue(loaded.isLoaded());
+        Random random = new Random(5);
+        for (int i = 0; i < HANDS; i++) {
+            long[] hand = randomHand(engine, 3, random);
+            assertEquals(built.lookup(hand, 0), loaded.lookup(hand, 0));
+        }
+    }
+
+    /**
+     * Helper method choosing a random hand
+     *
+     * @param engine   the engine
+     * @param handSize the number of cards
+     * @param random   the random numbers
+     * @return the bitset of the hand
+     */
+    private static long[] randomHand(ScoringEngine engine, int handSize, Random random) {
+        long[] hand = engine.newHand();
+        for (int k = 0; k < handSize; k++) {
+            int id = randomCard(engine, hand, false, random);
+            hand[id >>> 6] |= 1L << id;
+        }
+        return hand;
+    }
+
+    /**
+     * Helper method choosing a random card inside or outside of a hand
+     *
+     * @param engine the engine
+     * @param hand   the bitset of the hand
+     * @param inside true for a card of the hand, false for a card outside of it
+     * @param random the random numbers
+     * @return the card id
+     */
+    private static int randomCard(ScoringEngine engine, long[] hand, boolean inside, Random random) {
+        while (true) {
+            int id = random.nextInt(engine.getNumCards());
+            if (((hand[id >>> 6] & (1L << id)) != 0) == inside) {
+                return id;
+            }
+        }
+    }
+}
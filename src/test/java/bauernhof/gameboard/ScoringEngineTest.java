@@ -0,0 +1,79 @@
+package bauernhof.gameboard;
+
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.preset.card.Card;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Differential test of the compiled {@link ScoringEngine} against the {@link PointsCalculator} counting on the card
+ * lists directly, on random hands of the configurations shipped with the game.
+ */
+public class ScoringEngineTest {
+
+    /**
+     * Number of random hands per configuration
+     */
+    private static final int HANDS = 3000;
+
+    /**
+     * Compares the scores of random hands of bauernhof.xml
+     *
+     * @throws Exception if the configuration cannot be read
+     */
+    @Test
+    public void bauernhofScoresMatchPointsCalculator() throws Exception {
+        this.compareScores("bauernhof.xml", 1);
+    }
+
+    /**
+     * Compares the scores of random hands of fr.xml
+     *
+     * @throws Exception if the configuration cannot be read
+     */
+    @Test
+    public void frScoresMatchPointsCalculator() throws Exception {
+        this.compareScores("fr.xml", 2);
+    }
+
+    /**
+     * Scores random hands of every size up to one card more than a player holds with the {@link PointsCalculator},
+     * {@link ScoringEngine#score(List)} and {@link HandState#getScore()}, and every swap of a hand card for a card
+     * outside the hand with {@link HandState#scoreAfterSwap(Card, Card)}
+     *
+     * @param configFile the configuration file
+     * @param seed       the seed of the random hands
+     * @throws Exception if the configuration cannot be read
+     */
+    private void compareScores(String configFile, long seed) throws Exception {
+        GameConfiguration config = TestGames.loadConfig(configFile);
+        ScoringEngine engine = new ScoringEngine(config.getCards());
+        PointsCalculator calculator = new PointsCalculator();
+        List<Card> cards = TestGames.sortedCards(config);
+        Random random = new Random(seed);
+
+        for (int i = 0; i < HANDS; i++) {
+            Collections.shuffle(cards, random);
+            int size = 1 + random.nextInt(config.getNumCardsPerPlayerHand() + 1);
+            List<Card> hand = new ArrayList<>(cards.subList(0, size));
+            int expected = calculator.calculatePoints(hand);
+            assertEquals(configFile + " " + hand, expected, engine.score(hand));
+            HandState state = new HandState(engine, hand);
+            assertEquals(configFile + " " + hand, expected, state.getScore());
+
+            Card in = cards.get(size + random.nextInt(cards.size() - size));
+            for (int out = 0; out < size; out++) {
+                List<Card> swapped = new ArrayList<>(hand);
+                swapped.set(out, in);
+                assertEquals(configFile + " " + hand + " -" + hand.get(out) + " +" + in,
+                        calculator.calculatePoints(swapped), state.scoreAfterSwap(hand.get(out), in));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package bauernhof.gameboard;
+
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.preset.card.Card;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Differential test of the {@link SwapEvaluator} against the {@link PointsCalculator} scoring every swapped hand on its
+ * own.
+ */
+public class SwapEvaluatorTest {
+
+    /**
+     * Number of random hands per configuration
+     */
+    private static final int HANDS = 2000;
+
+    /**
+     * Scores random hands of 1 to 12 cards and up to 5 cards to take with both variants of
+     * {@link SwapEvaluator#scoreSwaps}, comparing every outcome with the points of the swapped hand
+     *
+     * @throws Exception if a configuration cannot be read
+     */
+    @Test
+    public void swapsMatchPointsCalculator() throws Exception {
+        for (String configFile : TestGames.CONFIG_FILES) {
+            GameConfiguration config = TestGames.loadConfig(configFile);
+            ScoringEngine engine = new ScoringEngine(config.getCards());
+            SwapEvaluator evaluator = new SwapEvaluator(engine);
+            PointsCalculator calculator = new PointsCalculator();
+            List<Card> cards = TestGames.sortedCards(config);
+            Random random = new Random(3);
+            int[] handIds = new int[12];
+            int[] scores = new int[13];
+
+            for (int i = 0; i < HANDS; i++) {
+                Collections.shuffle(cards, random);
+                int size = 1 + random.nextInt(12);
+                List<Card> hand = new ArrayList<>(cards.subList(0, size));
+                List<Card> incoming = new ArrayList<>(cards.subList(size, size + 1 + random.nextInt(5)));
+                for (int k = 0; k < size; k++) {
+                    handIds[k] = engine.getId(hand.get(k));
+                }
+
+                int[][] rows = evaluator.scoreSwaps(hand, incoming);
+                for (int k = 0; k < incoming.size(); k++) {
+                    evaluator.scoreSwaps(handIds, size, engine.getId(incoming.get(k)), scores);
+                    for (int out = 0; out <= size; out++) {
+                        List<Card> swapped = new ArrayList<>(hand);
+                        if (out < size) {
+                            swapped.set(out, incoming.get(k));
+                        }
+                        int expected = calculator.calculatePoints(swapped);
+                        String name = configFile + " " + hand + " +" + incoming.get(k) + " -" + (out < size ? hand.get(out) : incoming.get(k));
+                        assertEquals(name, expected, rows[k][out]);
+                        assertEquals(name, expected, scores[out]);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package bauernhof.gameboard;
+
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fixtures shared by the tests of the game board: configurations, deals, random moves and descriptions of boards.
+ */
+final class TestGames {
+
+    /**
+     * The configurations shipped with the game
+     */
+    static final String[] CONFIG_FILES = {"bauernhof.xml", "fr.xml", "src/main/ressources/bauernhof.xml"};
+
+    /**
+     * Only static helper methods
+     */
+    private TestGames() {
+    }
+
+    /**
+     * Reads a configuration
+     *
+     * @param configFile the configuration file
+     * @return the configuration
+     * @throws Exception if the configuration cannot be read
+     */
+    static GameConfiguration loadConfig(String configFile) throws Exception {
+        return new GameConfigurationParser().parse(new File(configFile));
+    }
+
+    /**
+     * Creates a scoring engine of its own for a configuration, so the tests do not share the engine of
+     * {@link ScoringEngine#forConfiguration(GameConfiguration)}
+     *
+     * @param configFile the configuration file
+     * @return the engine
+     * @throws Exception if the configuration cannot be read
+     */
+    static ScoringEngine createEngine(String configFile) throws Exception {
+        return new ScoringEngine(loadConfig(configFile).getCards());
+    }
+
+    /**
+     * Lists the cards of a configuration sorted by name, so shuffling them with a seed always gives the same deal
+     *
+     * @param config the configuration
+     * @return the cards
+     */
+    static List<Card> sortedCards(GameConfiguration config) {
+        List<Card> cards = new ArrayList<>(config.getCards());
+        cards.sort(Comparator.comparing(Card::getName));
+        return cards;
+    }
+
+    /**
+     * Creates a board with a given deal
+     *
+     * @param config     the configuration
+     * @param numPlayers the number of players
+     * @param deal       all cards, the first cards being the hands of the players
+     * @return the board
+     */
+    static GameBoard createBoard(GameConfiguration config, int numPlayers, List<Card> deal) {
+        int handSize = config.getNumCardsPerPlayerHand();
+        GameBoard board = new GameBoard(numPlayers, new ArrayList<>(deal.subList(numPlayers * handSize, deal.size())), config);
+        for (int i = 0; i < numPlayers; i++) {
+            board.setPlayerCards(i + 1, new ArrayList<>(deal.subList(i * handSize, (i + 1) * handSize)));
+        }
+        return board;
+    }
+
+    /**
+     * Chooses a random legal move; Either the draw or the discard pile must not be empty
+     *
+     * @param board  the board
+     * @param random the random numbers
+     * @return the move
+     */
+    static Move randomMove(GameBoard board, Random random) {
+        CardPile discardPile = board.getDiscardPile();
+        CardPile hand = board.getPlayerPile(board.calculateCurrentPlayerId());
+        Card taken = (random.nextBoolean() && discardPile.getSize() > 0) || board.getDrawPile().getSize() == 0
+                ? discardPile.lookAt(random.nextInt(discardPile.getSize())) : board.getDrawPile().lookAt(0);
+        Card deposited = random.nextInt(8) == 0 ? taken : hand.lookAt(random.nextInt(hand.getSize()));
+        return new Move(taken, deposited);
+    }
+
+    /**
+     * Describes a board like a {@link GameState}, whose hands are ordered by card id
+     *
+     * @param board the board
+     * @return the turn, the current player, the piles and the scores
+     */
+    static String describe(GameBoard board) {
+        StringBuilder description = new StringBuilder();
+        description.append(board.getTurnCount()).append(board.calculateCurrentPlayerId())
+                .append(board.getDrawPile().getList()).append(board.getDiscardPile().getList());
+        for (int id = 1; id <= board.getNumOfPlayers(); id++) {
+            List<Card> hand = new ArrayList<>(board.getPlayerPile(id).getList());
+            hand.sort(Comparator.comparingInt(board.getScoringEngine()::getId));
+            description.append(hand).append(board.getPlayerScore(id));
+        }
+        return description.toString();
+    }
+
+    /**
+     * Describes what the Zobrist hash of a board stands for
+     *
+     * @param board the board
+     * @return the current player and the location of every card in the order of the card ids
+     */
+    static String describeLocations(GameBoard board) {
+        StringBuilder description = new StringBuilder().append(board.calculateCurrentPlayerId());
+        for (int id = 0; id < board.getScoringEngine().getNumCards(); id++) {
+            description.append(',').append(board.getCardLocation(board.getScoringEngine().getCard(id)));
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package bauernhof.gameboard;
+
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test of the {@link Zobrist} hashes of the positions on a {@link GameBoard}.
+ * The long collision run over millions of playouts is the {@code ZobristBenchmark}.
+ */
+public class ZobristTest {
+
+    /**
+     * Number of playouts per configuration
+     */
+    private static final int PLAYOUTS = 2000;
+
+    /**
+     * Number of playouts from the same deal
+     */
+    private static final int PLAYOUTS_PER_DEAL = 20;
+
+    /**
+     * Plays random games with {@link GameBoard#apply(Move)} and takes them back with {@link GameBoard#undo(int)}:
+     * After every move the incremental hash has to equal the hash calculated from scratch and the hash of the
+     * {@link GameState}, different positions must not share a hash, and taking back all moves restores the first hash
+     *
+     * @throws Exception if a legal move is rejected
+     */
+    @Test
+    public void incrementalHashMatchesFullHash() throws Exception {
+        for (String configFile : new String[]{"bauernhof.xml", "fr.xml"}) {
+            GameConfiguration config = TestGames.loadConfig(configFile);
+            List<Card> cards = TestGames.sortedCards(config);
+            Map<Long, String> positions = new HashMap<>();
+            Random random = new Random(42);
+            int[] tokens = new int[4 * 30];
+
+            for (int playout = 0; playout < PLAYOUTS; ) {
+                int numPlayers = 2 + random.nextInt(3);
+                Collections.shuffle(cards, random);
+                GameBoard board = TestGames.createBoard(config, numPlayers, cards);
+                long rootHash = board.getHash();
+                assertEquals(configFile, fullHash(board, cards), rootHash);
+
+                for (int p = 0; p < PLAYOUTS_PER_DEAL; p++, playout++) {
+                    int depth = 0;
+                    while (depth < 30 * numPlayers && board.getDiscardPile().getSize() < config.getNumDepositionAreaSlots()
+                            && board.getDrawPile().getSize() > 0) {
+                        tokens[depth++] = board.apply(TestGames.randomMove(board, random));
+                        long hash = board.getHash();
+                        assertEquals(configFile, fullHash(board, cards), hash);
+                        assertEquals(configFile, GameState.of(board).getHash(), hash);
+                        String position = TestGames.describeLocations(board);
+                        String previous = positions.putIfAbsent(hash, position);
+                        if (previous != null) {
+                            assertEquals(configFile + " hash collision", previous, position);
+                        }
+                    }
+                    while (depth > 0) {
+                        board.undo(tokens[--depth]);
+                    }
+                    assertEquals(configFile, rootHash, board.getHash());
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method calculating the Zobrist hash of the board from scratch
+     *
+     * @param board the board
+     * @param cards all cards of the configuration
+     * @return the hash
+     */
+    private static long fullHash(GameBoard board, List<Card> cards) {
+        long hash = Zobrist.playerKey(board.calculateCurrentPlayerId());
+        for (Card card : cards) {
+            hash ^= Zobrist.cardKey(board.getScoringEngine().getId(card), board.getCardLocation(card));
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,68 @@
+package bauernhof.main;
+
+import bauernhof.player.RealTimeClock;
+import bauernhof.player.VirtualClock;
+import bauernhof.preset.OptionalFeature;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the flags {@link FarmArgumentParser} adds to the {@link bauernhof.preset.ArgumentParser} of the preset.
+ */
+public class FarmArgumentParserTest {
+
+    /**
+     * Lets AWT run without a display, as the preset parses the player colors
+     */
+    @BeforeClass
+    public static void setUpClass() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    /**
+     * Checks that the virtual clock is only selected with the flag
+     */
+    @Test
+    public void virtualTimeFlagSelectsVirtualClock() {
+        FarmArgumentParser virtual = parse("-pn", "A", "B", "-pt", "RANDOM_AI", "RANDOM_AI", "-vt");
+        assertTrue(virtual.virtualTime);
+        assertTrue(virtual.createClock() instanceof VirtualClock);
+        assertTrue(parse("--virtualTime").createClock() instanceof VirtualClock);
+
+        FarmArgumentParser real = parse("-pn", "A", "B", "-pt", "RANDOM_AI", "RANDOM_AI");
+        assertFalse(real.virtualTime);
+        assertTrue(real.createClock() instanceof RealTimeClock);
+    }
+
+    /**
+     * Checks the defaults and values of the other flags of our own
+     */
+    @Test
+    public void ownFlagsAreParsed() {
+        FarmArgumentParser defaults = parse();
+        assertEquals(FarmArgumentParser.DEFAULT_SCORE_TABLE_LIMIT, defaults.scoreTableLimit);
+        assertEquals(null, defaults.seed);
+        FarmArgumentParser given = parse("-stl", "0", "-s", "42", "-st", "250");
+        assertEquals(0, given.scoreTableLimit);
+        assertEquals(Long.valueOf(42), given.seed);
+        assertEquals(250, given.searchTime);
+    }
+
+    /**
+     * Helper method parsing arguments
+     *
+     * @param args the command line arguments
+     * @return the parser
+     */
+    private static FarmArgumentParser parse(String... args) {
+        return new FarmArgumentParser(args, "Grow Man's Sky", "Version 1", Collections.singletonList("Test"),
+                Arrays.asList(OptionalFeature.SIMPLE_AI, OptionalFeature.ADVANCED_AI));
+    }
+}
@@ -0,0 +1,111 @@
+package bauernhof.main;
+
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the {@link Tournament} played on different numbers of worker threads.
+ */
+public class TournamentTest {
+
+    /**
+     * Number of games of every tournament
+     */
+    private static final int GAMES = 1000;
+
+    /**
+     * The master seed of every tournament
+     */
+    private static final long SEED = 2024;
+
+    /**
+     * Share of the games per second of a single worker that several workers must reach at least
+     */
+    private static final double THROUGHPUT_TOLERANCE = 0.5;
+
+    /**
+     * The players; Their moves do not depend on the time, so the games only depend on the seed
+     */
+    private static final List<String> PLAYERS = Arrays.asList("SIMPLE_AI", "RANDOM_AI", "RANDOM_AI");
+
+    /**
+     * Lets AWT run without a display like {@link Tournament#main(String[])}
+     */
+    @BeforeClass
+    public static void setUpClass() {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    /**
+     * Plays the same tournament on one and on several workers, which has to give the same statistics
+     */
+    @Test
+    public void resultsDoNotDependOnWorkers() {
+        GameConfiguration config = loadConfig();
+        Tournament.Statistics single = Tournament.run(config, PLAYERS, 0, GAMES, 1, SEED);
+        assertTrue(single.describeResults(), single.describeResults().startsWith("games: " + GAMES + ", failed: 0,"));
+        for (int workers = 2; workers <= maxWorkers(); workers *= 2) {
+            Tournament.Statistics multi = Tournament.run(config, PLAYERS, 0, GAMES, workers, SEED);
+            assertEquals(workers + " workers", single.describeResults(), multi.describeResults());
+        }
+    }
+
+    /**
+     * Checks that adding workers does not make the games slower, e.g. because the workers wait for each other on a
+     * lock; With one processor the workers can only take turns, so only a drop below the tolerance fails the test
+     */
+    @Test
+    public void throughputDoesNotDropWithWorkers() {
+        GameConfiguration config = loadConfig();
+        Tournament.run(config, PLAYERS, 0, GAMES, maxWorkers(), SEED);   //Warm up
+        double single = gamesPerSecond(config, 1);
+        for (int workers = 2; workers <= maxWorkers(); workers *= 2) {
+            double multi = gamesPerSecond(config, workers);
+            assertTrue(String.format("%.1f games/s with %d workers, %.1f games/s with 1 worker", multi, workers, single),
+                    multi >= THROUGHPUT_TOLERANCE * single);
+        }
+    }
+
+    /**
+     * Helper method reading the configuration of the tournaments
+     *
+     * @return the configuration
+     */
+    private static GameConfiguration loadConfig() {
+        return GameSetup.getConfig(new GameConfigurationParser(), new File("bauernhof.xml"));
+    }
+
+    /**
+     * Helper method getting the highest number of workers to test
+     *
+     * @return the number of processors, but at least 2
+     */
+    private static int maxWorkers() {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Helper method measuring the throughput of a number of workers as the best of a few tournaments, which evens out
+     * pauses of the garbage collector and other processes
+     *
+     * @param config  the configuration
+     * @param workers the number of workers
+     * @return the highest number of games per second
+     */
+    private static double gamesPerSecond(GameConfiguration config, int workers) {
+        double best = 0;
+        for (int run = 0; run < 3; run++) {
+            best = Math.max(best, Tournament.run(config, PLAYERS, 0, GAMES, workers, SEED + run).getGamesPerSecond());
+        }
+        return best;
+    }
+}
@@ -0,0 +1,210 @@
+package bauernhof.player;
+
+import bauernhof.gameboard.GameBoard;
+import bauernhof.gameboard.IntArray;
+import bauernhof.gameboard.PackedMove;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the search of the {@link AlphaBetaAIPlayer} against trying every line of play in positions close to the end
+ * of the game, and of its moves when the time budget runs out.
+ */
+public class AlphaBetaAIPlayerTest {
+
+    /**
+     * Number of rounds after which the game ends, as in {@link bauernhof.main.Main}
+     */
+    private static final int MAX_ROUNDS = 30;
+
+    /**
+     * Number of turns left in the positions solved by trying every line
+     */
+    private static final int TURNS_LEFT = 4;
+
+    /**
+     * Brings 2 player games into positions a few turns before the end of the game and checks that the chosen move is
+     * worth as much as the best move found by trying every own move against the moves the other player makes with the
+     * highest score right away; In some positions the move with the highest score right away is worse, so the search
+     * has to look ahead to find the best move
+     *
+     * @throws Exception if a configuration cannot be read or a legal move is rejected
+     */
+    @Test
+    public void searchFindsBestMoveBeforeEnd() throws Exception {
+        int numPlayers = 2;
+        int lastTurn = MAX_ROUNDS * numPlayers;
+        int lookAheadNeeded = 0;
+        for (String configFile : new String[]{"bauernhof.xml", "fr.xml"}) {
+            GameConfiguration config = TestPlayers.loadConfig(configFile);
+            for (int game = 0; game < 15; game++) {
+                Random random = new Random(game);
+                List<Card> deal = TestPlayers.deal(config, random);
+                GameBoard board = TestPlayers.createBoard(config, numPlayers, deal, deal.size());
+                List<AlphaBetaAIPlayer> players = createPlayers(numPlayers, 10_000, config, deal, board);
+
+                //Draw a few cards for the discard pile, then keep its size by only taking from it, so the game goes on
+                int discardSize = 1 + random.nextInt(config.getNumDepositionAreaSlots() - 2);
+                while (board.getTurnCount() <= lastTurn - TURNS_LEFT) {
+                    List<Card> hand = board.getPlayerPile(board.calculateCurrentPlayerId()).getList();
+                    int discarded = board.getDiscardPile().getSize();
+                    Card taken = discarded < discardSize ? board.getDrawPile().lookAt(0) : board.getDiscardPile().lookAt(random.nextInt(discarded));
+                    board.makeMove(new Move(taken, hand.get(random.nextInt(hand.size()))));
+                }
+
+                String name = configFile + " game " + game;
+                int playerId = board.calculateCurrentPlayerId();
+                AlphaBetaAIPlayer player = players.get(playerId - 1);
+                Move chosen = player.chooseMove();
+                int best = solve(board, playerId, lastTurn);
+                assertEquals(name, best, valueOf(board, PackedMove.of(chosen, board.getScoringEngine()), playerId, lastTurn));
+                if (valueOf(board, greedyMove(board), playerId, lastTurn) < best) {
+                    lookAheadNeeded++;
+                }
+            }
+        }
+        assertTrue("No position needed looking ahead", lookAheadNeeded > 0);
+    }
+
+    /**
+     * Plays whole 3 player games with players whose time budget is used up before the search starts; Every move has
+     * still to be legal, found by the first iteration of the search
+     *
+     * @throws Exception if a configuration cannot be read or a move is illegal
+     */
+    @Test
+    public void legalMoveWhenTimeRunsOut() throws Exception {
+        int numPlayers = 3;
+        for (String configFile : new String[]{"bauernhof.xml", "fr.xml"}) {
+            GameConfiguration config = TestPlayers.loadConfig(configFile);
+            List<Card> deal = TestPlayers.deal(config, new Random(5));
+            GameBoard board = TestPlayers.createBoard(config, numPlayers, deal, deal.size());
+            List<AlphaBetaAIPlayer> players = createPlayers(numPlayers, 0, config, deal, board);
+            while (board.getTurnCount() <= MAX_ROUNDS * numPlayers
+                    && board.getDiscardPile().getSize() < config.getNumDepositionAreaSlots()) {
+                AlphaBetaAIPlayer player = players.get(board.calculateCurrentPlayerId() - 1);
+                Move move = player.chooseMove();
+                assertTrue(configFile + " turn " + board.getTurnCount(), player.getCompletedDepth() >= 1);
+                //Throws if the move is illegal
+                board.makeMove(move);
+            }
+        }
+    }
+
+    /**
+     * Checks that the transposition table grows with the time budget between its smallest and its largest size
+     */
+    @Test
+    public void tableIsSizedByTimeBudget() {
+        assertEquals(1 << 10, new AlphaBetaAIPlayer("Player", 0, 0, new VirtualClock()).getTableSize());
+        assertEquals(1 << 15, new AlphaBetaAIPlayer("Player", 0, 20, new VirtualClock()).getTableSize());
+        assertEquals(1 << 18, new AlphaBetaAIPlayer("Player", 0).getTableSize());
+        assertEquals(1 << 18, new AlphaBetaAIPlayer("Player", 0, Long.MAX_VALUE, new VirtualClock()).getTableSize());
+    }
+
+    /**
+     * Helper method calculating the value of the position on the board for a player by trying every line of play
+     * until the end of the game: The player makes every move, the other players make their first move with the
+     * highest score right away
+     *
+     * @param board    the board, which is in the same position afterwards
+     * @param playerId the id of the player
+     * @param lastTurn the last turn of the game
+     * @return the score of the player minus the highest score of the other players at the end of the game
+     * @throws Exception if a generated move is rejected
+     */
+    private static int solve(GameBoard board, int playerId, int lastTurn) throws Exception {
+        if (board.getTurnCount() > lastTurn
+                || board.getDiscardPile().getSize() == board.getConfiguration().getNumDepositionAreaSlots()) {
+            int best = Integer.MIN_VALUE;
+            for (int id = 1; id <= board.getNumOfPlayers(); id++) {
+                if (id != playerId) {
+                    best = Math.max(best, board.getPlayerScore(id));
+                }
+            }
+            return board.getPlayerScore(playerId) - best;
+        }
+        if (board.calculateCurrentPlayerId() != playerId) {
+            return valueOf(board, greedyMove(board), playerId, lastTurn);
+        }
+        IntArray moves = new IntArray();
+        board.generateMoves(moves);
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            best = Math.max(best, valueOf(board, moves.get(i), playerId, lastTurn));
+        }
+        return best;
+    }
+
+    /**
+     * Helper method calculating the value of a move by {@link #solve}
+     *
+     * @param board    the board, which is in the same position afterwards
+     * @param move     the packed move
+     * @param playerId the id of the player
+     * @param lastTurn the last turn of the game
+     * @return the value of the position after the move
+     * @throws Exception if the move is rejected
+     */
+    private static int valueOf(GameBoard board, int move, int playerId, int lastTurn) throws Exception {
+        int token = board.apply(move);
+        int value = solve(board, playerId, lastTurn);
+        board.undo(token);
+        return value;
+    }
+
+    /**
+     * Helper method finding the first of the generated moves giving the current player the highest score right away
+     *
+     * @param board the board, which is in the same position afterwards
+     * @return the packed move
+     * @throws Exception if a generated move is rejected
+     */
+    private static int greedyMove(GameBoard board) throws Exception {
+        int playerId = board.calculateCurrentPlayerId();
+        IntArray moves = new IntArray();
+        board.generateMoves(moves);
+        int bestScore = Integer.MIN_VALUE;
+        int bestMove = -1;
+        for (int i = 0; i < moves.size(); i++) {
+            int token = board.apply(moves.get(i));
+            int score = board.getPlayerScore(playerId);
+            board.undo(token);
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves.get(i);
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Helper method creating search players on the shared board
+     *
+     * @param numPlayers the number of players
+     * @param timeBudget the time budget of the players in milliseconds
+     * @param config     the configuration
+     * @param deal       the shuffled cards
+     * @param board      the board
+     * @return the players in the order of their ids
+     * @throws Exception if a player cannot be initialized
+     */
+    private static List<AlphaBetaAIPlayer> createPlayers(int numPlayers, long timeBudget, GameConfiguration config,
+                                                         List<Card> deal, GameBoard board) throws Exception {
+        List<AlphaBetaAIPlayer> players = new ArrayList<>();
+        for (int i = 0; i < numPlayers; i++) {
+            players.add(new AlphaBetaAIPlayer("Player " + (i + 1), 0, timeBudget, new VirtualClock()));
+        }
+        TestPlayers.seat(players, config, deal, board);
+        return players;
+    }
+}
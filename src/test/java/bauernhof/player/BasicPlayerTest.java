@@ -0,0 +1,158 @@
+package bauernhof.player;
+
+import bauernhof.gameboard.GameBoard;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.preset.ImmutableList;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Test of the verification of a game by {@link BasicPlayer}s which share the authoritative board or replicate it.
+ */
+public class BasicPlayerTest {
+
+    /**
+     * Number of players of the test games
+     */
+    private static final int NUM_PLAYERS = 3;
+
+    /**
+     * The configuration of the test games
+     */
+    private GameConfiguration config;
+
+    /**
+     * The shuffled cards of the test game, the first cards being the hands of the players
+     */
+    private List<Card> deal;
+
+    /**
+     * The authoritative board of the test game
+     */
+    private GameBoard board;
+
+    /**
+     * Reads the configuration and deals the cards
+     *
+     * @throws Exception if the configuration cannot be read
+     */
+    @Before
+    public void setUp() throws Exception {
+        this.config = TestPlayers.loadConfig("bauernhof.xml");
+        this.deal = TestPlayers.deal(this.config, new Random(1));
+        this.board = TestPlayers.createBoard(this.config, NUM_PLAYERS, this.deal, this.deal.size());
+    }
+
+    /**
+     * Plays a game between players on the shared board and a player replicating it, which all have to verify it
+     *
+     * @throws Exception if a player rejects a move or the game
+     */
+    @Test
+    public void sharedBoardGameIsVerified() throws Exception {
+        List<BasicPlayer> players = this.createPlayers(true, true, false);
+        this.play(players, -1, -1);
+        for (BasicPlayer player : players) {
+            player.verifyGame(new ImmutableList<>(this.board.getPlayerScoresAsList()));
+        }
+    }
+
+    /**
+     * Plays a game in which one player on the shared board is told a different move than the one made on the board;
+     * The scores on the shared board are right, but the hash of the moves has to give the player away
+     *
+     * @throws Exception if a player rejects a move
+     */
+    @Test
+    public void differentMovesFailVerification() throws Exception {
+        List<BasicPlayer> players = this.createPlayers(true, true, true);
+        this.play(players, 4, 2);
+        ImmutableList<Integer> scores = new ImmutableList<>(this.board.getPlayerScoresAsList());
+        players.get(0).verifyGame(scores);
+        players.get(2).verifyGame(scores);
+        try {
+            players.get(1).verifyGame(scores);
+            fail("The player was told a different move than the board made");
+        } catch (ScoreDiscrepancyException e) {
+            //Expected
+        }
+    }
+
+    /**
+     * Checks that a player on the shared board can only be updated once per turn, although the board does not change
+     *
+     * @throws Exception if a player rejects the first update
+     */
+    @Test
+    public void sharedBoardIsUpdatedOncePerTurn() throws Exception {
+        List<BasicPlayer> players = this.createPlayers(true, true, true);
+        Move move = players.get(0).request();
+        this.board.makeMove(move);
+        players.get(1).update(move);
+        try {
+            players.get(1).update(move);
+            fail("The player was updated twice in the same turn");
+        } catch (UnsupportedOperationException e) {
+            //Expected
+        }
+        players.get(2).update(move);
+    }
+
+    /**
+     * Helper method creating and initializing random players and dealing their cards on the authoritative board
+     *
+     * @param shared for every player whether it shares the authoritative board or replicates it
+     * @return the players in the order of their ids
+     * @throws Exception if a player cannot be initialized
+     */
+    private List<BasicPlayer> createPlayers(boolean... shared) throws Exception {
+        ImmutableList<Card> initialDrawPile = new ImmutableList<>(this.deal);
+        int handSize = this.config.getNumCardsPerPlayerHand();
+        List<BasicPlayer> players = new ArrayList<>();
+        for (int i = 0; i < NUM_PLAYERS; i++) {
+            BasicPlayer player = new RandomAIPlayer("Player " + (i + 1), 0, new SplittableRandom(i));
+            player.setReportVerification(false);
+            if (shared[i]) {
+                player.shareBoard(this.board);
+            }
+            player.init(this.config, initialDrawPile, NUM_PLAYERS, i + 1);
+            this.board.setPlayerCards(i + 1, new ArrayList<>(this.deal.subList(i * handSize, (i + 1) * handSize)));
+            players.add(player);
+        }
+        return players;
+    }
+
+    /**
+     * Helper method playing a game like {@link bauernhof.main.Main}
+     *
+     * @param players     the players
+     * @param wrongTurn   the turn in which one player is told another move than the one made, or -1
+     * @param wrongPlayer the id of the player told another move
+     * @throws Exception if a player rejects a move
+     */
+    private void play(List<BasicPlayer> players, int wrongTurn, int wrongPlayer) throws Exception {
+        while (this.board.getTurnCount() <= 30 * NUM_PLAYERS
+                && this.board.getDiscardPile().getSize() < this.config.getNumDepositionAreaSlots()) {
+            int turn = this.board.getTurnCount();
+            BasicPlayer current = players.get(this.board.calculateCurrentPlayerId() - 1);
+            Move move = current.request();
+            this.board.makeMove(move);
+            for (BasicPlayer player : players) {
+                if (player == current) {
+                    continue;
+                }
+                boolean wrong = turn == wrongTurn && players.indexOf(player) + 1 == wrongPlayer;
+                player.update(wrong ? new Move(move.getTaken(), move.getTaken()) : move);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package bauernhof.player;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the {@link VirtualClock} skipping the pauses of a game and the {@link RealTimeClock} waiting for them.
+ */
+public class GameClockTest {
+
+    /**
+     * Pauses a virtual clock for far longer than the test may take, which has to return at once and only move the
+     * virtual time on
+     */
+    @Test(timeout = 1000)
+    public void virtualPauseReturnsAtOnce() {
+        VirtualClock clock = new VirtualClock();
+        assertEquals(0, clock.currentTimeMillis());
+        clock.pause(60_000);
+        clock.pause(0);
+        clock.pause(-5);
+        clock.pause(2_500);
+        assertEquals(62_500, clock.currentTimeMillis());
+    }
+
+    /**
+     * Checks that every game gets its own virtual time
+     */
+    @Test
+    public void virtualClocksAreIndependent() {
+        VirtualClock first = new VirtualClock();
+        VirtualClock second = new VirtualClock();
+        first.pause(1000);
+        assertEquals(1000, first.currentTimeMillis());
+        assertEquals(0, second.currentTimeMillis());
+    }
+
+    /**
+     * Checks that the real time clock actually waits
+     *
+     * @throws Exception if the test is interrupted
+     */
+    @Test
+    public void realPauseWaits() throws Exception {
+        RealTimeClock clock = new RealTimeClock();
+        long start = System.nanoTime();
+        clock.pause(50);
+        assertTrue(System.nanoTime() - start >= 50_000_000L);
+        long millis = clock.currentTimeMillis();
+        assertTrue(Math.abs(millis - System.currentTimeMillis()) < 1000);
+    }
+}
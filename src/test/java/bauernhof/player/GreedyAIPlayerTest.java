@@ -0,0 +1,122 @@
+package bauernhof.player;
+
+import bauernhof.gameboard.GameBoard;
+import bauernhof.gameboard.PointsCalculator;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.preset.Move;
+import bauernhof.preset.card.Card;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the moves of the {@link GreedyAIPlayer} against trying every legal move with the {@link PointsCalculator}.
+ */
+public class GreedyAIPlayerTest {
+
+    /**
+     * Number of players of the test games
+     */
+    private static final int NUM_PLAYERS = 3;
+
+    /**
+     * Plays random games and compares the move of the greedy player at every turn with the first of the moves giving
+     * the highest score, trying the top card of the draw pile before the discard pile and the cards of the hand in
+     * their order before the taken card
+     *
+     * @throws Exception if a configuration cannot be read or a legal move is rejected
+     */
+    @Test
+    public void chosenMoveIsFirstBestMove() throws Exception {
+        PointsCalculator calculator = new PointsCalculator();
+        int ties = 0;
+        for (String configFile : new String[]{"bauernhof.xml", "fr.xml"}) {
+            GameConfiguration config = TestPlayers.loadConfig(configFile);
+            for (int game = 0; game < 10; game++) {
+                Random random = new Random(game);
+                List<Card> deal = TestPlayers.deal(config, random);
+                GameBoard board = TestPlayers.createBoard(config, NUM_PLAYERS, deal, deal.size());
+                List<GreedyAIPlayer> players = createPlayers(config, deal, board);
+
+                for (int turn = 0; turn < 40 && board.getDrawPile().getSize() > 0
+                        && board.getDiscardPile().getSize() < config.getNumDepositionAreaSlots(); turn++) {
+                    String name = configFile + " game " + game + " turn " + turn;
+                    List<Card> hand = board.getPlayerPile(board.calculateCurrentPlayerId()).getList();
+                    List<Card> candidates = new ArrayList<>();
+                    candidates.add(board.getDrawPile().lookAt(0));
+                    candidates.addAll(board.getDiscardPile().getList());
+
+                    int bestScore = Integer.MIN_VALUE;
+                    Move best = null;
+                    int bestCount = 0;
+                    for (Card taken : candidates) {
+                        for (int i = 0; i <= hand.size(); i++) {
+                            List<Card> swapped = new ArrayList<>(hand);
+                            if (i < hand.size()) {
+                                swapped.set(i, taken);
+                            }
+                            int score = calculator.calculatePoints(swapped);
+                            if (score > bestScore) {
+                                bestScore = score;
+                                best = new Move(taken, i < hand.size() ? hand.get(i) : taken);
+                                bestCount = 1;
+                            } else if (score == bestScore) {
+                                bestCount++;
+                            }
+                        }
+                    }
+                    if (bestCount > 1) {
+                        ties++;
+                    }
+
+                    Move chosen = players.get(board.calculateCurrentPlayerId() - 1).chooseMove();
+                    assertSame(name, best.getTaken(), chosen.getTaken());
+                    assertSame(name, best.getDeposited(), chosen.getDeposited());
+
+                    //Go on with a random move, so the greedy players see all kinds of positions
+                    Card taken = candidates.get(random.nextInt(candidates.size()));
+                    board.makeMove(random.nextInt(4) == 0 ? chosen : new Move(taken, hand.get(random.nextInt(hand.size()))));
+                }
+            }
+        }
+        assertTrue("No position with several best moves was tested", ties > 0);
+    }
+
+    /**
+     * Checks that a player without any card to take is told so instead of getting an empty move
+     *
+     * @throws Exception if the configuration cannot be read
+     */
+    @Test(expected = IllegalStateException.class)
+    public void noCardToTakeIsRejected() throws Exception {
+        GameConfiguration config = TestPlayers.loadConfig("bauernhof.xml");
+        List<Card> deal = TestPlayers.deal(config, new Random(1));
+        GameBoard board = TestPlayers.createBoard(config, NUM_PLAYERS, deal, NUM_PLAYERS * config.getNumCardsPerPlayerHand());
+        assertEquals(0, board.getDrawPile().getSize());
+        createPlayers(config, deal, board).get(0).chooseMove();
+    }
+
+    /**
+     * Helper method creating greedy players on the shared board
+     *
+     * @param config the configuration
+     * @param deal   the shuffled cards
+     * @param board  the board
+     * @return the players in the order of their ids
+     * @throws Exception if a player cannot be initialized
+     */
+    private static List<GreedyAIPlayer> createPlayers(GameConfiguration config, List<Card> deal, GameBoard board) throws Exception {
+        List<GreedyAIPlayer> players = new ArrayList<>();
+        for (int i = 0; i < NUM_PLAYERS; i++) {
+            players.add(new GreedyAIPlayer("Player " + (i + 1), 0, new VirtualClock()));
+        }
+        TestPlayers.seat(players, config, deal, board);
+        return players;
+    }
+}
@@ -0,0 +1,84 @@
+package bauernhof.player;
+
+import bauernhof.gameboard.GameBoard;
+import bauernhof.gameconfig.GameConfiguration;
+import bauernhof.gameconfig.GameConfigurationParser;
+import bauernhof.preset.ImmutableList;
+import bauernhof.preset.card.Card;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Helper methods setting up games for the tests of the players.
+ */
+final class TestPlayers {
+
+    /**
+     * Only static helper methods
+     */
+    private TestPlayers() {
+    }
+
+    /**
+     * Reads a configuration
+     *
+     * @param configFile the configuration file
+     * @return the configuration
+     * @throws Exception if the configuration cannot be read
+     */
+    static GameConfiguration loadConfig(String configFile) throws Exception {
+        return new GameConfigurationParser().parse(new File(configFile));
+    }
+
+    /**
+     * Shuffles the cards of a configuration independent of the order of the configuration file
+     *
+     * @param config the configuration
+     * @param random the random numbers
+     * @return the shuffled cards, the first cards being the hands of the players
+     */
+    static List<Card> deal(GameConfiguration config, Random random) {
+        List<Card> deal = new ArrayList<>(config.getCards());
+        deal.sort(Comparator.comparing(Card::getName));
+        Collections.shuffle(deal, random);
+        return deal;
+    }
+
+    /**
+     * Creates the authoritative board of a game, whose hands are dealt by {@link #seat}
+     *
+     * @param config     the configuration
+     * @param numPlayers the number of players
+     * @param deal       the shuffled cards
+     * @param end        index after the last card of the deal in the draw pile, the cards after it are left out
+     * @return the board
+     */
+    static GameBoard createBoard(GameConfiguration config, int numPlayers, List<Card> deal, int end) {
+        return new GameBoard(numPlayers, new ArrayList<>(deal.subList(numPlayers * config.getNumCardsPerPlayerHand(), end)), config);
+    }
+
+    /**
+     * Lets players share the authoritative board, initializing them and dealing their cards
+     *
+     * @param players the players in the order of their ids
+     * @param config  the configuration
+     * @param deal    the shuffled cards
+     * @param board   the board
+     * @throws Exception if a player cannot be initialized
+     */
+    static void seat(List<? extends BasicPlayer> players, GameConfiguration config, List<Card> deal, GameBoard board) throws Exception {
+        int handSize = config.getNumCardsPerPlayerHand();
+        for (int i = 0; i < players.size(); i++) {
+            BasicPlayer player = players.get(i);
+            player.setReportVerification(false);
+            player.shareBoard(board);
+            player.init(config, new ImmutableList<>(deal), players.size(), i + 1);
+            board.setPlayerCards(i + 1, new ArrayList<>(deal.subList(i * handSize, (i + 1) * handSize)));
+        }
+    }
+}